@@ -0,0 +1,226 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql.processor;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeKind;
+
+/** Generate the source of a result set mapper for an entity. */
+class MapperGenerator {
+
+  private static final Map<TypeKind, String> getters = new EnumMap<>(TypeKind.class);
+  private static final Map<TypeKind, String> defaults = new EnumMap<>(TypeKind.class);
+
+  static {
+    getters.put(TypeKind.LONG, "getLong");
+    getters.put(TypeKind.INT, "getInt");
+    getters.put(TypeKind.SHORT, "getShort");
+    getters.put(TypeKind.BYTE, "getByte");
+    getters.put(TypeKind.DOUBLE, "getDouble");
+    getters.put(TypeKind.FLOAT, "getFloat");
+    getters.put(TypeKind.BOOLEAN, "getBoolean");
+
+    defaults.put(TypeKind.LONG, "0L");
+    defaults.put(TypeKind.INT, "0");
+    defaults.put(TypeKind.SHORT, "(short) 0");
+    defaults.put(TypeKind.BYTE, "(byte) 0");
+    defaults.put(TypeKind.DOUBLE, "0.0");
+    defaults.put(TypeKind.FLOAT, "0.0f");
+    defaults.put(TypeKind.BOOLEAN, "false");
+  }
+
+  private final String packageName;
+  private final String entityName;
+  private final String mapperName;
+  private final List<Property> properties;
+  private final boolean constructor;
+
+  MapperGenerator(TypeElement entity, List<Property> properties, boolean constructor) {
+    packageName = packageOf(entity).getQualifiedName().toString();
+    entityName = entity.getQualifiedName().toString();
+    mapperName = flatName(entity) + "ResultSetMapper";
+    this.properties = properties;
+    this.constructor = constructor;
+  }
+
+  String getQualifiedMapperName() {
+    return packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+  }
+
+  String generate() {
+    StringBuilder source = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      source.append("package ").append(packageName).append(";\n\n");
+    }
+    source
+        .append("import de.muspellheim.commons.sql.ResultSetMapper;\n")
+        .append("import de.muspellheim.commons.sql.RowMapper;\n")
+        .append("import java.sql.ResultSet;\n")
+        .append("import java.sql.ResultSetMetaData;\n")
+        .append("import java.sql.SQLException;\n\n")
+        .append("/** Result set mapper for {@link ")
+        .append(entityName)
+        .append("}, generated by ResultSetMapperProcessor. */\n")
+        .append("public class ")
+        .append(mapperName)
+        .append(" extends ResultSetMapper<")
+        .append(entityName)
+        .append("> {\n\n");
+    appendColumnLabels(source);
+    appendConstructor(source);
+    appendMap(source);
+    appendCreateRowMapper(source);
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private void appendColumnLabels(StringBuilder source) {
+    source
+        .append("  private static final String[] COLUMN_LABELS = {")
+        .append(
+            properties.stream()
+                .map(p -> "\"" + p.getColumnLabel() + "\"")
+                .collect(Collectors.joining(", ")))
+        .append("};\n\n");
+  }
+
+  private void appendConstructor(StringBuilder source) {
+    source
+        .append("  public ")
+        .append(mapperName)
+        .append("() {\n")
+        .append("    super(")
+        .append(entityName)
+        .append(".class, false);\n")
+        .append("  }\n\n");
+  }
+
+  private void appendMap(StringBuilder source) {
+    source
+        .append("  @Override\n")
+        .append("  public ")
+        .append(entityName)
+        .append(" map(ResultSet resultSet) throws SQLException {\n")
+        .append("    return rowMapperFor(resultSet.getMetaData()).map(resultSet);\n")
+        .append("  }\n\n");
+  }
+
+  private void appendCreateRowMapper(StringBuilder source) {
+    source
+        .append("  @Override\n")
+        .append("  protected RowMapper<")
+        .append(entityName)
+        .append("> createRowMapper(ResultSetMetaData metaData) throws SQLException {\n")
+        .append("    int[] columns = columnIndexes(metaData, COLUMN_LABELS);\n")
+        .append("    RowMapper<?>[] mappers = new RowMapper<?>[COLUMN_LABELS.length];\n");
+    for (int i = 0; i < properties.size(); i++) {
+      Property property = properties.get(i);
+      if (!isPrimitive(property)) {
+        source
+            .append("    if (columns[")
+            .append(i)
+            .append("] > 0) {\n")
+            .append("      mappers[")
+            .append(i)
+            .append("] = valueMapper(")
+            .append(property.getType())
+            .append(".class, metaData, columns[")
+            .append(i)
+            .append("]);\n")
+            .append("    }\n");
+      }
+    }
+    if (constructor) {
+      appendConstructorRowMapper(source);
+    } else {
+      appendSetterRowMapper(source);
+    }
+    source.append("  }\n");
+  }
+
+  private void appendConstructorRowMapper(StringBuilder source) {
+    source
+        .append("    return resultSet ->\n")
+        .append("        new ")
+        .append(entityName)
+        .append("(");
+    for (int i = 0; i < properties.size(); i++) {
+      Property property = properties.get(i);
+      source
+          .append(i == 0 ? "\n" : ",\n")
+          .append("            columns[")
+          .append(i)
+          .append("] > 0 ? ")
+          .append(readValue(property, i))
+          .append(" : ")
+          .append(defaultValue(property));
+    }
+    source.append(");\n");
+  }
+
+  private void appendSetterRowMapper(StringBuilder source) {
+    source
+        .append("    return resultSet -> {\n")
+        .append("      ")
+        .append(entityName)
+        .append(" entity = new ")
+        .append(entityName)
+        .append("();\n");
+    for (int i = 0; i < properties.size(); i++) {
+      Property property = properties.get(i);
+      source
+          .append("      if (columns[")
+          .append(i)
+          .append("] > 0) {\n")
+          .append("        entity.")
+          .append(property.getSetterName())
+          .append("(")
+          .append(readValue(property, i))
+          .append(");\n")
+          .append("      }\n");
+    }
+    source.append("      return entity;\n").append("    };\n");
+  }
+
+  private static String readValue(Property property, int index) {
+    if (isPrimitive(property)) {
+      return "resultSet." + getters.get(property.getType().getKind()) + "(columns[" + index + "])";
+    } else {
+      return "(" + property.getType() + ") mappers[" + index + "].map(resultSet)";
+    }
+  }
+
+  private static String defaultValue(Property property) {
+    return defaults.getOrDefault(property.getType().getKind(), "null");
+  }
+
+  private static boolean isPrimitive(Property property) {
+    return property.getType().getKind().isPrimitive();
+  }
+
+  private static PackageElement packageOf(Element element) {
+    Element e = element;
+    while (e.getKind() != ElementKind.PACKAGE) {
+      e = e.getEnclosingElement();
+    }
+    return (PackageElement) e;
+  }
+
+  private static String flatName(TypeElement type) {
+    Element enclosing = type.getEnclosingElement();
+    if (enclosing instanceof TypeElement) {
+      return flatName((TypeElement) enclosing) + "_" + type.getSimpleName();
+    }
+    return type.getSimpleName().toString();
+  }
+}
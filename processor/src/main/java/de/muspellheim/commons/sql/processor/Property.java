@@ -0,0 +1,41 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql.processor;
+
+import de.muspellheim.commons.sql.ResultSetMapper;
+import javax.lang.model.type.TypeMirror;
+
+/** A mapped property of an entity. */
+class Property {
+
+  private final String name;
+  private final String columnLabel;
+  private final TypeMirror type;
+  private final String setterName;
+
+  Property(String name, TypeMirror type, String setterName) {
+    this.name = name;
+    this.columnLabel = ResultSetMapper.columnLabel(name);
+    this.type = type;
+    this.setterName = setterName;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  String getColumnLabel() {
+    return columnLabel;
+  }
+
+  TypeMirror getType() {
+    return type;
+  }
+
+  String getSetterName() {
+    return setterName;
+  }
+}
@@ -0,0 +1,166 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql.processor;
+
+import java.beans.ConstructorProperties;
+import java.beans.Introspector;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generate result set mappers for entities annotated with <code>GenerateResultSetMapper</code>.
+ *
+ * <p>The generated mapper <code>&lt;Entity&gt;ResultSetMapper</code> extends <code>ResultSetMapper
+ * </code> and maps a row without reflection and introspection at runtime.
+ */
+@SupportedAnnotationTypes(ResultSetMapperProcessor.ANNOTATION)
+public class ResultSetMapperProcessor extends AbstractProcessor {
+
+  static final String ANNOTATION = "de.muspellheim.commons.sql.GenerateResultSetMapper";
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (TypeElement annotation : annotations) {
+      for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+        if (element.getKind() != ElementKind.CLASS) {
+          error(element, "Only a class can be annotated with @GenerateResultSetMapper");
+          continue;
+        }
+
+        try {
+          generate((TypeElement) element);
+        } catch (IllegalArgumentException e) {
+          error(element, e.getMessage());
+        } catch (IOException e) {
+          error(element, "Can not write result set mapper: " + e.getMessage());
+        }
+      }
+    }
+    return true;
+  }
+
+  private void generate(TypeElement entity) throws IOException {
+    checkEntity(entity);
+    MapperGenerator generator;
+    ExecutableElement constructor = findAnnotatedConstructor(entity);
+    if (constructor != null) {
+      generator = new MapperGenerator(entity, constructorProperties(constructor), true);
+    } else if (hasDefaultConstructor(entity)) {
+      generator = new MapperGenerator(entity, setterProperties(entity), false);
+    } else {
+      throw new IllegalArgumentException(
+          "Type must have a constructor annotated with @ConstructorProperties or a public default "
+              + "constructor: "
+              + entity.getQualifiedName());
+    }
+
+    JavaFileObject file =
+        processingEnv.getFiler().createSourceFile(generator.getQualifiedMapperName(), entity);
+    try (Writer writer = file.openWriter()) {
+      writer.write(generator.generate());
+    }
+  }
+
+  private static void checkEntity(TypeElement entity) {
+    if (!entity.getModifiers().contains(Modifier.PUBLIC)
+        || entity.getModifiers().contains(Modifier.ABSTRACT)) {
+      throw new IllegalArgumentException("Type must be a public concrete class: " + entity);
+    }
+    if (entity.getNestingKind() != NestingKind.TOP_LEVEL
+        && !entity.getModifiers().contains(Modifier.STATIC)) {
+      throw new IllegalArgumentException("Nested type must be static: " + entity);
+    }
+    if (!entity.getTypeParameters().isEmpty()) {
+      throw new IllegalArgumentException("Type must not be generic: " + entity);
+    }
+  }
+
+  private static ExecutableElement findAnnotatedConstructor(TypeElement entity) {
+    return ElementFilter.constructorsIn(entity.getEnclosedElements()).stream()
+        .filter(c -> c.getModifiers().contains(Modifier.PUBLIC))
+        .filter(c -> c.getAnnotation(ConstructorProperties.class) != null)
+        .findFirst()
+        .orElse(null);
+  }
+
+  private static boolean hasDefaultConstructor(TypeElement entity) {
+    return ElementFilter.constructorsIn(entity.getEnclosedElements()).stream()
+        .anyMatch(c -> c.getModifiers().contains(Modifier.PUBLIC) && c.getParameters().isEmpty());
+  }
+
+  private List<Property> constructorProperties(ExecutableElement constructor) {
+    String[] names = constructor.getAnnotation(ConstructorProperties.class).value();
+    List<? extends VariableElement> parameters = constructor.getParameters();
+    if (names.length != parameters.size()) {
+      throw new IllegalArgumentException(
+          "@ConstructorProperties does not match constructor parameters: " + constructor);
+    }
+
+    List<Property> properties = new ArrayList<>();
+    for (int i = 0; i < names.length; i++) {
+      properties.add(new Property(names[i], erasure(parameters.get(i)), null));
+    }
+    return properties;
+  }
+
+  private List<Property> setterProperties(TypeElement entity) {
+    Map<String, Property> properties = new LinkedHashMap<>();
+    for (ExecutableElement method :
+        ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(entity))) {
+      if (isSetter(method)) {
+        String setterName = method.getSimpleName().toString();
+        String name = Introspector.decapitalize(setterName.substring(3));
+        properties.putIfAbsent(
+            name, new Property(name, erasure(method.getParameters().get(0)), setterName));
+      }
+    }
+    return new ArrayList<>(properties.values());
+  }
+
+  private static boolean isSetter(ExecutableElement method) {
+    String name = method.getSimpleName().toString();
+    return name.startsWith("set")
+        && name.length() > 3
+        && method.getParameters().size() == 1
+        && method.getReturnType().getKind() == TypeKind.VOID
+        && method.getModifiers().contains(Modifier.PUBLIC)
+        && !method.getModifiers().contains(Modifier.STATIC);
+  }
+
+  private TypeMirror erasure(VariableElement variable) {
+    return processingEnv.getTypeUtils().erasure(variable.asType());
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+}
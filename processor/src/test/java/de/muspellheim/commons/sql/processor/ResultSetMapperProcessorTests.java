@@ -0,0 +1,197 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql.processor;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.muspellheim.commons.sql.ResultSetMapper;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ResultSetMapperProcessorTests {
+
+  private static final String SETTER_ENTITY =
+      "package com.example;\n"
+          + "\n"
+          + "@de.muspellheim.commons.sql.GenerateResultSetMapper\n"
+          + "public class SetterEntity {\n"
+          + "  private String familyName;\n"
+          + "  private int age;\n"
+          + "\n"
+          + "  public String getFamilyName() { return familyName; }\n"
+          + "  public void setFamilyName(String familyName) { this.familyName = familyName; }\n"
+          + "  public int getAge() { return age; }\n"
+          + "  public void setAge(int age) { this.age = age; }\n"
+          + "  public String toString() { return familyName + \"/\" + age; }\n"
+          + "}\n";
+
+  private static final String CONSTRUCTOR_ENTITY =
+      "package com.example;\n"
+          + "\n"
+          + "@de.muspellheim.commons.sql.GenerateResultSetMapper\n"
+          + "public class ConstructorEntity {\n"
+          + "  private final String familyName;\n"
+          + "  private final int age;\n"
+          + "\n"
+          + "  @java.beans.ConstructorProperties({\"familyName\", \"age\"})\n"
+          + "  public ConstructorEntity(String familyName, int age) {\n"
+          + "    this.familyName = familyName;\n"
+          + "    this.age = age;\n"
+          + "  }\n"
+          + "\n"
+          + "  public String toString() { return familyName + \"/\" + age; }\n"
+          + "}\n";
+
+  private static final String INVALID_ENTITY =
+      "package com.example;\n"
+          + "\n"
+          + "@de.muspellheim.commons.sql.GenerateResultSetMapper\n"
+          + "public class InvalidEntity {\n"
+          + "  public InvalidEntity(String familyName) {}\n"
+          + "}\n";
+
+  @TempDir Path output;
+
+  @Test
+  void setterMapper() throws Exception {
+    // Given
+    DiagnosticCollector<JavaFileObject> diagnostics = compile("SetterEntity", SETTER_ENTITY);
+    ResultSetMapper<?> mapper = loadMapper("com.example.SetterEntityResultSetMapper");
+
+    // When
+    Object entity = mapper.map(resultSet(Arrays.asList("family_name", "age"), "Alice", 42));
+
+    // Then
+    assertAll(
+        () -> assertTrue(diagnostics.getDiagnostics().isEmpty(), "diagnostics"),
+        () -> assertEquals("Alice/42", entity.toString(), "entity"));
+  }
+
+  @Test
+  void constructorMapper() throws Exception {
+    // Given
+    compile("ConstructorEntity", CONSTRUCTOR_ENTITY);
+    ResultSetMapper<?> mapper = loadMapper("com.example.ConstructorEntityResultSetMapper");
+
+    // When
+    Object entity = mapper.map(resultSet(Collections.singletonList("age"), 42));
+
+    // Then
+    assertEquals("null/42", entity.toString());
+  }
+
+  @Test
+  void unmappedColumn() throws Exception {
+    // Given
+    compile("ConstructorEntity", CONSTRUCTOR_ENTITY);
+    ResultSetMapper<?> mapper = loadMapper("com.example.ConstructorEntityResultSetMapper");
+    ResultSet resultSet = resultSet(Collections.singletonList("weight"), 80.5);
+
+    // When
+    Throwable exception = assertThrows(IllegalStateException.class, () -> mapper.map(resultSet));
+
+    // Then
+    assertEquals("no mapped property found for column: weight", exception.getMessage());
+  }
+
+  @Test
+  void invalidEntity() throws Exception {
+    // When
+    DiagnosticCollector<JavaFileObject> diagnostics = compile("InvalidEntity", INVALID_ENTITY);
+
+    // Then
+    Diagnostic<? extends JavaFileObject> diagnostic = diagnostics.getDiagnostics().get(0);
+    assertAll(
+        () -> assertEquals(Diagnostic.Kind.ERROR, diagnostic.getKind(), "kind"),
+        () ->
+            assertTrue(
+                diagnostic.getMessage(null).startsWith("Type must have a constructor"), "message"),
+        () -> assertFalse(output.resolve("com/example/InvalidEntity.class").toFile().exists()));
+  }
+
+  private DiagnosticCollector<JavaFileObject> compile(String className, String source)
+      throws Exception {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavaFileObject file =
+        new SimpleJavaFileObject(
+            URI.create("string:///com/example/" + className + ".java"),
+            JavaFileObject.Kind.SOURCE) {
+          @Override
+          public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+          }
+        };
+    String classpath =
+        Paths.get(ResultSetMapper.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+            .toString();
+    List<String> options = Arrays.asList("-classpath", classpath, "-d", output.toString());
+    CompilationTask task =
+        compiler.getTask(null, null, diagnostics, options, null, Collections.singleton(file));
+    task.setProcessors(Collections.singleton(new ResultSetMapperProcessor()));
+    task.call();
+    return diagnostics;
+  }
+
+  private ResultSetMapper<?> loadMapper(String className) throws Exception {
+    URLClassLoader classLoader =
+        new URLClassLoader(new URL[] {output.toUri().toURL()}, getClass().getClassLoader());
+    return (ResultSetMapper<?>)
+        classLoader.loadClass(className).getDeclaredConstructor().newInstance();
+  }
+
+  private static ResultSet resultSet(List<String> columnLabels, Object... values) {
+    ResultSetMetaData metaData =
+        (ResultSetMetaData)
+            Proxy.newProxyInstance(
+                ResultSetMapperProcessorTests.class.getClassLoader(),
+                new Class<?>[] {ResultSetMetaData.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("getColumnCount")) {
+                    return columnLabels.size();
+                  } else if (method.getName().equals("getColumnLabel")) {
+                    return columnLabels.get((Integer) args[0] - 1);
+                  }
+                  throw new UnsupportedOperationException(method.getName());
+                });
+    return (ResultSet)
+        Proxy.newProxyInstance(
+            ResultSetMapperProcessorTests.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            (proxy, method, args) -> {
+              if (method.getName().equals("getMetaData")) {
+                return metaData;
+              } else if (method.getName().equals("wasNull")) {
+                return false;
+              } else if (method.getName().startsWith("get") && args[0] instanceof Integer) {
+                return values[(Integer) args[0] - 1];
+              }
+              throw new UnsupportedOperationException(method.getName());
+            });
+  }
+}
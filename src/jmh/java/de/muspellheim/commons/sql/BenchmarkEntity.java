@@ -0,0 +1,23 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BenchmarkEntity {
+  long id;
+  String name;
+  int age;
+  double weight;
+  boolean active;
+  LocalDateTime createdAt;
+}
@@ -0,0 +1,104 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import de.muspellheim.commons.sql.ResultSetMapper.Strategy;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the overhead of introspection and metadata resolution.
+ *
+ * <p>A result set with a single row is mapped, so the cost is dominated by creating the mapper and
+ * resolving the result set metadata into a row mapper.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+
+  private static final String[] LABELS = {"id", "name", "age", "weight", "active", "created_at"};
+  private static final int[] TYPES = {
+    Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.BOOLEAN, Types.TIMESTAMP
+  };
+
+  private StubResultSet resultSet;
+  private ResultSetMapper<BenchmarkEntity> mapper;
+
+  /** Creates the result set and a mapper. */
+  @Setup
+  public void setUp() {
+    resultSet = StubResultSetGenerator.of(LABELS, TYPES).withRows(1).generate();
+    mapper = new CompiledConstructorResultSetMapper<>(BenchmarkEntity.class);
+  }
+
+  /**
+   * Create a new mapper for every query, so the entity type is introspected and the metadata is
+   * resolved every time.
+   *
+   * @return the mapped entities
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public List<BenchmarkEntity> newMapper() throws SQLException {
+    resultSet.reset();
+    return new CompiledConstructorResultSetMapper<>(BenchmarkEntity.class).mapList(resultSet);
+  }
+
+  /**
+   * Use the shared mapper, so only the row mapper is looked up by the column labels.
+   *
+   * @return the mapped entities
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public List<BenchmarkEntity> sharedMapper() throws SQLException {
+    resultSet.reset();
+    return ResultSetMapper.forType(BenchmarkEntity.class, Strategy.COMPILED_CONSTRUCTOR)
+        .mapList(resultSet);
+  }
+
+  /**
+   * Resolve the metadata into a new row mapper without the cache.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity newRowMapper() throws SQLException {
+    resultSet.reset();
+    resultSet.next();
+    return mapper.createRowMapper(resultSet.getMetaData()).map(resultSet);
+  }
+
+  /**
+   * Look up the cached row mapper by the column labels.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity cachedRowMapper() throws SQLException {
+    resultSet.reset();
+    resultSet.next();
+    return mapper.rowMapperFor(resultSet.getMetaData()).map(resultSet);
+  }
+}
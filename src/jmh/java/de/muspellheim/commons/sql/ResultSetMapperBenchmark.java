@@ -0,0 +1,90 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compare the reflective mappers with the compiled mappers mapping a list of entities. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetMapperBenchmark {
+
+  private static final String[] LABELS = {"id", "name", "age", "weight", "active", "created_at"};
+  private static final int[] TYPES = {
+    Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.BOOLEAN, Types.TIMESTAMP
+  };
+
+  @Param({"1000"})
+  private int rows;
+
+  @Param({"0.0", "0.1"})
+  private double nullRatio;
+
+  private StubResultSet resultSet;
+
+  private ResultSetMapper<BenchmarkEntity> constructorMapper;
+  private ResultSetMapper<BenchmarkEntity> compiledConstructorMapper;
+  private ResultSetMapper<BenchmarkEntity> setterMapper;
+  private ResultSetMapper<BenchmarkEntity> compiledSetterMapper;
+
+  /** Creates the result set and the mappers. */
+  @Setup
+  public void setUp() {
+    resultSet =
+        StubResultSetGenerator.of(LABELS, TYPES).withRows(rows).withNullRatio(nullRatio).generate();
+
+    constructorMapper = new ConstructorResultSetMapper<>(BenchmarkEntity.class);
+    compiledConstructorMapper = new CompiledConstructorResultSetMapper<>(BenchmarkEntity.class);
+    setterMapper = new SetterResultSetMapper<>(BenchmarkEntity.class);
+    compiledSetterMapper = new CompiledSetterResultSetMapper<>(BenchmarkEntity.class);
+  }
+
+  /** Map with the reflective constructor mapper. */
+  @Benchmark
+  public List<BenchmarkEntity> constructor() throws SQLException {
+    resultSet.reset();
+    return constructorMapper.mapList(resultSet);
+  }
+
+  /** Map with the compiled constructor mapper. */
+  @Benchmark
+  public List<BenchmarkEntity> compiledConstructor() throws SQLException {
+    resultSet.reset();
+    return compiledConstructorMapper.mapList(resultSet);
+  }
+
+  /** Map with the reflective setter mapper. */
+  @Benchmark
+  public List<BenchmarkEntity> setter() throws SQLException {
+    resultSet.reset();
+    return setterMapper.mapList(resultSet);
+  }
+
+  /** Map with the compiled setter mapper. */
+  @Benchmark
+  public List<BenchmarkEntity> compiledSetter() throws SQLException {
+    resultSet.reset();
+    return compiledSetterMapper.mapList(resultSet);
+  }
+}
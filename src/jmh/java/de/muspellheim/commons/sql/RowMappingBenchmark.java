@@ -0,0 +1,124 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the cost to map a single row.
+ *
+ * <p>Every invocation maps the next row of the result set, so the cost of the list and of the
+ * metadata lookup is excluded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+  private static final String[] LABELS = {"id", "name", "age", "weight", "active", "created_at"};
+  private static final int[] TYPES = {
+    Types.BIGINT, Types.VARCHAR, Types.INTEGER, Types.DOUBLE, Types.BOOLEAN, Types.TIMESTAMP
+  };
+
+  @Param({"0.0", "0.1"})
+  private double nullRatio;
+
+  private StubResultSet resultSet;
+
+  private RowMapper<BenchmarkEntity> constructorMapper;
+  private RowMapper<BenchmarkEntity> compiledConstructorMapper;
+  private RowMapper<BenchmarkEntity> setterMapper;
+  private RowMapper<BenchmarkEntity> compiledSetterMapper;
+
+  /**
+   * Creates the result set and resolves the row mappers.
+   *
+   * @throws SQLException if an error occurred
+   */
+  @Setup
+  public void setUp() throws SQLException {
+    resultSet = StubResultSetGenerator.of(LABELS, TYPES).withNullRatio(nullRatio).generate();
+
+    constructorMapper = rowMapper(new ConstructorResultSetMapper<>(BenchmarkEntity.class));
+    compiledConstructorMapper =
+        rowMapper(new CompiledConstructorResultSetMapper<>(BenchmarkEntity.class));
+    setterMapper = rowMapper(new SetterResultSetMapper<>(BenchmarkEntity.class));
+    compiledSetterMapper = rowMapper(new CompiledSetterResultSetMapper<>(BenchmarkEntity.class));
+  }
+
+  private RowMapper<BenchmarkEntity> rowMapper(ResultSetMapper<BenchmarkEntity> mapper)
+      throws SQLException {
+    return mapper.rowMapperFor(resultSet.getMetaData());
+  }
+
+  private StubResultSet nextRow() {
+    if (!resultSet.next()) {
+      resultSet.reset();
+      resultSet.next();
+    }
+    return resultSet;
+  }
+
+  /**
+   * Map a row with the reflective constructor mapper.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity constructor() throws SQLException {
+    return constructorMapper.map(nextRow());
+  }
+
+  /**
+   * Map a row with the compiled constructor mapper.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity compiledConstructor() throws SQLException {
+    return compiledConstructorMapper.map(nextRow());
+  }
+
+  /**
+   * Map a row with the reflective setter mapper.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity setter() throws SQLException {
+    return setterMapper.map(nextRow());
+  }
+
+  /**
+   * Map a row with the compiled setter mapper.
+   *
+   * @return the mapped entity
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public BenchmarkEntity compiledSetter() throws SQLException {
+    return compiledSetterMapper.map(nextRow());
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntFunction;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Generate stub result sets with configurable rows, columns, types and null ratio.
+ *
+ * <p>The values are derived from the row number, so every generated result set with the same
+ * configuration contains the same values. Strings repeat every 100 rows like a typical low
+ * cardinality column.
+ *
+ * @see StubResultSet
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class StubResultSetGenerator {
+
+  private static final Map<Integer, IntFunction<Object>> values = new HashMap<>();
+
+  static {
+    LocalDateTime timestamp = LocalDateTime.of(2020, 1, 1, 12, 0);
+    values.put(Types.BIGINT, i -> (long) i);
+    values.put(Types.INTEGER, i -> i % 100);
+    values.put(Types.DOUBLE, i -> 50.0 + i % 50);
+    values.put(Types.BOOLEAN, i -> i % 2 == 0);
+    values.put(Types.VARCHAR, i -> "Value " + i % 100);
+    values.put(Types.DATE, i -> timestamp.toLocalDate().plusDays(i % 365));
+    values.put(Types.TIMESTAMP, i -> timestamp.plusMinutes(i));
+  }
+
+  /**
+   * Number of rows.
+   *
+   * @return the rows
+   */
+  int rows;
+
+  /**
+   * Labels of the columns.
+   *
+   * @return the column labels
+   */
+  @NonNull String[] labels;
+
+  /**
+   * SQL types of the columns, see {@link Types}.
+   *
+   * @return the column types
+   */
+  @NonNull int[] types;
+
+  /**
+   * Ratio of <code>NULL</code> values between 0 and 1.
+   *
+   * @return the null ratio
+   */
+  double nullRatio;
+
+  /**
+   * Seed for the distribution of <code>NULL</code> values.
+   *
+   * @return the seed
+   */
+  long seed;
+
+  /**
+   * Creates a generator for given columns with 1000 rows and without <code>NULL</code> values.
+   *
+   * @param labels the column labels
+   * @param types the SQL types of the columns, supported are <code>BIGINT</code>, <code>INTEGER
+   *     </code>, <code>DOUBLE</code>, <code>BOOLEAN</code>, <code>VARCHAR</code>, <code>DATE</code>
+   *     and <code>TIMESTAMP</code>
+   * @return the generator
+   */
+  public static StubResultSetGenerator of(String[] labels, int[] types) {
+    if (labels.length != types.length) {
+      throw new IllegalArgumentException("Number of labels and types must be equal.");
+    }
+    for (int type : types) {
+      if (!values.containsKey(type)) {
+        throw new IllegalArgumentException("Unsupported SQL type: " + type);
+      }
+    }
+    return new StubResultSetGenerator(1000, labels, types, 0.0, 42);
+  }
+
+  /**
+   * Creates a generator for a number of columns labeled <code>column_1</code>, <code>column_2
+   * </code> and so on with types repeated in given order.
+   *
+   * @param columns the number of columns
+   * @param types the SQL types repeated over the columns
+   * @return the generator
+   * @see #of(String[], int[])
+   */
+  public static StubResultSetGenerator ofColumns(int columns, int... types) {
+    String[] labels = new String[columns];
+    int[] columnTypes = new int[columns];
+    for (int i = 0; i < columns; i++) {
+      labels[i] = "column_" + (i + 1);
+      columnTypes[i] = types[i % types.length];
+    }
+    return of(labels, columnTypes);
+  }
+
+  /**
+   * Generate a result set.
+   *
+   * @return the generated result set
+   */
+  public StubResultSet generate() {
+    Random random = new Random(seed);
+    Object[][] data = new Object[rows][types.length];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < types.length; j++) {
+        boolean isNull = nullRatio > 0 && random.nextDouble() < nullRatio;
+        data[i][j] = isNull ? null : values.get(types[j]).apply(i);
+      }
+    }
+    return new StubResultSet(labels, types, data);
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.Map;
+
+/** The meta data of a stub result set. */
+class StubResultSetMetaData implements ResultSetMetaData {
+
+  private final String[] labels;
+  private final int[] types;
+  private final Map<String, Integer> indexes = new HashMap<>();
+
+  StubResultSetMetaData(String[] labels, int[] types) {
+    this.labels = labels;
+    this.types = types;
+    for (int i = 0; i < labels.length; i++) {
+      indexes.put(labels[i], i + 1);
+    }
+  }
+
+  int findColumn(String columnLabel) throws SQLException {
+    Integer index = indexes.get(columnLabel);
+    if (index == null) {
+      throw new SQLException("column not found: " + columnLabel);
+    }
+    return index;
+  }
+
+  @Override
+  public int getColumnCount() {
+    return labels.length;
+  }
+
+  @Override
+  public String getColumnLabel(int column) {
+    return labels[column - 1];
+  }
+
+  @Override
+  public String getColumnName(int column) {
+    return labels[column - 1];
+  }
+
+  @Override
+  public int getColumnType(int column) {
+    return types[column - 1];
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) {
+    return false;
+  }
+
+  @Override
+  public String getCatalogName(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getColumnClassName(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int getColumnDisplaySize(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getColumnTypeName(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int getPrecision(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int getScale(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getSchemaName(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public String getTableName(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isAutoIncrement(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isCaseSensitive(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isCurrency(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isDefinitelyWritable(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public int isNullable(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isReadOnly(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isSearchable(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isSigned(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+
+  @Override
+  public boolean isWritable(int column) throws SQLException {
+    throw new SQLFeatureNotSupportedException();
+  }
+}
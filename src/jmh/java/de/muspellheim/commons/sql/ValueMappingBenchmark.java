@@ -0,0 +1,95 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compare the mapping of values to boxed lists, primitive vectors and column vectors. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueMappingBenchmark {
+
+  @Param({"1000", "100000"})
+  private int rows;
+
+  @Param({"4"})
+  private int columns;
+
+  @Param({"0.0", "0.1"})
+  private double nullRatio;
+
+  private StubResultSet values;
+  private StubResultSet table;
+
+  /** Creates the result sets. */
+  @Setup
+  public void setUp() {
+    values =
+        StubResultSetGenerator.ofColumns(1, Types.BIGINT)
+            .withRows(rows)
+            .withNullRatio(nullRatio)
+            .generate();
+    table =
+        StubResultSetGenerator.ofColumns(columns, Types.BIGINT, Types.VARCHAR, Types.DOUBLE)
+            .withRows(rows)
+            .withNullRatio(nullRatio)
+            .generate();
+  }
+
+  /**
+   * Map a column to a list of boxed values.
+   *
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public List<Long> valueList() throws SQLException {
+    values.reset();
+    return ResultSetMapper.mapValueList(values, Long.class);
+  }
+
+  /**
+   * Map a column to a vector of primitive values.
+   *
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public LongVector longVector() throws SQLException {
+    values.reset();
+    return ResultSetMapper.mapLongVector(values);
+  }
+
+  /**
+   * Map all columns to column vectors.
+   *
+   * @return the mapped columns
+   * @throws SQLException if an error occurred
+   */
+  @Benchmark
+  public ColumnarResult columnVectors() throws SQLException {
+    table.reset();
+    return ResultSetMapper.mapColumns(table);
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Progress of a batch task after a chunk was executed.
+ *
+ * @see SqlBatchTask
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class BatchProgress {
+
+  /**
+   * Number of executed chunks, including a failed chunk.
+   *
+   * @return the executed chunks
+   */
+  int chunks;
+
+  /**
+   * Number of entities in the last executed chunk.
+   *
+   * @return the chunk entities
+   */
+  int chunkEntities;
+
+  /**
+   * Number of entities of successfully executed chunks.
+   *
+   * @return the processed entities
+   */
+  long processedEntities;
+
+  /**
+   * Number of rows updated by successfully executed chunks, as far as reported by the driver.
+   *
+   * @return the update count
+   */
+  long updateCount;
+
+  /**
+   * The error of the last chunk or <code>null</code> if the chunk was executed successfully.
+   *
+   * @return the error of the last chunk
+   */
+  SQLException failure;
+
+  /**
+   * Tests if the last chunk failed.
+   *
+   * @return <code>true</code> if the last chunk failed
+   */
+  public boolean isFailed() {
+    return failure != null;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.BitSet;
+
+/**
+ * A growable vector of <code>boolean</code> values with a null bitmap.
+ *
+ * <p>The values are stored in a bitmap. A <code>NULL</code> is stored as <code>false</code> and
+ * marked in the null bitmap.
+ *
+ * @see ColumnarResult
+ */
+public class BooleanVector extends ColumnVector {
+
+  private final BitSet values = new BitSet();
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value
+   */
+  public void add(boolean value) {
+    values.set(size(), value);
+    added(false);
+  }
+
+  /** Appends a <code>NULL</code>. */
+  public void addNull() {
+    values.clear(size());
+    added(true);
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value or <code>false</code> if the value is <code>NULL</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public boolean get(int index) {
+    checkIndex(index);
+    return values.get(index);
+  }
+
+  @Override
+  public Boolean getObject(int index) {
+    return isNull(index) ? null : values.get(index);
+  }
+
+  /**
+   * The number of <code>true</code> values in this vector.
+   *
+   * @return the number of <code>true</code> values
+   */
+  public int getTrueCount() {
+    return values.cardinality();
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.BitSet;
+
+/**
+ * A growable vector of column values with a null bitmap.
+ *
+ * <p>Sub classes store the values in an array of the value type, so primitive values are stored
+ * without boxing. A <code>NULL</code> is marked in the null bitmap.
+ *
+ * @see ResultSetMapper
+ */
+public abstract class ColumnVector {
+
+  /** The initial capacity of a vector, if no capacity is given. */
+  protected static final int DEFAULT_CAPACITY = 16;
+
+  private final BitSet nulls = new BitSet();
+  private int size;
+
+  /**
+   * The number of values in this vector.
+   *
+   * @return the number of values
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks if the value at the given index is <code>NULL</code>.
+   *
+   * @param index the index of the value
+   * @return <code>true</code> if the value is <code>NULL</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public boolean isNull(int index) {
+    checkIndex(index);
+    return nulls.get(index);
+  }
+
+  /**
+   * The number of <code>NULL</code> values in this vector.
+   *
+   * @return the number of <code>NULL</code> values
+   */
+  public int getNullCount() {
+    return nulls.cardinality();
+  }
+
+  /**
+   * Returns the index of the next <code>NULL</code> value.
+   *
+   * @param fromIndex the index to start from, inclusive
+   * @return the index of the next <code>NULL</code> value or <code>-1</code> if there is none
+   */
+  public int nextNull(int fromIndex) {
+    return nulls.nextSetBit(fromIndex);
+  }
+
+  /**
+   * Returns the value at the given index as object.
+   *
+   * @param index the index of the value
+   * @return the value or <code>null</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public abstract Object getObject(int index);
+
+  /**
+   * Marks the next value as added.
+   *
+   * <p>Sub classes call this after they stored the value at index {@link #size()}.
+   *
+   * @param isNull <code>true</code> if the added value is <code>NULL</code>
+   */
+  protected void added(boolean isNull) {
+    if (isNull) {
+      nulls.set(size);
+    }
+    size++;
+  }
+
+  /**
+   * Checks if the index is in range.
+   *
+   * @param index an index
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  protected void checkIndex(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+    }
+  }
+
+  /**
+   * Calculates a new capacity for a full array.
+   *
+   * @param capacity the current capacity
+   * @return the new capacity
+   */
+  protected static int grow(int capacity) {
+    return Math.max(DEFAULT_CAPACITY, capacity + (capacity >> 1));
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A result set materialized column by column.
+ *
+ * <p>Every column is stored in a typed {@link ColumnVector}: numbers and booleans in primitive
+ * arrays, strings dictionary encoded and all other types as objects mapped with the registered
+ * column mappers. So scanning a column for an aggregate reads one compact array instead of a
+ * property of a row object.
+ *
+ * <p>The vector type is derived from the SQL type of a column:
+ *
+ * <ul>
+ *   <li><code>BIGINT</code>: {@link LongVector}
+ *   <li><code>INTEGER</code>, <code>SMALLINT</code>, <code>TINYINT</code>: {@link IntVector}
+ *   <li><code>DOUBLE</code>, <code>FLOAT</code>, <code>REAL</code>: {@link DoubleVector}
+ *   <li><code>BOOLEAN</code>, <code>BIT</code>: {@link BooleanVector}
+ *   <li><code>CHAR</code>, <code>VARCHAR</code> and other text types: {@link StringVector}
+ *   <li><code>DATE</code>, <code>TIME</code>, <code>TIMESTAMP</code>: {@link ObjectVector} of
+ *       <code>LocalDate</code>, <code>LocalTime</code>, <code>LocalDateTime</code>
+ *   <li><code>BINARY</code>, <code>VARBINARY</code>: {@link ObjectVector} of <code>byte[]</code>
+ *   <li>all other types: {@link ObjectVector} of <code>Object</code>
+ * </ul>
+ *
+ * <p>The type of a column can be set explicit with {@link ResultSetMapper#mapColumns(ResultSet,
+ * Map)}.
+ *
+ * @see ResultSetMapper#mapColumns(ResultSet)
+ */
+public class ColumnarResult {
+
+  private static final Map<Integer, Class<?>> sqlTypes = new HashMap<>();
+
+  static {
+    sqlTypes.put(Types.BIGINT, long.class);
+    sqlTypes.put(Types.INTEGER, int.class);
+    sqlTypes.put(Types.SMALLINT, int.class);
+    sqlTypes.put(Types.TINYINT, int.class);
+    sqlTypes.put(Types.DOUBLE, double.class);
+    sqlTypes.put(Types.FLOAT, double.class);
+    sqlTypes.put(Types.REAL, double.class);
+    sqlTypes.put(Types.BOOLEAN, boolean.class);
+    sqlTypes.put(Types.BIT, boolean.class);
+    sqlTypes.put(Types.CHAR, String.class);
+    sqlTypes.put(Types.VARCHAR, String.class);
+    sqlTypes.put(Types.LONGVARCHAR, String.class);
+    sqlTypes.put(Types.NCHAR, String.class);
+    sqlTypes.put(Types.NVARCHAR, String.class);
+    sqlTypes.put(Types.LONGNVARCHAR, String.class);
+    sqlTypes.put(Types.DATE, LocalDate.class);
+    sqlTypes.put(Types.TIME, LocalTime.class);
+    sqlTypes.put(Types.TIMESTAMP, LocalDateTime.class);
+    sqlTypes.put(Types.BINARY, byte[].class);
+    sqlTypes.put(Types.VARBINARY, byte[].class);
+    sqlTypes.put(Types.LONGVARBINARY, byte[].class);
+  }
+
+  private final Map<String, ColumnVector> vectors;
+  private final int rowCount;
+
+  private ColumnarResult(Map<String, ColumnVector> vectors, int rowCount) {
+    this.vectors = vectors;
+    this.rowCount = rowCount;
+  }
+
+  static ColumnarResult read(ResultSet resultSet, Map<String, Class<?>> columnTypes)
+      throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    int columnCount = metaData.getColumnCount();
+    Map<String, ColumnVector> vectors = new LinkedHashMap<>();
+    List<Appender> appenders = new ArrayList<>();
+    for (int i = 1; i <= columnCount; i++) {
+      String columnLabel = metaData.getColumnLabel(i);
+      Class<?> type = columnTypes.get(columnLabel);
+      if (type == null) {
+        type = sqlTypes.getOrDefault(metaData.getColumnType(i), Object.class);
+      }
+      ColumnVector vector = createVector(type);
+      vectors.put(columnLabel, vector);
+      appenders.add(createAppender(vector, metaData, i));
+    }
+
+    long start = QueryRecording.startMapping();
+    int rowCount = 0;
+    while (resultSet.next()) {
+      for (Appender appender : appenders) {
+        appender.append(resultSet);
+      }
+      rowCount++;
+    }
+    QueryRecording.mapped(start, rowCount);
+    return new ColumnarResult(vectors, rowCount);
+  }
+
+  private static ColumnVector createVector(Class<?> type) {
+    if (type == long.class) {
+      return new LongVector();
+    } else if (type == int.class) {
+      return new IntVector();
+    } else if (type == double.class) {
+      return new DoubleVector();
+    } else if (type == boolean.class) {
+      return new BooleanVector();
+    } else if (type == String.class) {
+      return new StringVector();
+    } else {
+      return new ObjectVector<>(type);
+    }
+  }
+
+  private static Appender createAppender(
+      ColumnVector vector, ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    if (vector instanceof LongVector) {
+      return longAppender((LongVector) vector, columnIndex);
+    } else if (vector instanceof IntVector) {
+      return intAppender((IntVector) vector, columnIndex);
+    } else if (vector instanceof DoubleVector) {
+      return doubleAppender((DoubleVector) vector, columnIndex);
+    } else if (vector instanceof BooleanVector) {
+      return booleanAppender((BooleanVector) vector, columnIndex);
+    } else if (vector instanceof StringVector) {
+      StringVector strings = (StringVector) vector;
+      return resultSet -> strings.add(resultSet.getString(columnIndex));
+    } else {
+      return objectAppender((ObjectVector<?>) vector, metaData, columnIndex);
+    }
+  }
+
+  private static Appender longAppender(LongVector vector, int columnIndex) {
+    return resultSet -> {
+      long v = resultSet.getLong(columnIndex);
+      if (resultSet.wasNull()) {
+        vector.addNull();
+      } else {
+        vector.add(v);
+      }
+    };
+  }
+
+  private static Appender intAppender(IntVector vector, int columnIndex) {
+    return resultSet -> {
+      int v = resultSet.getInt(columnIndex);
+      if (resultSet.wasNull()) {
+        vector.addNull();
+      } else {
+        vector.add(v);
+      }
+    };
+  }
+
+  private static Appender doubleAppender(DoubleVector vector, int columnIndex) {
+    return resultSet -> {
+      double v = resultSet.getDouble(columnIndex);
+      if (resultSet.wasNull()) {
+        vector.addNull();
+      } else {
+        vector.add(v);
+      }
+    };
+  }
+
+  private static Appender booleanAppender(BooleanVector vector, int columnIndex) {
+    return resultSet -> {
+      boolean v = resultSet.getBoolean(columnIndex);
+      if (resultSet.wasNull()) {
+        vector.addNull();
+      } else {
+        vector.add(v);
+      }
+    };
+  }
+
+  private static <T> Appender objectAppender(
+      ObjectVector<T> vector, ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    if (vector.getType() == Object.class) {
+      return resultSet -> vector.add(vector.getType().cast(resultSet.getObject(columnIndex)));
+    }
+
+    RowMapper<T> valueMapper = ResultSetMapper.valueMapper(vector.getType(), metaData, columnIndex);
+    return resultSet -> vector.add(valueMapper.map(resultSet));
+  }
+
+  /**
+   * The number of rows.
+   *
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * The number of columns.
+   *
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return vectors.size();
+  }
+
+  /**
+   * The column labels in order of the result set.
+   *
+   * @return the column labels
+   */
+  public List<String> getColumnLabels() {
+    return Collections.unmodifiableList(new ArrayList<>(vectors.keySet()));
+  }
+
+  /**
+   * Returns the vector of a column.
+   *
+   * @param columnLabel a column label
+   * @return the vector of the column
+   * @throws NoSuchElementException if the column does not exist
+   */
+  public ColumnVector getVector(String columnLabel) {
+    ColumnVector vector = vectors.get(columnLabel);
+    if (vector == null) {
+      throw new NoSuchElementException("no column found: " + columnLabel);
+    }
+    return vector;
+  }
+
+  /**
+   * Returns the vector of a column with the expected vector type.
+   *
+   * @param columnLabel a column label
+   * @param vectorType the expected vector type
+   * @param <V> the expected vector type
+   * @return the vector of the column
+   * @throws NoSuchElementException if the column does not exist
+   * @throws IllegalArgumentException if the vector has not the expected type
+   */
+  public <V extends ColumnVector> V getVector(String columnLabel, Class<V> vectorType) {
+    ColumnVector vector = getVector(columnLabel);
+    if (!vectorType.isInstance(vector)) {
+      throw new IllegalArgumentException(
+          "column " + columnLabel + " is not a " + vectorType.getSimpleName());
+    }
+    return vectorType.cast(vector);
+  }
+
+  @FunctionalInterface
+  private interface Appender {
+
+    void append(ResultSet resultSet) throws SQLException;
+  }
+}
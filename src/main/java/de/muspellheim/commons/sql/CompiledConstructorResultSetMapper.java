@@ -0,0 +1,91 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.beans.ConstructorProperties;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Map a result set to a value object or data object using all args constructor without reflection
+ * per row.
+ *
+ * <p>The constructor must be annotated with {@link ConstructorProperties}. For every row mapper the
+ * constructor and the column readers of the result set are compiled into one method handle, so
+ * mapping a row is a direct constructor call without an argument array and without boxing primitive
+ * values. Constructor parameters without column are initialized with <code>null</code> or the
+ * default value of the primitive type.
+ *
+ * <p>This class ist stateless so it an instance can be keep for performance.
+ *
+ * @param <T> the entity type
+ * @see ResultSetMapper
+ * @see ConstructorResultSetMapper
+ */
+public class CompiledConstructorResultSetMapper<T> extends ConstructorResultSetMapper<T> {
+
+  private final MethodHandle constructorHandle;
+
+  /**
+   * Obtains a compiled constructor result set mapper for given type.
+   *
+   * @param type a type with an all args constrcutor.
+   */
+  public CompiledConstructorResultSetMapper(Class<T> type) {
+    super(type);
+    try {
+      constructorHandle = MethodHandles.lookup().unreflectConstructor(getConstructor());
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Can not access constructor of " + type, e);
+    }
+  }
+
+  @Override
+  protected RowMapper<T> createRowMapper(ResultSetMetaData metaData) throws SQLException {
+    Class<?>[] parameterTypes = getConstructor().getParameterTypes();
+    MethodHandle[] readers = new MethodHandle[parameterTypes.length];
+    int columnCount = metaData.getColumnCount();
+    for (int i = 1; i <= columnCount; i++) {
+      String columnLabel = metaData.getColumnLabel(i);
+      int parameterIndex = parameterIndexFor(columnLabel);
+      readers[parameterIndex] = columnReader(parameterTypes[parameterIndex], metaData, i);
+    }
+    for (int i = 0; i < readers.length; i++) {
+      if (readers[i] == null) {
+        readers[i] = defaultReader(parameterTypes[i]);
+      }
+    }
+
+    MethodHandle factory = MethodHandles.filterArguments(constructorHandle, 0, readers);
+    factory =
+        MethodHandles.permuteArguments(
+            factory, MethodType.methodType(getType(), ResultSet.class), new int[readers.length]);
+    MethodHandle rowFactory = factory.asType(MethodType.methodType(Object.class, ResultSet.class));
+    return resultSet -> create(rowFactory, resultSet);
+  }
+
+  private static MethodHandle defaultReader(Class<?> type) {
+    Object defaultValue = Array.get(Array.newInstance(type, 1), 0);
+    MethodHandle reader = MethodHandles.constant(type, defaultValue);
+    return MethodHandles.dropArguments(reader, 0, ResultSet.class);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T create(MethodHandle rowFactory, ResultSet resultSet) throws SQLException {
+    try {
+      return (T) rowFactory.invokeExact(resultSet);
+    } catch (SQLException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Can not map result set to entity", e);
+    }
+  }
+}
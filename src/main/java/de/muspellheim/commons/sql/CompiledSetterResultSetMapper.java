@@ -0,0 +1,86 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+
+/**
+ * Map a result set to a data object using setters without reflection per row.
+ *
+ * <p>For every row mapper the setters combined with the column readers of the result set are
+ * compiled into method handles, so mapping a row is a sequence of direct setter calls without
+ * boxing primitive values.
+ *
+ * <p>This class ist stateless so it an instance can be keep for performance.
+ *
+ * @param <T> the entity type.
+ * @see ResultSetMapper
+ * @see SetterResultSetMapper
+ */
+public class CompiledSetterResultSetMapper<T> extends SetterResultSetMapper<T> {
+
+  private final MethodHandle factory;
+
+  /**
+   * Obtains a compiled setter result set mapper for given type.
+   *
+   * @param type a type with a default constructor and setters.
+   */
+  public CompiledSetterResultSetMapper(Class<T> type) {
+    super(type);
+    try {
+      factory =
+          MethodHandles.lookup()
+              .findConstructor(type, MethodType.methodType(void.class))
+              .asType(MethodType.methodType(Object.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new IllegalArgumentException("Type must have a public default constructor: " + type, e);
+    }
+  }
+
+  @Override
+  protected RowMapper<T> createRowMapper(ResultSetMetaData metaData) throws SQLException {
+    int columnCount = metaData.getColumnCount();
+    MethodHandle[] setters = new MethodHandle[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      setters[i - 1] = createSetter(setterFor(metaData.getColumnLabel(i)), metaData, i);
+    }
+    return resultSet -> create(setters, resultSet);
+  }
+
+  private static MethodHandle createSetter(
+      Method method, ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    try {
+      MethodHandle setter = MethodHandles.lookup().unreflect(method);
+      MethodHandle reader = columnReader(method.getParameterTypes()[0], metaData, columnIndex);
+      setter = MethodHandles.filterArguments(setter, 1, reader);
+      return setter.asType(MethodType.methodType(void.class, Object.class, ResultSet.class));
+    } catch (IllegalAccessException e) {
+      throw new IllegalArgumentException("Can not access setter: " + method, e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T create(MethodHandle[] setters, ResultSet resultSet) throws SQLException {
+    try {
+      Object entity = factory.invokeExact();
+      for (MethodHandle setter : setters) {
+        setter.invokeExact(entity, resultSet);
+      }
+      return (T) entity;
+    } catch (SQLException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Can not map result set to entity", e);
+    }
+  }
+}
@@ -0,0 +1,416 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * A logical connection handed out by a connection pool.
+ *
+ * <p>Delegates to the physical connection until the handle is closed. Statements created by the
+ * handle return the handle as their connection. Closing the handle closes the statements left open
+ * and returns the physical connection to the pool.
+ */
+class ConnectionHandle implements Connection {
+
+  private final ConnectionPool pool;
+  private final PoolEntry entry;
+  private final List<Statement> statements = new ArrayList<>();
+
+  private volatile boolean closed;
+
+  ConnectionHandle(ConnectionPool pool, PoolEntry entry) {
+    this.pool = pool;
+    this.entry = entry;
+  }
+
+  private Connection delegate() throws SQLException {
+    if (closed) {
+      throw new SQLNonTransientConnectionException("Connection is closed.", "08003");
+    }
+    return entry.getConnection();
+  }
+
+  private Connection clientInfoDelegate() throws SQLClientInfoException {
+    if (closed) {
+      throw new SQLClientInfoException("Connection is closed.", "08003", null);
+    }
+    return entry.getConnection();
+  }
+
+  private synchronized <S extends Statement> S track(S statement) throws SQLException {
+    Iterator<Statement> iterator = statements.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isClosed()) {
+        iterator.remove();
+      }
+    }
+    statements.add(statement);
+    return statement;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (!closed) {
+      closed = true;
+      try {
+        closeStatements();
+      } finally {
+        pool.release(entry, false);
+      }
+    }
+  }
+
+  private void closeStatements() {
+    for (Statement statement : statements) {
+      try {
+        statement.close();
+      } catch (SQLException ignored) {
+        // statement is discarded anyway
+      }
+    }
+    statements.clear();
+  }
+
+  @Override
+  public boolean isClosed() {
+    return closed;
+  }
+
+  @Override
+  public synchronized void abort(Executor executor) throws SQLException {
+    if (!closed) {
+      closed = true;
+      statements.clear();
+      try {
+        entry.getConnection().abort(executor);
+      } finally {
+        pool.release(entry, true);
+      }
+    }
+  }
+
+  @Override
+  public void clearWarnings() throws SQLException {
+    delegate().clearWarnings();
+  }
+
+  @Override
+  public void commit() throws SQLException {
+    delegate().commit();
+  }
+
+  @Override
+  public Array createArrayOf(String typeName, Object[] elements) throws SQLException {
+    return delegate().createArrayOf(typeName, elements);
+  }
+
+  @Override
+  public Blob createBlob() throws SQLException {
+    return delegate().createBlob();
+  }
+
+  @Override
+  public Clob createClob() throws SQLException {
+    return delegate().createClob();
+  }
+
+  @Override
+  public NClob createNClob() throws SQLException {
+    return delegate().createNClob();
+  }
+
+  @Override
+  public SQLXML createSQLXML() throws SQLException {
+    return delegate().createSQLXML();
+  }
+
+  @Override
+  public Statement createStatement() throws SQLException {
+    return track(new StatementHandle<>(this, delegate().createStatement()));
+  }
+
+  @Override
+  public Statement createStatement(
+      int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+    return track(
+        new StatementHandle<>(
+            this,
+            delegate().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability)));
+  }
+
+  @Override
+  public Statement createStatement(int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    return track(
+        new StatementHandle<>(
+            this, delegate().createStatement(resultSetType, resultSetConcurrency)));
+  }
+
+  @Override
+  public Struct createStruct(String typeName, Object[] attributes) throws SQLException {
+    return delegate().createStruct(typeName, attributes);
+  }
+
+  @Override
+  public boolean getAutoCommit() throws SQLException {
+    return delegate().getAutoCommit();
+  }
+
+  @Override
+  public String getCatalog() throws SQLException {
+    return delegate().getCatalog();
+  }
+
+  @Override
+  public Properties getClientInfo() throws SQLException {
+    return delegate().getClientInfo();
+  }
+
+  @Override
+  public String getClientInfo(String name) throws SQLException {
+    return delegate().getClientInfo(name);
+  }
+
+  @Override
+  public int getHoldability() throws SQLException {
+    return delegate().getHoldability();
+  }
+
+  @Override
+  public DatabaseMetaData getMetaData() throws SQLException {
+    return delegate().getMetaData();
+  }
+
+  @Override
+  public int getNetworkTimeout() throws SQLException {
+    return delegate().getNetworkTimeout();
+  }
+
+  @Override
+  public String getSchema() throws SQLException {
+    return delegate().getSchema();
+  }
+
+  @Override
+  public int getTransactionIsolation() throws SQLException {
+    return delegate().getTransactionIsolation();
+  }
+
+  @Override
+  public Map<String, Class<?>> getTypeMap() throws SQLException {
+    return delegate().getTypeMap();
+  }
+
+  @Override
+  public SQLWarning getWarnings() throws SQLException {
+    return delegate().getWarnings();
+  }
+
+  @Override
+  public boolean isReadOnly() throws SQLException {
+    return delegate().isReadOnly();
+  }
+
+  @Override
+  public boolean isValid(int timeout) throws SQLException {
+    return delegate().isValid(timeout);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return delegate().isWrapperFor(iface);
+  }
+
+  @Override
+  public String nativeSQL(String sql) throws SQLException {
+    return delegate().nativeSQL(sql);
+  }
+
+  @Override
+  public CallableStatement prepareCall(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    return track(
+        new CallableStatementHandle(
+            this,
+            delegate()
+                .prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability)));
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    return track(
+        new CallableStatementHandle(
+            this, delegate().prepareCall(sql, resultSetType, resultSetConcurrency)));
+  }
+
+  @Override
+  public CallableStatement prepareCall(String sql) throws SQLException {
+    return track(new CallableStatementHandle(this, delegate().prepareCall(sql)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+    return track(
+        new PreparedStatementHandle<>(this, delegate().prepareStatement(sql, columnIndexes)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+    return track(
+        new PreparedStatementHandle<>(this, delegate().prepareStatement(sql, columnNames)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(
+      String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability)
+      throws SQLException {
+    return track(
+        new PreparedStatementHandle<>(
+            this,
+            delegate()
+                .prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency)
+      throws SQLException {
+    return track(
+        new PreparedStatementHandle<>(
+            this, delegate().prepareStatement(sql, resultSetType, resultSetConcurrency)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+    return track(
+        new PreparedStatementHandle<>(this, delegate().prepareStatement(sql, autoGeneratedKeys)));
+  }
+
+  @Override
+  public PreparedStatement prepareStatement(String sql) throws SQLException {
+    delegate();
+    return track(entry.prepareStatement(this, sql));
+  }
+
+  @Override
+  public void releaseSavepoint(Savepoint savepoint) throws SQLException {
+    delegate().releaseSavepoint(savepoint);
+  }
+
+  @Override
+  public void rollback() throws SQLException {
+    delegate().rollback();
+  }
+
+  @Override
+  public void rollback(Savepoint savepoint) throws SQLException {
+    delegate().rollback(savepoint);
+  }
+
+  @Override
+  public void setAutoCommit(boolean autoCommit) throws SQLException {
+    delegate().setAutoCommit(autoCommit);
+  }
+
+  @Override
+  public void setCatalog(String catalog) throws SQLException {
+    Connection connection = delegate();
+    entry.markDirty();
+    connection.setCatalog(catalog);
+  }
+
+  @Override
+  public void setClientInfo(String name, String value) throws SQLClientInfoException {
+    Connection connection = clientInfoDelegate();
+    entry.markDirty();
+    connection.setClientInfo(name, value);
+  }
+
+  @Override
+  public void setClientInfo(Properties properties) throws SQLClientInfoException {
+    Connection connection = clientInfoDelegate();
+    entry.markDirty();
+    connection.setClientInfo(properties);
+  }
+
+  @Override
+  public void setHoldability(int holdability) throws SQLException {
+    Connection connection = delegate();
+    entry.markDirty();
+    connection.setHoldability(holdability);
+  }
+
+  @Override
+  public void setNetworkTimeout(Executor executor, int milliseconds) throws SQLException {
+    Connection connection = delegate();
+    entry.markDirty();
+    connection.setNetworkTimeout(executor, milliseconds);
+  }
+
+  @Override
+  public void setReadOnly(boolean readOnly) throws SQLException {
+    delegate();
+    entry.setReadOnly(readOnly);
+  }
+
+  @Override
+  public Savepoint setSavepoint() throws SQLException {
+    return delegate().setSavepoint();
+  }
+
+  @Override
+  public Savepoint setSavepoint(String name) throws SQLException {
+    return delegate().setSavepoint(name);
+  }
+
+  @Override
+  public void setSchema(String schema) throws SQLException {
+    Connection connection = delegate();
+    entry.markDirty();
+    connection.setSchema(schema);
+  }
+
+  @Override
+  public void setTransactionIsolation(int level) throws SQLException {
+    delegate();
+    entry.setTransactionIsolation(level);
+  }
+
+  @Override
+  public void setTypeMap(Map<String, Class<?>> map) throws SQLException {
+    Connection connection = delegate();
+    entry.markDirty();
+    connection.setTypeMap(map);
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    return delegate().unwrap(iface);
+  }
+}
@@ -0,0 +1,344 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * A data source pooling the connections of another data source.
+ *
+ * <p>Closing a connection returns it to the pool. An open transaction is rolled back and auto
+ * commit is enabled before the connection is reused. A connection is discarded instead, if its read
+ * only mode or its transaction isolation was changed.
+ *
+ * <p>If all connections are in use, a request waits up to the acquisition timeout and fails with a
+ * {@link SQLTransientConnectionException} with SQL state <code>08001</code>. A connection idle for
+ * more than 500 ms is validated before it is handed out. A background thread closes connections
+ * idle for longer than the idle timeout and keeps the minimum number of connections open.
+ *
+ * @see PoolConfiguration
+ */
+public class ConnectionPool implements DataSource, AutoCloseable {
+
+  private static final long VALIDATION_THRESHOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(500);
+  private static final long MIN_HOUSEKEEPING_MILLIS = 10;
+
+  private final DataSource dataSource;
+  private final PoolConfiguration configuration;
+  private final BlockingDeque<PoolEntry> idle = new LinkedBlockingDeque<>();
+  private final Semaphore permits;
+  private final AtomicInteger total = new AtomicInteger();
+  private final LongAdder created = new LongAdder();
+  private final LongAdder closed = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder statementHits = new LongAdder();
+  private final LongAdder statementMisses = new LongAdder();
+  private final LongAdder statementEvictions = new LongAdder();
+  private final ScheduledExecutorService housekeeper;
+
+  private volatile boolean shutdown;
+
+  /**
+   * Creates a pool for the connections of a data source.
+   *
+   * <p>The minimum number of connections are opened in background.
+   *
+   * @param dataSource the data source creating the physical connections
+   * @param configuration the pool configuration
+   * @throws IllegalArgumentException if the sizes of the configuration are invalid
+   */
+  public ConnectionPool(@NonNull DataSource dataSource, @NonNull PoolConfiguration configuration) {
+    if (configuration.getMinSize() < 0 || configuration.getMaxSize() < 1) {
+      throw new IllegalArgumentException("Pool size must be positive: " + configuration);
+    }
+    if (configuration.getStatementCacheSize() < 0) {
+      throw new IllegalArgumentException(
+          "Statement cache size must not be negative: " + configuration);
+    }
+    if (configuration.getMinSize() > configuration.getMaxSize()) {
+      throw new IllegalArgumentException(
+          "Minimum size must not exceed maximum size: " + configuration);
+    }
+
+    this.dataSource = dataSource;
+    this.configuration = configuration;
+    permits = new Semaphore(configuration.getMaxSize(), true);
+    housekeeper =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "ConnectionPool Housekeeper");
+              t.setDaemon(true);
+              return t;
+            });
+    long period = Math.max(MIN_HOUSEKEEPING_MILLIS, configuration.getIdleTimeout().toMillis() / 2);
+    housekeeper.scheduleWithFixedDelay(this::housekeeping, 0, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The configuration of this pool.
+   *
+   * @return the pool configuration
+   */
+  public PoolConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns the current statistics of this pool.
+   *
+   * @return the pool statistics
+   */
+  public PoolStatistics getStatistics() {
+    int totalConnections = total.get();
+    int idleConnections = idle.size();
+    return PoolStatistics.of(
+        totalConnections,
+        idleConnections,
+        Math.max(0, totalConnections - idleConnections),
+        permits.getQueueLength(),
+        created.sum(),
+        closed.sum(),
+        timeouts.sum(),
+        statementHits.sum(),
+        statementMisses.sum(),
+        statementEvictions.sum());
+  }
+
+  /**
+   * Borrow a connection from the pool.
+   *
+   * <p>Closing the connection returns it to the pool.
+   *
+   * @return a pooled connection
+   * @throws SQLException if the pool is closed, the acquisition timed out or a new connection can
+   *     not be opened
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    return getConnection(configuration.getAcquisitionTimeout());
+  }
+
+  /**
+   * Borrow a connection from the pool, waiting at most the given time.
+   *
+   * <p>The wait is also limited by the acquisition timeout of the configuration. Closing the
+   * connection returns it to the pool.
+   *
+   * @param timeout the maximum time to wait for a connection
+   * @return a pooled connection
+   * @throws SQLException if the pool is closed, the acquisition timed out or a new connection can
+   *     not be opened
+   */
+  public Connection getConnection(@NonNull Duration timeout) throws SQLException {
+    checkOpen();
+    acquirePermit(
+        timeout.compareTo(configuration.getAcquisitionTimeout()) < 0
+            ? timeout
+            : configuration.getAcquisitionTimeout());
+    try {
+      return new ConnectionHandle(this, borrow());
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Not supported, the pool uses the credentials of the underlying data source.
+   *
+   * @throws SQLFeatureNotSupportedException always
+   */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Pooled connections use the configured user.");
+  }
+
+  private void checkOpen() throws SQLException {
+    if (shutdown) {
+      throw new SQLNonTransientConnectionException("Connection pool is closed.", "08003");
+    }
+  }
+
+  private void acquirePermit(Duration timeout) throws SQLException {
+    try {
+      if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+        timeouts.increment();
+        throw new SQLTransientConnectionException(
+            "Connection is not available, request timed out after " + timeout.toMillis() + " ms.",
+            "08001");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException(
+          "Interrupted while waiting for a connection.", "08001", e);
+    }
+  }
+
+  private PoolEntry borrow() throws SQLException {
+    PoolEntry entry = idle.pollFirst();
+    while (entry != null) {
+      if (isUsable(entry)) {
+        return entry;
+      }
+      discard(entry);
+      entry = idle.pollFirst();
+    }
+    return open();
+  }
+
+  private boolean isUsable(PoolEntry entry) {
+    if (entry.getIdleNanos() < VALIDATION_THRESHOLD_NANOS) {
+      return true;
+    }
+
+    try {
+      int timeout = (int) Math.max(1, configuration.getValidationTimeout().getSeconds());
+      return entry.getConnection().isValid(timeout);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private PoolEntry open() throws SQLException {
+    Connection connection = dataSource.getConnection();
+    StatementCache statementCache = null;
+    if (configuration.getStatementCacheSize() > 0) {
+      statementCache =
+          new StatementCache(
+              connection,
+              configuration.getStatementCacheSize(),
+              statementHits,
+              statementMisses,
+              statementEvictions);
+    }
+    PoolEntry entry = new PoolEntry(connection, statementCache);
+    total.incrementAndGet();
+    created.increment();
+    return entry;
+  }
+
+  private void discard(PoolEntry entry) {
+    entry.close();
+    total.decrementAndGet();
+    closed.increment();
+  }
+
+  /**
+   * Return a connection to the pool.
+   *
+   * @param entry the physical connection
+   * @param broken discard the connection instead of reuse it
+   */
+  void release(PoolEntry entry, boolean broken) {
+    try {
+      if (broken || shutdown || total.get() > configuration.getMaxSize() || !entry.reset()) {
+        discard(entry);
+      } else {
+        idle.offerFirst(entry);
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void housekeeping() {
+    evictIdleConnections();
+    fillMinimumConnections();
+  }
+
+  private void evictIdleConnections() {
+    long idleTimeout = configuration.getIdleTimeout().toNanos();
+    Iterator<PoolEntry> oldestFirst = idle.descendingIterator();
+    while (oldestFirst.hasNext() && total.get() > configuration.getMinSize()) {
+      PoolEntry entry = oldestFirst.next();
+      if (entry.getIdleNanos() > idleTimeout && idle.removeLastOccurrence(entry)) {
+        discard(entry);
+      }
+    }
+  }
+
+  private void fillMinimumConnections() {
+    try {
+      while (!shutdown && total.get() < configuration.getMinSize()) {
+        idle.offerLast(open());
+      }
+    } catch (SQLException ignored) {
+      // try again on next housekeeping
+    }
+  }
+
+  /**
+   * Close the pool and all idle connections.
+   *
+   * <p>Connections in use are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    shutdown = true;
+    housekeeper.shutdownNow();
+    PoolEntry entry = idle.pollFirst();
+    while (entry != null) {
+      discard(entry);
+      entry = idle.pollFirst();
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return dataSource.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    dataSource.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    dataSource.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return dataSource.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return dataSource.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return dataSource.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || dataSource.isWrapperFor(iface);
+  }
+}
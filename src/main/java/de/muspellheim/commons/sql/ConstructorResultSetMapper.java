@@ -9,6 +9,7 @@ import java.beans.ConstructorProperties;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
@@ -23,6 +24,7 @@ import java.util.Map;
  *
  * @param <T> the entity type
  * @see ResultSetMapper
+ * @see CompiledConstructorResultSetMapper
  */
 public class ConstructorResultSetMapper<T> extends ResultSetMapper<T> {
 
@@ -40,6 +42,31 @@ public class ConstructorResultSetMapper<T> extends ResultSetMapper<T> {
     mappedParameters = createMappedParameters();
   }
 
+  /**
+   * The constructor used to create an entity.
+   *
+   * @return the constructor annotated with {@link ConstructorProperties}
+   */
+  protected Constructor<T> getConstructor() {
+    return constructor;
+  }
+
+  /**
+   * Get the constructor parameter index for a column label.
+   *
+   * @param columnLabel a column label
+   * @return the associated parameter index
+   * @throws IllegalStateException if no constructor parameter is associated with the column label
+   */
+  protected int parameterIndexFor(String columnLabel) {
+    String propertyName = propertyNameFor(columnLabel);
+    Integer parameterIndex = mappedParameters.get(propertyName);
+    if (parameterIndex == null) {
+      throw new IllegalStateException("no mapped property found for column: " + columnLabel);
+    }
+    return parameterIndex;
+  }
+
   private Map<String, Integer> createMappedParameters() {
     Map<String, Integer> parameters = new LinkedHashMap<>();
     String[] parameterNames = constructor.getAnnotation(ConstructorProperties.class).value();
@@ -51,19 +78,28 @@ public class ConstructorResultSetMapper<T> extends ResultSetMapper<T> {
 
   @Override
   public T map(ResultSet resultSet) throws SQLException {
+    return rowMapperFor(resultSet.getMetaData()).map(resultSet);
+  }
+
+  @Override
+  protected RowMapper<T> createRowMapper(ResultSetMetaData metaData) throws SQLException {
+    int columnCount = metaData.getColumnCount();
+    int[] parameterIndexes = new int[columnCount];
+    RowMapper<?>[] valueMappers = new RowMapper<?>[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      String columnLabel = metaData.getColumnLabel(i);
+      parameterIndexes[i - 1] = parameterIndexFor(columnLabel);
+      valueMappers[i - 1] = valueMapper(propertyTypeFor(columnLabel), metaData, i);
+    }
+    return resultSet -> create(parameterIndexes, valueMappers, resultSet);
+  }
+
+  private T create(int[] parameterIndexes, RowMapper<?>[] valueMappers, ResultSet resultSet)
+      throws SQLException {
     try {
       Object[] parameters = new Object[constructor.getParameterCount()];
-      int columnCount = resultSet.getMetaData().getColumnCount();
-      for (int i = 1; i <= columnCount; i++) {
-        String columnLabel = resultSet.getMetaData().getColumnLabel(i);
-        String propertyName = propertyNameFor(columnLabel);
-        Integer parameterIndex = mappedParameters.get(propertyName);
-        if (parameterIndex == null) {
-          throw new IllegalStateException("no mapped property found for column: " + columnLabel);
-        }
-
-        Object value = mapColumn(resultSet, columnLabel);
-        parameters[parameterIndex] = value;
+      for (int i = 0; i < parameterIndexes.length; i++) {
+        parameters[parameterIndexes[i]] = valueMappers[i].map(resultSet);
       }
       return constructor.newInstance(parameters);
     } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
@@ -0,0 +1,263 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.time.DateTimeException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A result set view of the current row of a Postgres <code>COPY ... TO STDOUT</code> in text
+ * format.
+ *
+ * <p>Supports the typed getters used by the column mappers of {@link ResultSetMapper}. Primitive
+ * values are parsed from the copied text without boxing. Arrays are decoded by {@link
+ * PostgresArrays} from the copied text. All other methods throw a <code>
+ * SQLFeatureNotSupportedException</code>.
+ */
+class CopyRowResultSet extends UnsupportedResultSet {
+
+  private final ResultSetMetaData metaData;
+  private final int columnCount;
+  private final Map<String, Integer> columnIndexes = new HashMap<>();
+
+  private String[] row;
+  private boolean wasNull;
+
+  /**
+   * Creates a result set for copied rows.
+   *
+   * @param metaData the meta data of the copied query
+   * @throws SQLException if an error occurred
+   */
+  CopyRowResultSet(ResultSetMetaData metaData) throws SQLException {
+    this.metaData = metaData;
+    columnCount = metaData.getColumnCount();
+    for (int i = 1; i <= columnCount; i++) {
+      columnIndexes.putIfAbsent(metaData.getColumnLabel(i), i);
+    }
+  }
+
+  void setRow(String[] row) throws SQLException {
+    if (row.length != columnCount) {
+      throw new SQLDataException(
+          "Copied row has " + row.length + " columns, expected " + columnCount);
+    }
+    this.row = row;
+  }
+
+  @Override
+  public ResultSetMetaData getMetaData() {
+    return metaData;
+  }
+
+  @Override
+  public boolean wasNull() {
+    return wasNull;
+  }
+
+  @Override
+  public int findColumn(String columnLabel) throws SQLException {
+    Integer index = columnIndexes.get(columnLabel);
+    if (index == null) {
+      throw new SQLException("Column not found: " + columnLabel);
+    }
+    return index;
+  }
+
+  @Override
+  public String getString(int columnIndex) throws SQLException {
+    return text(columnIndex);
+  }
+
+  @Override
+  public String getString(String columnLabel) throws SQLException {
+    return getString(findColumn(columnLabel));
+  }
+
+  @Override
+  public Object getObject(int columnIndex) throws SQLException {
+    return text(columnIndex);
+  }
+
+  @Override
+  public Object getObject(String columnLabel) throws SQLException {
+    return getObject(findColumn(columnLabel));
+  }
+
+  @Override
+  public <T> T getObject(int columnIndex, Class<T> type) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return CopyText.parse(text, type);
+    } catch (IllegalArgumentException | DateTimeException e) {
+      throw conversionFailed(type, e);
+    }
+  }
+
+  @Override
+  public <T> T getObject(String columnLabel, Class<T> type) throws SQLException {
+    return getObject(findColumn(columnLabel), type);
+  }
+
+  @Override
+  public BigDecimal getBigDecimal(int columnIndex) throws SQLException {
+    return getObject(columnIndex, BigDecimal.class);
+  }
+
+  @Override
+  public BigDecimal getBigDecimal(String columnLabel) throws SQLException {
+    return getBigDecimal(findColumn(columnLabel));
+  }
+
+  @Override
+  public byte[] getBytes(int columnIndex) throws SQLException {
+    return getObject(columnIndex, byte[].class);
+  }
+
+  @Override
+  public byte[] getBytes(String columnLabel) throws SQLException {
+    return getBytes(findColumn(columnLabel));
+  }
+
+  @Override
+  public long getLong(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Long.parseLong(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(long.class, e);
+    }
+  }
+
+  @Override
+  public long getLong(String columnLabel) throws SQLException {
+    return getLong(findColumn(columnLabel));
+  }
+
+  @Override
+  public int getInt(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Integer.parseInt(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(int.class, e);
+    }
+  }
+
+  @Override
+  public int getInt(String columnLabel) throws SQLException {
+    return getInt(findColumn(columnLabel));
+  }
+
+  @Override
+  public short getShort(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Short.parseShort(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(short.class, e);
+    }
+  }
+
+  @Override
+  public short getShort(String columnLabel) throws SQLException {
+    return getShort(findColumn(columnLabel));
+  }
+
+  @Override
+  public byte getByte(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Byte.parseByte(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(byte.class, e);
+    }
+  }
+
+  @Override
+  public byte getByte(String columnLabel) throws SQLException {
+    return getByte(findColumn(columnLabel));
+  }
+
+  @Override
+  public double getDouble(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Double.parseDouble(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(double.class, e);
+    }
+  }
+
+  @Override
+  public double getDouble(String columnLabel) throws SQLException {
+    return getDouble(findColumn(columnLabel));
+  }
+
+  @Override
+  public float getFloat(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    try {
+      return text != null ? Float.parseFloat(text) : 0;
+    } catch (NumberFormatException e) {
+      throw conversionFailed(float.class, e);
+    }
+  }
+
+  @Override
+  public float getFloat(String columnLabel) throws SQLException {
+    return getFloat(findColumn(columnLabel));
+  }
+
+  @Override
+  public boolean getBoolean(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    return text != null && CopyText.parseBoolean(text);
+  }
+
+  @Override
+  public boolean getBoolean(String columnLabel) throws SQLException {
+    return getBoolean(findColumn(columnLabel));
+  }
+
+  /**
+   * Returns the copied text of a column as UTF-8 bytes, as the Postgres driver returns an array in
+   * text format.
+   *
+   * @param columnIndex the column index
+   * @return the bytes or <code>null</code> for <code>NULL</code>
+   * @throws SQLException if the column index is out of range
+   */
+  byte[] getRaw(int columnIndex) throws SQLException {
+    String text = text(columnIndex);
+    return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+  }
+
+  private String text(int columnIndex) throws SQLException {
+    if (columnIndex < 1 || columnIndex > columnCount) {
+      throw new SQLException("Column index out of range: " + columnIndex);
+    }
+
+    String text = row[columnIndex - 1];
+    wasNull = text == null;
+    return text;
+  }
+
+  private static SQLDataException conversionFailed(Class<?> type, RuntimeException cause) {
+    return new SQLDataException("Can not convert copied value to " + type.getName(), cause);
+  }
+
+  @Override
+  public String toString() {
+    return "CopyRowResultSet" + columnIndexes.keySet();
+  }
+}
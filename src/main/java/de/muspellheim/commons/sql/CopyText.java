@@ -0,0 +1,239 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Encode and decode rows of the text format of Postgres <code>COPY</code>.
+ *
+ * <p>Columns are separated by tab, rows are terminated by newline, <code>NULL</code> is written as
+ * <code>\N</code> and backslash, tab, newline and carriage return are escaped with backslash.
+ *
+ * <p>Only the types which can be parsed and the arrays <code>int[]</code>, <code>long[]</code>,
+ * <code>double[]</code>, <code>float[]</code> and <code>String[]</code> can be encoded.
+ */
+final class CopyText {
+
+  private static final char DELIMITER = '\t';
+  private static final String NULL = "\\N";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private static final DateTimeFormatter TIMESTAMP =
+      new DateTimeFormatterBuilder()
+          .append(DateTimeFormatter.ISO_LOCAL_DATE)
+          .appendLiteral(' ')
+          .append(DateTimeFormatter.ISO_LOCAL_TIME)
+          .toFormatter();
+  private static final DateTimeFormatter TIMESTAMP_WITH_OFFSET =
+      new DateTimeFormatterBuilder().append(TIMESTAMP).appendOffset("+HH:mm", "+00").toFormatter();
+
+  private static final Map<Class<?>, Function<Object, String>> formatters = new HashMap<>();
+  private static final Map<Class<?>, Function<String, ?>> parsers = new HashMap<>();
+
+  static {
+    formatters.put(String.class, String.class::cast);
+    formatters.put(Long.class, Object::toString);
+    formatters.put(Integer.class, Object::toString);
+    formatters.put(Short.class, Object::toString);
+    formatters.put(Byte.class, Object::toString);
+    formatters.put(Double.class, Object::toString);
+    formatters.put(Float.class, Object::toString);
+    formatters.put(Boolean.class, Object::toString);
+    formatters.put(BigDecimal.class, Object::toString);
+    formatters.put(LocalDate.class, Object::toString);
+    formatters.put(LocalTime.class, Object::toString);
+    formatters.put(LocalDateTime.class, value -> TIMESTAMP.format((LocalDateTime) value));
+    formatters.put(
+        OffsetDateTime.class, value -> TIMESTAMP_WITH_OFFSET.format((OffsetDateTime) value));
+    formatters.put(
+        Instant.class,
+        value -> TIMESTAMP_WITH_OFFSET.format(((Instant) value).atOffset(ZoneOffset.UTC)));
+    formatters.put(int[].class, value -> PostgresArrays.toText((int[]) value));
+    formatters.put(long[].class, value -> PostgresArrays.toText((long[]) value));
+    formatters.put(double[].class, value -> PostgresArrays.toText((double[]) value));
+    formatters.put(float[].class, value -> PostgresArrays.toText((float[]) value));
+    formatters.put(String[].class, value -> PostgresArrays.toText((String[]) value));
+
+    parsers.put(String.class, Function.identity());
+    parsers.put(Long.class, Long::valueOf);
+    parsers.put(Integer.class, Integer::valueOf);
+    parsers.put(Short.class, Short::valueOf);
+    parsers.put(Byte.class, Byte::valueOf);
+    parsers.put(Double.class, Double::valueOf);
+    parsers.put(Float.class, Float::valueOf);
+    parsers.put(Boolean.class, CopyText::parseBoolean);
+    parsers.put(BigDecimal.class, BigDecimal::new);
+    parsers.put(byte[].class, CopyText::parseBytes);
+    parsers.put(LocalDate.class, LocalDate::parse);
+    parsers.put(LocalTime.class, LocalTime::parse);
+    parsers.put(LocalDateTime.class, text -> LocalDateTime.parse(text, TIMESTAMP));
+    parsers.put(OffsetDateTime.class, text -> OffsetDateTime.parse(text, TIMESTAMP_WITH_OFFSET));
+    parsers.put(
+        Instant.class, text -> OffsetDateTime.parse(text, TIMESTAMP_WITH_OFFSET).toInstant());
+  }
+
+  private CopyText() {
+    // utility class
+  }
+
+  /**
+   * Append a row to a buffer.
+   *
+   * @param values the column values
+   * @param buffer the buffer to append to
+   * @throws IllegalArgumentException if the type of a value is not supported
+   */
+  static void appendRow(Object[] values, StringBuilder buffer) {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        buffer.append(DELIMITER);
+      }
+      appendValue(values[i], buffer);
+    }
+    buffer.append('\n');
+  }
+
+  private static void appendValue(Object value, StringBuilder buffer) {
+    if (value == null) {
+      buffer.append(NULL);
+    } else if (value instanceof byte[]) {
+      buffer.append("\\\\x");
+      for (byte b : (byte[]) value) {
+        buffer.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+      }
+    } else {
+      Function<Object, String> formatter = formatters.get(value.getClass());
+      if (formatter == null) {
+        throw new IllegalArgumentException("Type can not be copied as text: " + value.getClass());
+      }
+      appendEscaped(formatter.apply(value), buffer);
+    }
+  }
+
+  private static void appendEscaped(String text, StringBuilder buffer) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\') {
+        buffer.append("\\\\");
+      } else if (c == '\t') {
+        buffer.append("\\t");
+      } else if (c == '\n') {
+        buffer.append("\\n");
+      } else if (c == '\r') {
+        buffer.append("\\r");
+      } else {
+        buffer.append(c);
+      }
+    }
+  }
+
+  /**
+   * Split a row into unescaped column values.
+   *
+   * @param row a row, with or without the terminating newline
+   * @return the column values, <code>null</code> for <code>NULL</code>
+   */
+  static String[] parseRow(String row) {
+    int end = row.endsWith("\n") ? row.length() - 1 : row.length();
+    List<String> values = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= end; i++) {
+      if (i == end || row.charAt(i) == DELIMITER) {
+        values.add(unescape(row.substring(start, i)));
+        start = i + 1;
+      }
+    }
+    return values.toArray(new String[0]);
+  }
+
+  private static String unescape(String text) {
+    if (NULL.equals(text)) {
+      return null;
+    }
+    if (text.indexOf('\\') < 0) {
+      return text;
+    }
+
+    StringBuilder value = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\' && i + 1 < text.length()) {
+        i++;
+        value.append(unescape(text.charAt(i)));
+      } else {
+        value.append(c);
+      }
+    }
+    return value.toString();
+  }
+
+  private static char unescape(char c) {
+    switch (c) {
+      case 'b':
+        return '\b';
+      case 'f':
+        return '\f';
+      case 'n':
+        return '\n';
+      case 'r':
+        return '\r';
+      case 't':
+        return '\t';
+      case 'v':
+        return '\u000b';
+      default:
+        return c;
+    }
+  }
+
+  /**
+   * Parse the text of a column value.
+   *
+   * @param text the unescaped text
+   * @param type the type to parse
+   * @param <T> the type to parse
+   * @return the value or <code>null</code> if the text is <code>null</code>
+   * @throws IllegalArgumentException if the type is not supported
+   */
+  @SuppressWarnings("unchecked")
+  static <T> T parse(String text, Class<T> type) {
+    Function<String, ?> parser = parsers.get(type);
+    if (parser == null) {
+      throw new IllegalArgumentException("Type can not be parsed from copy text: " + type);
+    }
+    return text != null ? (T) parser.apply(text) : null;
+  }
+
+  static boolean parseBoolean(String text) {
+    return "t".equals(text) || "true".equalsIgnoreCase(text);
+  }
+
+  private static byte[] parseBytes(String text) {
+    if (!text.startsWith("\\x")) {
+      throw new IllegalArgumentException("Bytes must be in hex format: " + text);
+    }
+
+    byte[] bytes = new byte[(text.length() - 2) / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(text.substring(2 + i * 2, 4 + i * 2), 16);
+    }
+    return bytes;
+  }
+}
@@ -5,13 +5,18 @@
 
 package de.muspellheim.commons.sql;
 
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.Value;
+import lombok.With;
 
 /** Collect information for a database connection. */
 @Value
-@RequiredArgsConstructor(staticName = "of")
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class DatabaseConfiguration {
 
   /**
@@ -48,4 +53,50 @@ public class DatabaseConfiguration {
    * @return the database
    */
   @NonNull String database;
+
+  /**
+   * Optional connection pool.
+   *
+   * @return the pool configuration or <code>null</code> if connections are not pooled
+   */
+  @With PoolConfiguration pool;
+
+  /**
+   * Read replicas of the database.
+   *
+   * @return the replicas, empty if the database has no replicas
+   */
+  @NonNull @With List<ReplicaConfiguration> replicas;
+
+  /**
+   * Routing of read only connections to the replicas.
+   *
+   * @return the routing configuration
+   */
+  @NonNull @With RoutingConfiguration routing;
+
+  /**
+   * Obtains a database configuration without connection pool and replicas.
+   *
+   * <p>If replicas are added, the maximum replication lag is 10 seconds.
+   *
+   * @param host the host
+   * @param port the port
+   * @param user the user
+   * @param password the password
+   * @param database the database
+   * @return the database configuration
+   */
+  public static DatabaseConfiguration of(
+      String host, int port, @NonNull String user, String password, @NonNull String database) {
+    return new DatabaseConfiguration(
+        host,
+        port,
+        user,
+        password,
+        database,
+        null,
+        Collections.emptyList(),
+        RoutingConfiguration.of(Duration.ofSeconds(10)));
+  }
 }
@@ -0,0 +1,56 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * A point in time until a task must be finished.
+ *
+ * <p>The deadline is measured with <code>System.nanoTime</code>, so it is not affected by changes
+ * of the wall clock.
+ *
+ * @see SqlTask#setDeadline(Deadline)
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class Deadline {
+
+  long nanoTime;
+
+  /**
+   * Obtains a deadline after a timeout from now.
+   *
+   * @param timeout the timeout
+   * @return the deadline
+   */
+  public static Deadline after(@NonNull Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  /**
+   * Tests if the deadline is reached.
+   *
+   * @return <code>true</code> if the deadline is reached
+   */
+  public boolean isExpired() {
+    return System.nanoTime() - nanoTime >= 0;
+  }
+
+  /**
+   * Returns the time until the deadline is reached.
+   *
+   * @return the remaining time, zero if the deadline is reached
+   */
+  public Duration getRemaining() {
+    long remaining = nanoTime - System.nanoTime();
+    return Duration.ofNanos(Math.max(0, remaining));
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import lombok.NonNull;
+
+/**
+ * Binding the properties of an entity to the parameters of a prepared statement.
+ *
+ * <p>The binder is the write side of a {@link ResultSetMapper} and follows the same convention: a
+ * property name with camel case is written to the parameter of the column label with snake case.
+ * For example the property <code>dayOfBirth</code> is written to the parameter of the column <code>
+ * day_of_birth</code>. The columns are given in order of the parameters of the statement:
+ *
+ * <pre>
+ * EntityBinder&lt;Person&gt; binder = new EntityBinder&lt;&gt;(Person.class, "id", "family_name");
+ * new SqlBatchTask&lt;&gt;(dataSource, "INSERT INTO person (id, family_name) VALUES (?, ?);",
+ *     persons, binder);
+ * </pre>
+ *
+ * <p>The getters and parameter mappers are resolved once into method handles, so no reflection is
+ * needed per entity. A property of a primitive type is written with the typed setter of the
+ * statement without boxing, as long as no custom parameter mapper is registered for the type.
+ *
+ * <p>Default registered parameter mappers exist for the same types as the default column mappers of
+ * {@link ResultSetMapper}. A <code>null</code> is written as SQL <code>NULL</code>. Primitive and
+ * string arrays are written in the text format of Postgres arrays without boxing the elements.
+ *
+ * <p>An <code>InputStream</code> or a <code>ReadableByteChannel</code> is written as binary value
+ * without reading it into memory as a whole, the driver buffers a large value in a temporary file.
+ * To write a stream as large object instead, register <code>PreparedStatement::setBlob</code> as
+ * parameter mapper for <code>InputStream</code>.
+ *
+ * @param <T> the entity type
+ */
+public class EntityBinder<T> implements StatementBinder<T> {
+
+  private static final Map<Class<?>, ParameterMapper<?>> mappings = new HashMap<>();
+  private static final Map<Class<?>, MethodHandle> indexWriters = new HashMap<>();
+  private static final MethodHandle parameterMapperMap;
+
+  static {
+    registerMapping(String.class, PreparedStatement::setString);
+
+    registerMapping(Long.class, nullable(Types.BIGINT, PreparedStatement::setLong));
+    registerMapping(long.class, nullable(Types.BIGINT, PreparedStatement::setLong));
+    registerMapping(Integer.class, nullable(Types.INTEGER, PreparedStatement::setInt));
+    registerMapping(int.class, nullable(Types.INTEGER, PreparedStatement::setInt));
+    registerMapping(Short.class, nullable(Types.SMALLINT, PreparedStatement::setShort));
+    registerMapping(short.class, nullable(Types.SMALLINT, PreparedStatement::setShort));
+    registerMapping(Byte.class, nullable(Types.TINYINT, PreparedStatement::setByte));
+    registerMapping(byte.class, nullable(Types.TINYINT, PreparedStatement::setByte));
+
+    registerMapping(Double.class, nullable(Types.DOUBLE, PreparedStatement::setDouble));
+    registerMapping(double.class, nullable(Types.DOUBLE, PreparedStatement::setDouble));
+    registerMapping(Float.class, nullable(Types.REAL, PreparedStatement::setFloat));
+    registerMapping(float.class, nullable(Types.REAL, PreparedStatement::setFloat));
+
+    registerMapping(Boolean.class, nullable(Types.BOOLEAN, PreparedStatement::setBoolean));
+    registerMapping(boolean.class, nullable(Types.BOOLEAN, PreparedStatement::setBoolean));
+
+    registerMapping(byte[].class, PreparedStatement::setBytes);
+    registerMapping(InputStream.class, nullable(Types.BINARY, PreparedStatement::setBinaryStream));
+    registerMapping(
+        ReadableByteChannel.class,
+        nullable(
+            Types.BINARY,
+            (statement, parameterIndex, value) ->
+                statement.setBinaryStream(parameterIndex, Channels.newInputStream(value))));
+
+    registerMapping(LocalDate.class, PreparedStatement::setObject);
+    registerMapping(LocalTime.class, PreparedStatement::setObject);
+    registerMapping(LocalDateTime.class, PreparedStatement::setObject);
+    registerMapping(
+        Instant.class,
+        (statement, parameterIndex, value) ->
+            statement.setObject(
+                parameterIndex, value != null ? value.atOffset(ZoneOffset.UTC) : null));
+
+    registerMapping(int[].class, array(PostgresArrays::toText));
+    registerMapping(long[].class, array(PostgresArrays::toText));
+    registerMapping(double[].class, array(PostgresArrays::toText));
+    registerMapping(float[].class, array(PostgresArrays::toText));
+    registerMapping(String[].class, array(PostgresArrays::toText));
+
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      parameterMapperMap =
+          lookup.findVirtual(
+              ParameterMapper.class,
+              "map",
+              MethodType.methodType(void.class, PreparedStatement.class, int.class, Object.class));
+
+      registerIndexWriter(long.class, statementSetter(lookup, "setLong", long.class));
+      registerIndexWriter(int.class, statementSetter(lookup, "setInt", int.class));
+      registerIndexWriter(short.class, statementSetter(lookup, "setShort", short.class));
+      registerIndexWriter(byte.class, statementSetter(lookup, "setByte", byte.class));
+      registerIndexWriter(double.class, statementSetter(lookup, "setDouble", double.class));
+      registerIndexWriter(float.class, statementSetter(lookup, "setFloat", float.class));
+      registerIndexWriter(boolean.class, statementSetter(lookup, "setBoolean", boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Class<T> type;
+  private final List<String> columnLabels;
+  private final MethodHandle[] writers;
+
+  /**
+   * Creates a binder for the given columns.
+   *
+   * @param type the entity type
+   * @param columnLabels the column labels in order of the statement parameters
+   * @throws IllegalArgumentException if a column has no readable property
+   * @throws NoSuchElementException if no parameter mapper is registered for a property type
+   */
+  public EntityBinder(@NonNull Class<T> type, @NonNull String... columnLabels) {
+    this.type = type;
+    this.columnLabels = Arrays.asList(columnLabels.clone());
+    Map<String, PropertyDescriptor> properties = readableProperties(type);
+    writers = new MethodHandle[columnLabels.length];
+    for (int i = 0; i < columnLabels.length; i++) {
+      PropertyDescriptor property = properties.get(columnLabels[i]);
+      if (property == null) {
+        throw new IllegalArgumentException(
+            "no readable property found for column: " + columnLabels[i]);
+      }
+      writers[i] = propertyWriter(property, i + 1);
+    }
+  }
+
+  /**
+   * The entity type of this binder.
+   *
+   * @return the entity type
+   */
+  public Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * The column labels in order of the statement parameters.
+   *
+   * @return the column labels
+   */
+  public List<String> getColumnLabels() {
+    return columnLabels;
+  }
+
+  /**
+   * Register a new parameter mapper or replace a exists one.
+   *
+   * @param type the mapped property type
+   * @param parameterMapper the parameter mapper
+   * @param <T> the mapped property type
+   */
+  public static <T> void registerMapping(Class<T> type, ParameterMapper<T> parameterMapper) {
+    mappings.put(type, parameterMapper);
+    indexWriters.remove(type);
+  }
+
+  private static void registerIndexWriter(Class<?> type, MethodHandle writer) {
+    indexWriters.put(type, writer);
+  }
+
+  private static MethodHandle statementSetter(
+      MethodHandles.Lookup lookup, String name, Class<?> type)
+      throws NoSuchMethodException, IllegalAccessException {
+    return lookup.findVirtual(
+        PreparedStatement.class, name, MethodType.methodType(void.class, int.class, type));
+  }
+
+  private static <V> ParameterMapper<V> nullable(int sqlType, ParameterMapper<V> mapper) {
+    return (statement, parameterIndex, value) -> {
+      if (value == null) {
+        statement.setNull(parameterIndex, sqlType);
+      } else {
+        mapper.map(statement, parameterIndex, value);
+      }
+    };
+  }
+
+  private static <V> ParameterMapper<V> array(Function<V, String> encoder) {
+    return (statement, parameterIndex, value) -> {
+      if (value == null) {
+        statement.setNull(parameterIndex, Types.ARRAY);
+      } else {
+        statement.setObject(parameterIndex, encoder.apply(value), Types.OTHER);
+      }
+    };
+  }
+
+  /**
+   * Obtains the parameter mapper for a given type.
+   *
+   * @param type the class to map
+   * @param <T> the type to map
+   * @return the parameter mapper
+   */
+  @SuppressWarnings("unchecked")
+  protected static <T> ParameterMapper<T> getParameterMapper(Class<T> type) {
+    ParameterMapper<T> parameterMapper = (ParameterMapper<T>) mappings.get(type);
+    if (parameterMapper == null) {
+      throw new NoSuchElementException("no parameter mapper found for: " + type);
+    }
+    return parameterMapper;
+  }
+
+  /**
+   * Obtains a method handle writing a value of given type to a parameter.
+   *
+   * <p>The returned method handle has the type <code>(PreparedStatement, type)void</code>.
+   * Primitive types are written with the typed setter of the statement, as long as no custom
+   * parameter mapper is registered for them. All other types are written with the registered
+   * parameter mapper.
+   *
+   * @param type the type to write
+   * @param parameterIndex a parameter index, the first parameter is 1
+   * @return the method handle writing the parameter
+   * @see #registerMapping(Class, ParameterMapper)
+   */
+  protected static MethodHandle parameterWriter(Class<?> type, int parameterIndex) {
+    MethodHandle writer = indexWriters.get(type);
+    if (writer != null) {
+      return MethodHandles.insertArguments(writer, 1, parameterIndex);
+    }
+
+    writer = parameterMapperMap.bindTo(getParameterMapper(type));
+    writer = MethodHandles.insertArguments(writer, 1, parameterIndex);
+    return writer.asType(MethodType.methodType(void.class, PreparedStatement.class, type));
+  }
+
+  private static Map<String, PropertyDescriptor> readableProperties(Class<?> type) {
+    PropertyDescriptor[] descriptors;
+    try {
+      descriptors = Introspector.getBeanInfo(type).getPropertyDescriptors();
+    } catch (IntrospectionException e) {
+      throw new IllegalStateException("Can not create name mapping", e);
+    }
+
+    Map<String, PropertyDescriptor> properties = new HashMap<>();
+    for (PropertyDescriptor property : descriptors) {
+      if (property.getReadMethod() != null) {
+        properties.put(ResultSetMapper.columnLabel(property.getName()), property);
+      }
+    }
+    return properties;
+  }
+
+  private static MethodHandle propertyWriter(PropertyDescriptor property, int parameterIndex) {
+    try {
+      MethodHandle getter = SqlTemplate.getter(MethodHandles.lookup(), property.getReadMethod());
+      MethodHandle writer =
+          MethodHandles.filterArguments(
+              parameterWriter(property.getPropertyType(), parameterIndex), 1, getter);
+      return writer.asType(
+          MethodType.methodType(void.class, PreparedStatement.class, Object.class));
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("Can not access property: " + property.getName(), e);
+    }
+  }
+
+  @Override
+  public void bind(PreparedStatement statement, T entity) throws SQLException {
+    try {
+      for (MethodHandle writer : writers) {
+        writer.invokeExact(statement, (Object) entity);
+      }
+    } catch (SQLException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Can not bind entity to statement", e);
+    }
+  }
+}
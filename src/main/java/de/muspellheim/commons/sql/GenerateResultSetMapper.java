@@ -0,0 +1,36 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.beans.ConstructorProperties;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate a result set mapper for the annotated entity at compile time.
+ *
+ * <p>The annotation processor of the module <code>muspellheim-commons-processor</code> generates
+ * the class <code>&lt;Entity&gt;ResultSetMapper</code> in the package of the entity. The generated
+ * mapper maps a row without reflection and introspection at runtime.
+ *
+ * <p>An entity with a constructor annotated with {@link ConstructorProperties} is created with this
+ * constructor, otherwise with the public default constructor and setters. Column labels are mapped
+ * to property names by the same convention as {@link ResultSetMapper#columnLabel(String)}.
+ * Primitive properties are read with the typed getter of the result set, all other properties with
+ * the registered column mappers.
+ *
+ * <p>If the entity uses Lombok, Lombok must run before the annotation processor, so the annotation
+ * processor path must list Lombok first.
+ *
+ * @see ResultSetMapper
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateResultSetMapper {}
@@ -0,0 +1,98 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.Arrays;
+
+/**
+ * A growable vector of <code>int</code> values with a null bitmap.
+ *
+ * <p>A <code>NULL</code> is stored as <code>0</code> and marked in the null bitmap.
+ *
+ * @see ResultSetMapper#mapIntVector(java.sql.ResultSet)
+ */
+public class IntVector extends ColumnVector {
+
+  private int[] values;
+
+  /** Creates an empty vector. */
+  public IntVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty vector with an initial capacity.
+   *
+   * @param initialCapacity the initial capacity
+   */
+  public IntVector(int initialCapacity) {
+    values = new int[initialCapacity];
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value
+   */
+  public void add(int value) {
+    ensureCapacity();
+    values[size()] = value;
+    added(false);
+  }
+
+  /** Appends a <code>NULL</code>. */
+  public void addNull() {
+    ensureCapacity();
+    values[size()] = 0;
+    added(true);
+  }
+
+  private void ensureCapacity() {
+    if (size() == values.length) {
+      values = Arrays.copyOf(values, grow(values.length));
+    }
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value or <code>0</code> if the value is <code>NULL</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public int get(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override
+  public Integer getObject(int index) {
+    return isNull(index) ? null : values[index];
+  }
+
+  /**
+   * Copies the values into an array.
+   *
+   * @return the values, a <code>NULL</code> is copied as <code>0</code>
+   */
+  public int[] toArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  /**
+   * Copies the values into an array and replaces <code>NULL</code> with a sentinel.
+   *
+   * @param nullValue the sentinel for <code>NULL</code>
+   * @return the values
+   */
+  public int[] toArray(int nullValue) {
+    int[] array = toArray();
+    for (int i = nextNull(0); i >= 0; i = nextNull(i + 1)) {
+      array[i] = nullValue;
+    }
+    return array;
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * Scan the result of a query page by page with keyset pagination.
+ *
+ * <p>Instead of an offset every page starts after the key of the last row of the previous page:
+ *
+ * <pre>
+ * SELECT * FROM (&lt;query&gt;) AS page
+ * WHERE &lt;key column&gt; &gt; ? ORDER BY &lt;key column&gt; LIMIT ?
+ * </pre>
+ *
+ * <p>So the cost of a page does not depend on its position and only one page is hold in memory. The
+ * key column must be unique and not <code>NULL</code>, an index on it keeps the pages fast. Every
+ * page is queried with its own {@link SqlQueryTask} and mapped with a {@link ResultSetMapper}.
+ *
+ * <p>If a prefetch executor is set, the next page is queried in background while the current page
+ * is consumed. Closing a stream of the scanner cancels the prefetched page. A SQL exception is
+ * thrown as {@link UncheckedSqlException} while iterating.
+ *
+ * @param <T> entity type
+ * @param <K> key type
+ */
+public class KeysetScanner<T, K> implements Iterable<T> {
+
+  /** Default number of rows of a page. */
+  public static final int DEFAULT_PAGE_SIZE = 1000;
+
+  private final DataSource dataSource;
+  private final String query;
+  private final String keyColumn;
+  private final ResultSetMapper<T> mapper;
+  private final Function<? super T, ? extends K> keyExtractor;
+
+  private int pageSize = DEFAULT_PAGE_SIZE;
+  private Executor prefetchExecutor;
+
+  /**
+   * Creates a scanner.
+   *
+   * @param dataSource the data source
+   * @param query the query to scan, without ordering and limit
+   * @param keyColumn the column of the unique key, which orders the rows
+   * @param mapper the mapper for the rows
+   * @param keyExtractor returns the key of an entity, which must not be <code>null</code>
+   */
+  public KeysetScanner(
+      @NonNull DataSource dataSource,
+      @NonNull String query,
+      @NonNull String keyColumn,
+      @NonNull ResultSetMapper<T> mapper,
+      @NonNull Function<? super T, ? extends K> keyExtractor) {
+    this.dataSource = dataSource;
+    this.query = query.trim().replaceFirst(";$", "");
+    this.keyColumn = keyColumn;
+    this.mapper = mapper;
+    this.keyExtractor = keyExtractor;
+  }
+
+  /**
+   * The number of rows of a page.
+   *
+   * @return the page size
+   */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  /**
+   * Sets the number of rows of a page.
+   *
+   * @param pageSize the page size
+   * @throws IllegalArgumentException if the page size is not positive
+   */
+  public void setPageSize(int pageSize) {
+    if (pageSize < 1) {
+      throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+    }
+
+    this.pageSize = pageSize;
+  }
+
+  /**
+   * The executor querying the next page in background.
+   *
+   * @return the prefetch executor or <code>null</code> if pages are not prefetched
+   */
+  public Executor getPrefetchExecutor() {
+    return prefetchExecutor;
+  }
+
+  /**
+   * Sets the executor querying the next page in background.
+   *
+   * @param prefetchExecutor the prefetch executor or <code>null</code> to query a page not until it
+   *     is needed
+   */
+  public void setPrefetchExecutor(Executor prefetchExecutor) {
+    this.prefetchExecutor = prefetchExecutor;
+  }
+
+  /**
+   * Returns an iterator starting a new scan.
+   *
+   * @return the entity iterator
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new PageIterator();
+  }
+
+  /**
+   * Returns a stream starting a new scan.
+   *
+   * <p>Close the stream if it is not consumed completely, so a prefetched page is cancelled.
+   *
+   * @return the entity stream
+   */
+  public Stream<T> stream() {
+    PageIterator iterator = new PageIterator();
+    return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                iterator, Spliterator.ORDERED | Spliterator.NONNULL),
+            false)
+        .onClose(iterator::close);
+  }
+
+  private SqlQueryTask<List<T>> createPageTask(K lastKey, int limit) {
+    String sql;
+    if (lastKey == null) {
+      sql = "SELECT * FROM (" + query + ") AS page ORDER BY " + keyColumn + " LIMIT ?;";
+    } else {
+      sql =
+          "SELECT * FROM ("
+              + query
+              + ") AS page WHERE "
+              + keyColumn
+              + " > ? ORDER BY "
+              + keyColumn
+              + " LIMIT ?;";
+    }
+    return new SqlQueryTask<>(
+        dataSource,
+        sql,
+        statement -> {
+          int index = 1;
+          if (lastKey != null) {
+            statement.setObject(index++, lastKey);
+          }
+          statement.setInt(index, limit);
+          return mapper.mapList(statement.executeQuery());
+        });
+  }
+
+  private class PageIterator implements Iterator<T> {
+
+    private final int limit = pageSize;
+    private final Executor executor = prefetchExecutor;
+
+    private Iterator<T> page = Collections.emptyIterator();
+    private SqlQueryTask<List<T>> nextPage = createPageTask(null, limit);
+
+    PageIterator() {
+      if (executor != null) {
+        executor.execute(nextPage);
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (!page.hasNext() && nextPage != null) {
+        if (executor == null) {
+          nextPage.run();
+        }
+        List<T> entities = await(nextPage);
+        if (entities.size() < limit) {
+          nextPage = null;
+        } else {
+          nextPage = createPageTask(lastKey(entities), limit);
+          if (executor != null) {
+            executor.execute(nextPage);
+          }
+        }
+        page = entities.iterator();
+      }
+      return page.hasNext();
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      return page.next();
+    }
+
+    private K lastKey(List<T> entities) {
+      T last = entities.get(entities.size() - 1);
+      K key = keyExtractor.apply(last);
+      if (key == null) {
+        throw new IllegalStateException("Key of entity must not be null: " + last);
+      }
+      return key;
+    }
+
+    void close() {
+      if (nextPage != null) {
+        nextPage.cancel(true);
+        nextPage = null;
+      }
+      page = Collections.emptyIterator();
+    }
+
+    private List<T> await(SqlQueryTask<List<T>> task) {
+      try {
+        return task.get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Interrupted while waiting for a page.", e);
+      } catch (ExecutionException e) {
+        if (e.getCause() instanceof SQLException) {
+          throw new UncheckedSqlException("Can not query page", (SQLException) e.getCause());
+        }
+        throw new IllegalStateException("Can not query page", e.getCause());
+      }
+    }
+  }
+}
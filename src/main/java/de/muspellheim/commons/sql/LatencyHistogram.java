@@ -0,0 +1,56 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A lock free histogram of latencies with power of two buckets. */
+class LatencyHistogram {
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Long::max, 0);
+
+  void record(long nanos) {
+    long value = Math.max(0, nanos);
+    buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+    count.increment();
+    sum.add(value);
+    max.accumulate(value);
+  }
+
+  LatencyStatistics getStatistics() {
+    long n = count.sum();
+    if (n == 0) {
+      return LatencyStatistics.of(0, 0, 0, 0, 0);
+    }
+
+    return LatencyStatistics.of(
+        sum.sum() / NANOS_PER_MILLI / n,
+        percentile(n, 0.5),
+        percentile(n, 0.95),
+        percentile(n, 0.99),
+        max.get() / NANOS_PER_MILLI);
+  }
+
+  private double percentile(long n, double p) {
+    long rank = (long) Math.ceil(n * p);
+    long cumulative = 0;
+    for (int i = 0; i < buckets.length(); i++) {
+      cumulative += buckets.get(i);
+      if (cumulative >= rank) {
+        long upperBound = i == 0 ? 0 : (1L << (i - 1)) * 2 - 1;
+        return Math.min(upperBound, max.get()) / NANOS_PER_MILLI;
+      }
+    }
+    return max.get() / NANOS_PER_MILLI;
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Latency distribution of a query phase in milliseconds.
+ *
+ * <p>Percentiles are upper bounds of power of two buckets, so they are precise to a factor of two.
+ *
+ * @see QueryStatistics
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class LatencyStatistics {
+
+  /**
+   * Mean latency.
+   *
+   * @return the mean in milliseconds
+   */
+  double mean;
+
+  /**
+   * Median latency.
+   *
+   * @return the 50th percentile in milliseconds
+   */
+  double p50;
+
+  /**
+   * 95th percentile latency.
+   *
+   * @return the 95th percentile in milliseconds
+   */
+  double p95;
+
+  /**
+   * 99th percentile latency.
+   *
+   * @return the 99th percentile in milliseconds
+   */
+  double p99;
+
+  /**
+   * Maximum latency.
+   *
+   * @return the maximum in milliseconds
+   */
+  double max;
+}
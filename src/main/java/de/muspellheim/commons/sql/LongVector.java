@@ -0,0 +1,98 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.Arrays;
+
+/**
+ * A growable vector of <code>long</code> values with a null bitmap.
+ *
+ * <p>A <code>NULL</code> is stored as <code>0</code> and marked in the null bitmap.
+ *
+ * @see ResultSetMapper#mapLongVector(java.sql.ResultSet)
+ */
+public class LongVector extends ColumnVector {
+
+  private long[] values;
+
+  /** Creates an empty vector. */
+  public LongVector() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty vector with an initial capacity.
+   *
+   * @param initialCapacity the initial capacity
+   */
+  public LongVector(int initialCapacity) {
+    values = new long[initialCapacity];
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value
+   */
+  public void add(long value) {
+    ensureCapacity();
+    values[size()] = value;
+    added(false);
+  }
+
+  /** Appends a <code>NULL</code>. */
+  public void addNull() {
+    ensureCapacity();
+    values[size()] = 0;
+    added(true);
+  }
+
+  private void ensureCapacity() {
+    if (size() == values.length) {
+      values = Arrays.copyOf(values, grow(values.length));
+    }
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value or <code>0</code> if the value is <code>NULL</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public long get(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  @Override
+  public Long getObject(int index) {
+    return isNull(index) ? null : values[index];
+  }
+
+  /**
+   * Copies the values into an array.
+   *
+   * @return the values, a <code>NULL</code> is copied as <code>0</code>
+   */
+  public long[] toArray() {
+    return Arrays.copyOf(values, size());
+  }
+
+  /**
+   * Copies the values into an array and replaces <code>NULL</code> with a sentinel.
+   *
+   * @param nullValue the sentinel for <code>NULL</code>
+   * @return the values
+   */
+  public long[] toArray(long nullValue) {
+    long[] array = toArray();
+    for (int i = nextNull(0); i >= 0; i = nextNull(i + 1)) {
+      array[i] = nullValue;
+    }
+    return array;
+  }
+}
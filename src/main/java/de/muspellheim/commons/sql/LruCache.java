@@ -0,0 +1,83 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A bounded, thread safe LRU cache.
+ *
+ * <p>If the cache is full, the least recently used entry is evicted.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ */
+class LruCache<K, V> {
+
+  private final Map<K, V> entries;
+
+  private long evictions;
+
+  /**
+   * Creates an empty cache.
+   *
+   * @param maxSize the maximum number of entries
+   */
+  LruCache(int maxSize) {
+    entries =
+        new LinkedHashMap<K, V>(16, 0.75f, true) {
+          private static final long serialVersionUID = 1L;
+
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            if (size() > maxSize) {
+              evictions++;
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  synchronized V get(K key) {
+    return entries.get(key);
+  }
+
+  synchronized void put(K key, V value) {
+    entries.put(key, value);
+  }
+
+  /**
+   * Returns the cached value or computes it while holding the lock, so concurrent first calls
+   * compute the value only once.
+   *
+   * @param key the key
+   * @param function computes the value
+   * @return the cached or computed value
+   */
+  synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+    V value = entries.get(key);
+    if (value == null) {
+      value = function.apply(key);
+      entries.put(key, value);
+    }
+    return value;
+  }
+
+  synchronized void clear() {
+    entries.clear();
+  }
+
+  synchronized int size() {
+    return entries.size();
+  }
+
+  synchronized long getEvictions() {
+    return evictions;
+  }
+}
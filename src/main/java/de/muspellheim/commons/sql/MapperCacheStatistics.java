@@ -0,0 +1,47 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Statistics of the shared result set mappers.
+ *
+ * @see ResultSetMapper#getMapperCacheStatistics()
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class MapperCacheStatistics {
+
+  /**
+   * Number of calls returned an already created mapper.
+   *
+   * @return the hit count
+   */
+  long hitCount;
+
+  /**
+   * Number of calls created a new mapper.
+   *
+   * @return the miss count
+   */
+  long missCount;
+
+  /**
+   * Number of mappers evicted because the cache was full.
+   *
+   * @return the eviction count
+   */
+  long evictionCount;
+
+  /**
+   * Number of currently cached mappers.
+   *
+   * @return the size
+   */
+  int size;
+}
@@ -0,0 +1,40 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * A notification received from a Postgres channel.
+ *
+ * @see NotificationBridge
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class Notification {
+
+  /**
+   * The channel the notification was sent to.
+   *
+   * @return the channel
+   */
+  String channel;
+
+  /**
+   * The payload of the notification, an empty string if no payload was sent.
+   *
+   * @return the payload
+   */
+  String payload;
+
+  /**
+   * The process id of the sending backend.
+   *
+   * @return the process id
+   */
+  int processId;
+}
@@ -0,0 +1,50 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * The notifications of a channel received within one batch window.
+ *
+ * <p>An empty batch is published after a reconnect, because notifications sent while the bridge was
+ * disconnected are lost.
+ *
+ * @see NotificationBridge
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class NotificationBatch {
+
+  /**
+   * The channel the notifications were sent to.
+   *
+   * @return the channel
+   */
+  String channel;
+
+  /**
+   * The notifications in order of receipt.
+   *
+   * @return the notifications, empty after a reconnect
+   */
+  List<Notification> notifications;
+
+  /**
+   * The distinct payloads of the notifications in order of receipt.
+   *
+   * @return the payloads
+   */
+  public List<String> getPayloads() {
+    return notifications.stream()
+        .map(Notification::getPayload)
+        .distinct()
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,282 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import de.muspellheim.commons.util.EventBus;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import lombok.NonNull;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * Publish notifications of Postgres channels on an event bus.
+ *
+ * <p>The bridge holds one dedicated connection of a {@link PostgresDatabase}, executes <code>
+ * LISTEN</code> for every channel and publishes the received notifications instead of polling
+ * tables for changes:
+ *
+ * <pre>
+ * NotificationBridge bridge =
+ *     new NotificationBridge(database, bus, NotificationBridgeConfiguration.of());
+ * bridge.listen("person_changed", batch -&gt; new PersonsChanged(batch.getPayloads()));
+ * </pre>
+ *
+ * <p>A burst of notifications is collected for the batch window of the configuration and published
+ * as one {@link NotificationBatch} per channel, or as an event created from the batch. If the
+ * connection is lost, the bridge reconnects with a growing delay and listens to the channels again.
+ * Notifications sent while disconnected are lost, so after a reconnect an empty batch is published
+ * for every channel and subscribers should reload their state. Unexpected runtime exceptions are
+ * passed to the uncaught exception handler of the bridge thread, which reconnects afterwards.
+ *
+ * @see NotificationBridgeConfiguration
+ */
+public class NotificationBridge implements AutoCloseable {
+
+  private final PostgresDatabase database;
+  private final EventBus eventBus;
+  private final NotificationBridgeConfiguration configuration;
+  private final ConcurrentMap<String, Function<NotificationBatch, ?>> channels =
+      new ConcurrentHashMap<>();
+  private final Set<String> listening = new HashSet<>();
+  private final Thread thread;
+
+  private volatile boolean connected;
+  private volatile boolean closed;
+
+  /**
+   * Creates a bridge and starts connecting to the database.
+   *
+   * @param database the database to listen to
+   * @param eventBus the event bus to publish to
+   * @param configuration the bridge configuration
+   */
+  public NotificationBridge(
+      @NonNull PostgresDatabase database,
+      @NonNull EventBus eventBus,
+      @NonNull NotificationBridgeConfiguration configuration) {
+    this.database = database;
+    this.eventBus = eventBus;
+    this.configuration = configuration;
+    thread = new Thread(this::run, "NotificationBridge");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * The configuration of this bridge.
+   *
+   * @return the bridge configuration
+   */
+  public NotificationBridgeConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Tells if the bridge is connected and listens to the channels.
+   *
+   * @return <code>true</code> if connected
+   */
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /**
+   * Listen to a channel and publish its notifications as {@link NotificationBatch}.
+   *
+   * @param channel the channel name, case sensitive
+   * @throws IllegalArgumentException if the channel name is empty
+   */
+  public void listen(@NonNull String channel) {
+    listen(channel, Function.identity());
+  }
+
+  /**
+   * Listen to a channel and publish its notifications as typed events.
+   *
+   * <p>The subscription is applied within the poll interval of the configuration. The event factory
+   * is called on the thread of the bridge and must handle an empty batch after a reconnect. If the
+   * event factory returns <code>null</code>, nothing is published.
+   *
+   * @param channel the channel name, case sensitive
+   * @param eventFactory creates the published event from a batch of notifications
+   * @throws IllegalArgumentException if the channel name is empty
+   */
+  public void listen(
+      @NonNull String channel, @NonNull Function<NotificationBatch, ?> eventFactory) {
+    if (channel.isEmpty()) {
+      throw new IllegalArgumentException("Channel name must not be empty.");
+    }
+
+    channels.put(channel, eventFactory);
+  }
+
+  /**
+   * Stop listening to a channel.
+   *
+   * @param channel the channel name
+   */
+  public void unlisten(@NonNull String channel) {
+    channels.remove(channel);
+  }
+
+  private void run() {
+    long delayMillis = configuration.getReconnectDelay().toMillis();
+    boolean reconnect = false;
+    while (!closed) {
+      try (Connection connection = database.getDedicatedConnection()) {
+        updateListening(connection);
+        connected = true;
+        delayMillis = configuration.getReconnectDelay().toMillis();
+        if (reconnect) {
+          publishReconnected();
+        }
+        receive(connection);
+      } catch (SQLException e) {
+        // connection lost, reconnect
+      } catch (RuntimeException e) {
+        handleUncaughtException(e);
+      }
+      connected = false;
+      listening.clear();
+      reconnect = true;
+      if (!closed) {
+        sleep(delayMillis);
+        delayMillis = Math.min(delayMillis * 2, configuration.getMaxReconnectDelay().toMillis());
+      }
+    }
+  }
+
+  private void receive(Connection connection) throws SQLException {
+    PGConnection pgConnection = connection.unwrap(PGConnection.class);
+    while (!closed) {
+      List<PGNotification> notifications = receiveBatch(pgConnection);
+      publish(notifications);
+      updateListening(connection);
+    }
+  }
+
+  private void updateListening(Connection connection) throws SQLException {
+    Set<String> channelNames = new HashSet<>(channels.keySet());
+    try (Statement statement = connection.createStatement()) {
+      for (String channel : channelNames) {
+        if (listening.add(channel)) {
+          statement.execute("LISTEN " + quote(channel) + ";");
+        }
+      }
+      for (String channel : new ArrayList<>(listening)) {
+        if (!channelNames.contains(channel)) {
+          statement.execute("UNLISTEN " + quote(channel) + ";");
+          listening.remove(channel);
+        }
+      }
+    }
+  }
+
+  private static String quote(String channel) {
+    return '"' + channel.replace("\"", "\"\"") + '"';
+  }
+
+  private List<PGNotification> receiveBatch(PGConnection pgConnection) throws SQLException {
+    List<PGNotification> batch = new ArrayList<>();
+    addAll(batch, pgConnection.getNotifications(timeoutMillis(configuration.getPollInterval())));
+    if (batch.isEmpty()) {
+      return batch;
+    }
+
+    long deadline = System.nanoTime() + configuration.getBatchWindow().toNanos();
+    while (batch.size() < configuration.getMaxBatchSize()) {
+      long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+      if (remainingMillis <= 0) {
+        break;
+      }
+      addAll(batch, pgConnection.getNotifications((int) remainingMillis));
+    }
+    return batch;
+  }
+
+  private static int timeoutMillis(Duration duration) {
+    return (int) Math.max(1, Math.min(Integer.MAX_VALUE, duration.toMillis()));
+  }
+
+  private static void addAll(List<PGNotification> batch, PGNotification[] notifications) {
+    if (notifications != null) {
+      Collections.addAll(batch, notifications);
+    }
+  }
+
+  private void publish(List<PGNotification> notifications) {
+    Map<String, List<Notification>> batches = new LinkedHashMap<>();
+    for (PGNotification n : notifications) {
+      batches
+          .computeIfAbsent(n.getName(), c -> new ArrayList<>())
+          .add(Notification.of(n.getName(), n.getParameter(), n.getPID()));
+    }
+    batches.forEach((channel, batch) -> publish(channel, Collections.unmodifiableList(batch)));
+  }
+
+  private void publish(String channel, List<Notification> notifications) {
+    Function<NotificationBatch, ?> eventFactory = channels.get(channel);
+    if (eventFactory == null) {
+      return;
+    }
+
+    try {
+      Object event = eventFactory.apply(NotificationBatch.of(channel, notifications));
+      if (event != null) {
+        eventBus.publish(event);
+      }
+    } catch (RuntimeException e) {
+      handleUncaughtException(e);
+    }
+  }
+
+  private static void handleUncaughtException(RuntimeException e) {
+    Thread.currentThread()
+        .getUncaughtExceptionHandler()
+        .uncaughtException(Thread.currentThread(), e);
+  }
+
+  private void publishReconnected() {
+    for (String channel : listening) {
+      publish(channel, Collections.emptyList());
+    }
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      closed = true;
+    }
+  }
+
+  /** Stop listening, wait for the bridge thread and close the connection. */
+  @Override
+  public void close() {
+    closed = true;
+    thread.interrupt();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for bridging Postgres notifications to an event bus.
+ *
+ * @see NotificationBridge
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class NotificationBridgeConfiguration {
+
+  /**
+   * Maximum time waiting for notifications before changed subscriptions are applied.
+   *
+   * @return the poll interval
+   */
+  @NonNull Duration pollInterval;
+
+  /**
+   * Time collecting further notifications after the first one of a burst.
+   *
+   * @return the batch window
+   */
+  @NonNull Duration batchWindow;
+
+  /**
+   * Maximum number of notifications collected in one batch window.
+   *
+   * @return the maximum batch size
+   */
+  int maxBatchSize;
+
+  /**
+   * Delay before the first reconnect after the connection was lost, doubled for every failed
+   * reconnect.
+   *
+   * @return the reconnect delay
+   */
+  @NonNull Duration reconnectDelay;
+
+  /**
+   * Maximum delay between two reconnects.
+   *
+   * @return the maximum reconnect delay
+   */
+  @NonNull Duration maxReconnectDelay;
+
+  /**
+   * Obtains a notification bridge configuration with a poll interval of 500 ms, a batch window of
+   * 100 ms for up to 1000 notifications and reconnects after 1 s up to 30 s.
+   *
+   * @return the notification bridge configuration
+   */
+  public static NotificationBridgeConfiguration of() {
+    return new NotificationBridgeConfiguration(
+        Duration.ofMillis(500),
+        Duration.ofMillis(100),
+        1000,
+        Duration.ofSeconds(1),
+        Duration.ofSeconds(30));
+  }
+}
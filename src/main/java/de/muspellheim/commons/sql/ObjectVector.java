@@ -0,0 +1,69 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.Arrays;
+
+/**
+ * A growable vector of objects with a null bitmap.
+ *
+ * @param <T> the value type
+ * @see ColumnarResult
+ */
+public class ObjectVector<T> extends ColumnVector {
+
+  private final Class<T> type;
+  private Object[] values = new Object[DEFAULT_CAPACITY];
+
+  /**
+   * Creates an empty vector.
+   *
+   * @param type the value type
+   */
+  public ObjectVector(Class<T> type) {
+    this.type = type;
+  }
+
+  /**
+   * The value type.
+   *
+   * @return the value type
+   */
+  public Class<T> getType() {
+    return type;
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value, may be <code>null</code>
+   */
+  public void add(T value) {
+    if (size() == values.length) {
+      values = Arrays.copyOf(values, grow(values.length));
+    }
+    values[size()] = value;
+    added(value == null);
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value or <code>null</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    checkIndex(index);
+    return (T) values[index];
+  }
+
+  @Override
+  public T getObject(int index) {
+    return get(index);
+  }
+}
@@ -0,0 +1,29 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Map a value to a parameter of a prepared statement.
+ *
+ * @param <T> value type.
+ * @see EntityBinder
+ */
+@FunctionalInterface
+public interface ParameterMapper<T> {
+
+  /**
+   * Map value to parameter.
+   *
+   * @param statement a prepared statement
+   * @param parameterIndex parameter index to set, the first parameter is 1
+   * @param value the value, can be <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  void map(PreparedStatement statement, int parameterIndex, T value) throws SQLException;
+}
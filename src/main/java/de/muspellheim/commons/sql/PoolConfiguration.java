@@ -0,0 +1,82 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for a connection pool.
+ *
+ * @see ConnectionPool
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class PoolConfiguration {
+
+  /**
+   * Minimum number of connections kept open, even if they are idle.
+   *
+   * @return the minimum size
+   */
+  int minSize;
+
+  /**
+   * Maximum number of open connections.
+   *
+   * @return the maximum size
+   */
+  int maxSize;
+
+  /**
+   * Maximum time to wait for a connection if all connections are in use.
+   *
+   * @return the acquisition timeout
+   */
+  @NonNull Duration acquisitionTimeout;
+
+  /**
+   * Time after an idle connection is closed, as long as more than the minimum number of connections
+   * are open.
+   *
+   * @return the idle timeout
+   */
+  @NonNull Duration idleTimeout;
+
+  /**
+   * Maximum time to validate a connection before it is handed out.
+   *
+   * @return the validation timeout
+   */
+  @NonNull Duration validationTimeout;
+
+  /**
+   * Maximum number of prepared statements cached per connection, <code>0</code> disables the cache.
+   *
+   * @return the statement cache size
+   */
+  int statementCacheSize;
+
+  /**
+   * Obtains a pool configuration with default timeouts.
+   *
+   * <p>The acquisition timeout is 30 seconds, the idle timeout is 10 minutes and the validation
+   * timeout is 5 seconds. The statement cache is disabled.
+   *
+   * @param minSize the minimum number of open connections
+   * @param maxSize the maximum number of open connections
+   * @return the pool configuration
+   */
+  public static PoolConfiguration of(int minSize, int maxSize) {
+    return new PoolConfiguration(
+        minSize, maxSize, Duration.ofSeconds(30), Duration.ofMinutes(10), Duration.ofSeconds(5), 0);
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/** A physical connection in a connection pool. */
+class PoolEntry {
+
+  private final Connection connection;
+  private final StatementCache statementCache;
+
+  private volatile long lastUsed = System.nanoTime();
+  private boolean dirty;
+  private Boolean defaultReadOnly;
+  private Integer defaultTransactionIsolation;
+  private int transactionIsolation;
+
+  PoolEntry(Connection connection, StatementCache statementCache) {
+    this.connection = connection;
+    this.statementCache = statementCache;
+  }
+
+  Connection getConnection() {
+    return connection;
+  }
+
+  /**
+   * Prepare a statement, taken from the statement cache if it is enabled.
+   *
+   * @param handle the logical connection returned by the statement
+   * @param sql the SQL statement
+   * @return the prepared statement
+   * @throws SQLException if an error occurred
+   */
+  PreparedStatement prepareStatement(Connection handle, String sql) throws SQLException {
+    if (statementCache == null) {
+      return new PreparedStatementHandle<>(handle, connection.prepareStatement(sql));
+    }
+    return statementCache.prepareStatement(handle, sql);
+  }
+
+  long getIdleNanos() {
+    return System.nanoTime() - lastUsed;
+  }
+
+  void markDirty() {
+    dirty = true;
+  }
+
+  /**
+   * Set the read only mode, which is restored on {@link #reset()}.
+   *
+   * @param readOnly <code>true</code> for read only mode
+   * @throws SQLException if an error occurred
+   */
+  void setReadOnly(boolean readOnly) throws SQLException {
+    if (defaultReadOnly == null) {
+      defaultReadOnly = connection.isReadOnly();
+    }
+    connection.setReadOnly(readOnly);
+  }
+
+  /**
+   * Set the transaction isolation level, which is restored on {@link #reset()}.
+   *
+   * @param level the transaction isolation level
+   * @throws SQLException if an error occurred
+   */
+  void setTransactionIsolation(int level) throws SQLException {
+    if (defaultTransactionIsolation == null) {
+      defaultTransactionIsolation = connection.getTransactionIsolation();
+    }
+    connection.setTransactionIsolation(level);
+    transactionIsolation = level;
+  }
+
+  /**
+   * Reset the connection to the default state before it is returned to the pool.
+   *
+   * @return <code>true</code> if the connection can be reused
+   */
+  boolean reset() {
+    try {
+      if (dirty || connection.isClosed()) {
+        return false;
+      }
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      restoreDefaults();
+      connection.clearWarnings();
+      lastUsed = System.nanoTime();
+      return true;
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void restoreDefaults() throws SQLException {
+    if (defaultReadOnly != null && connection.isReadOnly() != defaultReadOnly) {
+      connection.setReadOnly(defaultReadOnly);
+    }
+    if (defaultTransactionIsolation != null
+        && transactionIsolation != defaultTransactionIsolation) {
+      connection.setTransactionIsolation(defaultTransactionIsolation);
+      transactionIsolation = defaultTransactionIsolation;
+    }
+  }
+
+  void close() {
+    if (statementCache != null) {
+      statementCache.close();
+    }
+    try {
+      connection.close();
+    } catch (SQLException ignored) {
+      // connection is discarded anyway
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Statistics of a connection pool.
+ *
+ * @see ConnectionPool#getStatistics()
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class PoolStatistics {
+
+  /**
+   * Number of open connections.
+   *
+   * @return the total connections
+   */
+  int totalConnections;
+
+  /**
+   * Number of open connections waiting in the pool.
+   *
+   * @return the idle connections
+   */
+  int idleConnections;
+
+  /**
+   * Number of open connections in use.
+   *
+   * @return the active connections
+   */
+  int activeConnections;
+
+  /**
+   * Number of threads waiting for a connection.
+   *
+   * @return the waiting threads
+   */
+  int waitingThreads;
+
+  /**
+   * Number of connections opened since the pool was created.
+   *
+   * @return the created connections
+   */
+  long createdConnections;
+
+  /**
+   * Number of connections closed since the pool was created.
+   *
+   * @return the closed connections
+   */
+  long closedConnections;
+
+  /**
+   * Number of requests for a connection timed out since the pool was created.
+   *
+   * @return the acquisition timeouts
+   */
+  long acquisitionTimeouts;
+
+  /**
+   * Number of prepared statements taken from a statement cache.
+   *
+   * @return the statement cache hits
+   */
+  long statementCacheHits;
+
+  /**
+   * Number of prepared statements not found in a statement cache.
+   *
+   * @return the statement cache misses
+   */
+  long statementCacheMisses;
+
+  /**
+   * Number of prepared statements closed because a statement cache was full.
+   *
+   * @return the statement cache evictions
+   */
+  long statementCacheEvictions;
+}
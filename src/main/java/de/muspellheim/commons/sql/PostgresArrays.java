@@ -0,0 +1,534 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+
+/**
+ * Decode and encode one-dimensional Postgres arrays without boxing the elements.
+ *
+ * <p>The Postgres driver returns the received bytes of a column with <code>getBytes</code>, so an
+ * array is decoded from the binary format if the driver uses binary transfer for the statement, or
+ * from the text format otherwise. Rows copied by {@link PostgresCopy} are decoded from the text
+ * format. A result set of another driver or a result set which does not wrap one of the Postgres
+ * driver is read with <code>getArray</code>, also if the Postgres driver is not on the class path.
+ * A <code>NULL</code> element is decoded as default value of a primitive element type. An integer
+ * element which does not fit into the element type fails with a <code>
+ * SQLDataException</code>.
+ */
+final class PostgresArrays {
+
+  private static final int INT2 = 21;
+  private static final int INT4 = 23;
+  private static final int INT8 = 20;
+  private static final int FLOAT4 = 700;
+  private static final int FLOAT8 = 701;
+  private static final int TEXT = 25;
+  private static final int VARCHAR = 1043;
+  private static final int BPCHAR = 1042;
+  private static final int NAME = 19;
+
+  private static final String OUT_OF_RANGE = "22003";
+
+  private static final Class<?> PG_RESULT_SET = loadClass("org.postgresql.jdbc.PgResultSet");
+
+  private PostgresArrays() {
+    // utility class
+  }
+
+  static int[] getIntArray(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (isRaw(resultSet)) {
+      return toIntArray(getRaw(resultSet, columnIndex));
+    }
+    return toIntArray(resultSet.getArray(columnIndex));
+  }
+
+  static long[] getLongArray(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (isRaw(resultSet)) {
+      return toLongArray(getRaw(resultSet, columnIndex));
+    }
+    return toLongArray(resultSet.getArray(columnIndex));
+  }
+
+  static double[] getDoubleArray(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (isRaw(resultSet)) {
+      return toDoubleArray(getRaw(resultSet, columnIndex));
+    }
+    return toDoubleArray(resultSet.getArray(columnIndex));
+  }
+
+  static float[] getFloatArray(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (isRaw(resultSet)) {
+      return toFloatArray(getRaw(resultSet, columnIndex));
+    }
+    return toFloatArray(resultSet.getArray(columnIndex));
+  }
+
+  static String[] getStringArray(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (isRaw(resultSet)) {
+      return toStringArray(getRaw(resultSet, columnIndex));
+    }
+    return toStringArray(resultSet.getArray(columnIndex));
+  }
+
+  private static Class<?> loadClass(String name) {
+    try {
+      return Class.forName(name, false, PostgresArrays.class.getClassLoader());
+    } catch (ClassNotFoundException | LinkageError e) {
+      // Postgres driver is optional
+      return null;
+    }
+  }
+
+  private static boolean isRaw(ResultSet resultSet) throws SQLException {
+    return resultSet instanceof CopyRowResultSet
+        || PG_RESULT_SET != null
+            && (PG_RESULT_SET.isInstance(resultSet) || resultSet.isWrapperFor(PG_RESULT_SET));
+  }
+
+  private static byte[] getRaw(ResultSet resultSet, int columnIndex) throws SQLException {
+    if (resultSet instanceof CopyRowResultSet) {
+      return ((CopyRowResultSet) resultSet).getRaw(columnIndex);
+    }
+    return resultSet.getBytes(columnIndex);
+  }
+
+  static int[] toIntArray(byte[] raw) throws SQLException {
+    if (raw == null) {
+      return null;
+    }
+
+    Elements elements = new Elements(raw);
+    int[] array = new int[elements.size()];
+    for (int i = 0; i < array.length; i++) {
+      if (!elements.isNull(i)) {
+        array[i] = toInt(elements.getLong(i));
+      }
+    }
+    return array;
+  }
+
+  static int[] toIntArray(Array array) throws SQLException {
+    Object[] elements = elements(array);
+    if (elements == null) {
+      return null;
+    }
+
+    int[] values = new int[elements.length];
+    for (int i = 0; i < values.length; i++) {
+      if (elements[i] != null) {
+        values[i] = toInt(number(elements[i]).longValue());
+      }
+    }
+    return values;
+  }
+
+  static long[] toLongArray(byte[] raw) throws SQLException {
+    if (raw == null) {
+      return null;
+    }
+
+    Elements elements = new Elements(raw);
+    long[] array = new long[elements.size()];
+    for (int i = 0; i < array.length; i++) {
+      if (!elements.isNull(i)) {
+        array[i] = elements.getLong(i);
+      }
+    }
+    return array;
+  }
+
+  static long[] toLongArray(Array array) throws SQLException {
+    Object[] elements = elements(array);
+    if (elements == null) {
+      return null;
+    }
+
+    long[] values = new long[elements.length];
+    for (int i = 0; i < values.length; i++) {
+      if (elements[i] != null) {
+        values[i] = number(elements[i]).longValue();
+      }
+    }
+    return values;
+  }
+
+  static double[] toDoubleArray(byte[] raw) throws SQLException {
+    if (raw == null) {
+      return null;
+    }
+
+    Elements elements = new Elements(raw);
+    double[] array = new double[elements.size()];
+    for (int i = 0; i < array.length; i++) {
+      if (!elements.isNull(i)) {
+        array[i] = elements.getDouble(i);
+      }
+    }
+    return array;
+  }
+
+  static double[] toDoubleArray(Array array) throws SQLException {
+    Object[] elements = elements(array);
+    if (elements == null) {
+      return null;
+    }
+
+    double[] values = new double[elements.length];
+    for (int i = 0; i < values.length; i++) {
+      if (elements[i] != null) {
+        values[i] = number(elements[i]).doubleValue();
+      }
+    }
+    return values;
+  }
+
+  static float[] toFloatArray(byte[] raw) throws SQLException {
+    if (raw == null) {
+      return null;
+    }
+
+    Elements elements = new Elements(raw);
+    float[] array = new float[elements.size()];
+    for (int i = 0; i < array.length; i++) {
+      if (!elements.isNull(i)) {
+        array[i] = (float) elements.getDouble(i);
+      }
+    }
+    return array;
+  }
+
+  static float[] toFloatArray(Array array) throws SQLException {
+    Object[] elements = elements(array);
+    if (elements == null) {
+      return null;
+    }
+
+    float[] values = new float[elements.length];
+    for (int i = 0; i < values.length; i++) {
+      if (elements[i] != null) {
+        values[i] = number(elements[i]).floatValue();
+      }
+    }
+    return values;
+  }
+
+  static String[] toStringArray(byte[] raw) throws SQLException {
+    if (raw == null) {
+      return null;
+    }
+
+    Elements elements = new Elements(raw);
+    String[] array = new String[elements.size()];
+    for (int i = 0; i < array.length; i++) {
+      if (!elements.isNull(i)) {
+        array[i] = elements.getString(i);
+      }
+    }
+    return array;
+  }
+
+  static String[] toStringArray(Array array) throws SQLException {
+    Object[] elements = elements(array);
+    if (elements == null) {
+      return null;
+    }
+
+    String[] values = new String[elements.length];
+    for (int i = 0; i < values.length; i++) {
+      if (elements[i] != null) {
+        values[i] = elements[i].toString();
+      }
+    }
+    return values;
+  }
+
+  private static Object[] elements(Array array) throws SQLException {
+    if (array == null) {
+      return null;
+    }
+
+    try {
+      Object elements = array.getArray();
+      if (!(elements instanceof Object[]) || elements.getClass().getComponentType().isArray()) {
+        throw new SQLDataException("Not a one-dimensional array: " + array.getBaseTypeName());
+      }
+      return (Object[]) elements;
+    } finally {
+      array.free();
+    }
+  }
+
+  private static Number number(Object element) throws SQLDataException {
+    if (!(element instanceof Number)) {
+      throw new SQLDataException("Array element is not a number: " + element);
+    }
+    return (Number) element;
+  }
+
+  private static int toInt(long value) throws SQLDataException {
+    if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+      throw new SQLDataException("Array element out of range of int: " + value, OUT_OF_RANGE);
+    }
+    return (int) value;
+  }
+
+  static String toText(int[] array) {
+    StringBuilder text = new StringBuilder(array.length * 4 + 2).append('{');
+    for (int i = 0; i < array.length; i++) {
+      text.append(i > 0 ? "," : "").append(array[i]);
+    }
+    return text.append('}').toString();
+  }
+
+  static String toText(long[] array) {
+    StringBuilder text = new StringBuilder(array.length * 8 + 2).append('{');
+    for (int i = 0; i < array.length; i++) {
+      text.append(i > 0 ? "," : "").append(array[i]);
+    }
+    return text.append('}').toString();
+  }
+
+  static String toText(double[] array) {
+    StringBuilder text = new StringBuilder(array.length * 8 + 2).append('{');
+    for (int i = 0; i < array.length; i++) {
+      text.append(i > 0 ? "," : "").append(array[i]);
+    }
+    return text.append('}').toString();
+  }
+
+  static String toText(float[] array) {
+    StringBuilder text = new StringBuilder(array.length * 8 + 2).append('{');
+    for (int i = 0; i < array.length; i++) {
+      text.append(i > 0 ? "," : "").append(array[i]);
+    }
+    return text.append('}').toString();
+  }
+
+  static String toText(String[] array) {
+    StringBuilder text = new StringBuilder(array.length * 8 + 2).append('{');
+    for (int i = 0; i < array.length; i++) {
+      text.append(i > 0 ? "," : "");
+      if (array[i] == null) {
+        text.append("NULL");
+      } else {
+        text.append('"');
+        for (char c : array[i].toCharArray()) {
+          text.append(c == '"' || c == '\\' ? "\\" : "").append(c);
+        }
+        text.append('"');
+      }
+    }
+    return text.append('}').toString();
+  }
+
+  /** The positions of the elements of an array in the received bytes. */
+  private static class Elements {
+
+    private final byte[] raw;
+    private final boolean binary;
+
+    private int elementType;
+    private int[] starts;
+    private int[] ends;
+
+    Elements(byte[] raw) throws SQLException {
+      this.raw = raw;
+      binary = raw.length > 0 && raw[0] == 0;
+      if (binary) {
+        parseBinary();
+      } else {
+        parseText();
+      }
+    }
+
+    int size() {
+      return starts.length;
+    }
+
+    boolean isNull(int index) {
+      return starts[index] == -1;
+    }
+
+    long getLong(int index) throws SQLException {
+      int start = starts[index];
+      if (!binary) {
+        return parseLong(start, ends[index]);
+      }
+
+      switch (elementType) {
+        case INT2:
+          return (short) readInt(start, 2);
+        case INT4:
+          return (int) readInt(start, 4);
+        case INT8:
+          return readInt(start, 8);
+        default:
+          throw new SQLDataException("Array elements are not integers, type: " + elementType);
+      }
+    }
+
+    double getDouble(int index) throws SQLException {
+      int start = starts[index];
+      if (!binary) {
+        return Double.parseDouble(ascii(start, ends[index]));
+      }
+
+      switch (elementType) {
+        case FLOAT4:
+          return Float.intBitsToFloat((int) readInt(start, 4));
+        case FLOAT8:
+          return Double.longBitsToDouble(readInt(start, 8));
+        default:
+          return getLong(index);
+      }
+    }
+
+    String getString(int index) throws SQLException {
+      int start = starts[index];
+      int end = ends[index];
+      if (binary) {
+        if (elementType != TEXT
+            && elementType != VARCHAR
+            && elementType != BPCHAR
+            && elementType != NAME) {
+          throw new SQLDataException("Array elements are not text, type: " + elementType);
+        }
+        return new String(raw, start, end - start, StandardCharsets.UTF_8);
+      }
+
+      String text = new String(raw, start, end - start, StandardCharsets.UTF_8);
+      if (start > 0 && raw[start - 1] == '"') {
+        text = text.replaceAll("\\\\(.)", "$1");
+      }
+      return text;
+    }
+
+    private void parseBinary() throws SQLException {
+      int dimensions = (int) readInt(0, 4);
+      elementType = (int) readInt(8, 4);
+      if (dimensions == 0) {
+        starts = new int[0];
+        ends = new int[0];
+        return;
+      }
+      if (dimensions > 1) {
+        throw new SQLDataException("Multidimensional arrays are not supported.");
+      }
+
+      int size = (int) readInt(12, 4);
+      starts = new int[size];
+      ends = new int[size];
+      int position = 20;
+      for (int i = 0; i < size; i++) {
+        int length = (int) readInt(position, 4);
+        position += 4;
+        if (length == -1) {
+          starts[i] = -1;
+        } else {
+          starts[i] = position;
+          ends[i] = position + length;
+          position += length;
+        }
+      }
+    }
+
+    private void parseText() throws SQLException {
+      int position = 0;
+      if (raw.length > 0 && raw[0] == '[') {
+        // skip explicit bounds like [0:2]=
+        while (position < raw.length && raw[position] != '=') {
+          position++;
+        }
+        position++;
+      }
+      if (position + 1 >= raw.length || raw[position] != '{' || raw[position + 1] == '{') {
+        throw new SQLDataException("Not a one-dimensional array: " + ascii(0, raw.length));
+      }
+
+      int size = countElements(position + 1);
+      starts = new int[size];
+      ends = new int[size];
+      position++;
+      for (int i = 0; i < size; i++) {
+        position = parseTextElement(i, position) + 1;
+      }
+    }
+
+    private int countElements(int position) {
+      if (raw[position] == '}') {
+        return 0;
+      }
+
+      int count = 1;
+      boolean quoted = false;
+      for (int i = position; i < raw.length; i++) {
+        byte b = raw[i];
+        if (b == '\\') {
+          i++;
+        } else if (b == '"') {
+          quoted = !quoted;
+        } else if (b == ',' && !quoted) {
+          count++;
+        }
+      }
+      return count;
+    }
+
+    private int parseTextElement(int index, int position) {
+      if (raw[position] == '"') {
+        int end = position + 1;
+        while (raw[end] != '"') {
+          end += raw[end] == '\\' ? 2 : 1;
+        }
+        starts[index] = position + 1;
+        ends[index] = end;
+        return end + 1;
+      }
+
+      int end = position;
+      while (raw[end] != ',' && raw[end] != '}') {
+        end++;
+      }
+      if (end - position == 4 && "NULL".equalsIgnoreCase(ascii(position, end))) {
+        starts[index] = -1;
+      } else {
+        starts[index] = position;
+        ends[index] = end;
+      }
+      return end;
+    }
+
+    private long readInt(int position, int length) {
+      long value = 0;
+      for (int i = position; i < position + length; i++) {
+        value = (value << 8) | (raw[i] & 0xff);
+      }
+      return value;
+    }
+
+    private long parseLong(int start, int end) throws SQLException {
+      boolean negative = raw[start] == '-';
+      long value = 0;
+      for (int i = negative ? start + 1 : start; i < end; i++) {
+        int digit = raw[i] - '0';
+        if (digit < 0 || digit > 9) {
+          throw new SQLDataException("Array element is not an integer: " + ascii(start, end));
+        }
+        value = value * 10 + digit;
+      }
+      return negative ? -value : value;
+    }
+
+    private String ascii(int start, int end) {
+      return new String(raw, start, end - start, StandardCharsets.US_ASCII);
+    }
+  }
+}
@@ -0,0 +1,153 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.copy.CopyOperation;
+import org.postgresql.copy.CopyOut;
+
+/**
+ * Bulk load and export with Postgres <code>COPY</code>.
+ *
+ * <p>Rows are streamed in the text format of <code>COPY</code>, so neither the loaded nor the
+ * exported entities are hold in memory at once. Loaded values are written with <code>toString
+ * </code>, byte arrays as hex. Exported rows are mapped with a {@link ResultSetMapper} and its
+ * registered column mappers.
+ *
+ * <p>Requires the feature <code>postgresqlSupport</code>.
+ */
+public class PostgresCopy {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private final DataSource dataSource;
+
+  /**
+   * Initialize with data source.
+   *
+   * @param dataSource the data source of a Postgres database
+   */
+  public PostgresCopy(@NonNull DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * Load entities into a table with <code>COPY ... FROM STDIN</code>.
+   *
+   * <p>The table and column names are used as given in the SQL statement.
+   *
+   * @param table the table to load into
+   * @param columns the columns to load
+   * @param entities the entities to load
+   * @param values returns the column values of an entity in the order of the columns
+   * @param <T> the entity type
+   * @return the number of loaded rows
+   * @throws SQLException if an error occurred
+   * @throws IllegalArgumentException if the number of values does not match the columns
+   */
+  public <T> long copyIn(
+      @NonNull String table,
+      @NonNull List<String> columns,
+      @NonNull Iterable<? extends T> entities,
+      @NonNull Function<? super T, Object[]> values)
+      throws SQLException {
+    String sql = "COPY " + table + " (" + String.join(", ", columns) + ") FROM STDIN";
+    try (Connection connection = dataSource.getConnection()) {
+      CopyIn copyIn = copyManager(connection).copyIn(sql);
+      try {
+        StringBuilder buffer = new StringBuilder(BUFFER_SIZE + 1024);
+        for (T entity : entities) {
+          Object[] row = values.apply(entity);
+          if (row.length != columns.size()) {
+            throw new IllegalArgumentException(
+                "Expected " + columns.size() + " values, but was " + row.length);
+          }
+          CopyText.appendRow(row, buffer);
+          if (buffer.length() >= BUFFER_SIZE) {
+            write(copyIn, buffer);
+          }
+        }
+        write(copyIn, buffer);
+        return copyIn.endCopy();
+      } catch (SQLException | RuntimeException | Error e) {
+        cancel(copyIn, e);
+        throw e;
+      }
+    }
+  }
+
+  private static void write(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+    byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+    copyIn.writeToCopy(bytes, 0, bytes.length);
+    buffer.setLength(0);
+  }
+
+  /**
+   * Export the result of a query with <code>COPY (...) TO STDOUT</code>.
+   *
+   * <p>Every row is mapped with the mapper and passed to the action, so no list is hold in memory.
+   *
+   * @param query the query to export
+   * @param mapper the mapper of the rows
+   * @param action the action consuming every entity
+   * @param <T> the entity type
+   * @return the number of exported rows
+   * @throws SQLException if an error occurred
+   */
+  public <T> long copyOut(
+      @NonNull String query,
+      @NonNull ResultSetMapper<T> mapper,
+      @NonNull Consumer<? super T> action)
+      throws SQLException {
+    String select = query.trim();
+    if (select.endsWith(";")) {
+      select = select.substring(0, select.length() - 1);
+    }
+
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(select)) {
+      CopyRowResultSet rows = new CopyRowResultSet(statement.getMetaData());
+      RowMapper<T> rowMapper = mapper.rowMapperFor(rows.getMetaData());
+      CopyOut copyOut = copyManager(connection).copyOut("COPY (" + select + ") TO STDOUT");
+      try {
+        byte[] data;
+        while ((data = copyOut.readFromCopy()) != null) {
+          rows.setRow(CopyText.parseRow(new String(data, StandardCharsets.UTF_8)));
+          action.accept(rowMapper.map(rows));
+        }
+        return copyOut.getHandledRowCount();
+      } catch (SQLException | RuntimeException | Error e) {
+        cancel(copyOut, e);
+        throw e;
+      }
+    }
+  }
+
+  private static CopyManager copyManager(Connection connection) throws SQLException {
+    return connection.unwrap(PGConnection.class).getCopyAPI();
+  }
+
+  private static void cancel(CopyOperation operation, Throwable failure) {
+    try {
+      if (operation.isActive()) {
+        operation.cancelCopy();
+      }
+    } catch (SQLException | RuntimeException e) {
+      failure.addSuppressed(e);
+    }
+  }
+}
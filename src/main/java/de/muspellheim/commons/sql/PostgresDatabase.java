@@ -5,19 +5,27 @@
 
 package de.muspellheim.commons.sql;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.sql.DataSource;
 import org.postgresql.ds.PGSimpleDataSource;
 
 /**
  * Factory for an Postgres datasource.
  *
- * <p>The datasource will be lazy initialized and is a singleton.
+ * <p>The datasource will be lazy initialized and is a singleton. If the configuration contains a
+ * pool configuration, the datasource is a {@link ConnectionPool}. If the configuration contains
+ * replicas, the datasource is a {@link RoutingDataSource}, which routes read only connections of
+ * {@link #getReadOnlyDataSource()} to the replicas. A long living session like a {@link
+ * NotificationBridge} uses a dedicated connection outside of the pool.
  */
-public class PostgresDatabase {
+public class PostgresDatabase implements AutoCloseable {
 
   private final DatabaseConfiguration configuration;
 
-  private DataSource dataSource;
+  private volatile DataSource dataSource;
 
   /**
    * Initialize with configuration.
@@ -31,19 +39,91 @@ public class PostgresDatabase {
   /**
    * Returns the data source for the underlying configuration.
    *
+   * <p>The data source is created thread-safe on first call.
+   *
    * @return the data source
    */
   public DataSource getDataSource() {
-    if (dataSource == null) {
-      dataSource = createDataSource();
+    DataSource ds = dataSource;
+    if (ds == null) {
+      synchronized (this) {
+        ds = dataSource;
+        if (ds == null) {
+          ds = createDataSource();
+          dataSource = ds;
+        }
+      }
     }
-    return dataSource;
+    return ds;
+  }
+
+  /**
+   * Returns the data source for read only connections.
+   *
+   * <p>If the configuration contains replicas, the connections are routed to the replicas.
+   * Otherwise this is the same data source as {@link #getDataSource()}.
+   *
+   * @return the data source for read only connections
+   */
+  public DataSource getReadOnlyDataSource() {
+    DataSource ds = getDataSource();
+    if (ds instanceof RoutingDataSource) {
+      return ((RoutingDataSource) ds).getReadOnlyDataSource();
+    }
+    return ds;
+  }
+
+  /**
+   * Opens a new connection to the primary, which is not taken from a pool.
+   *
+   * <p>Use a dedicated connection for a long living session, which would otherwise block a pooled
+   * connection. The caller must close the connection.
+   *
+   * @return a new connection of the primary
+   * @throws SQLException if an error occurred
+   */
+  public Connection getDedicatedConnection() throws SQLException {
+    return createSimpleDataSource(configuration.getHost(), configuration.getPort()).getConnection();
+  }
+
+  /**
+   * Close the connection pools, if the data source is pooled or routed.
+   *
+   * <p>A following call of {@link #getDataSource()} creates a new data source.
+   */
+  @Override
+  public synchronized void close() {
+    if (dataSource instanceof ConnectionPool) {
+      ((ConnectionPool) dataSource).close();
+    } else if (dataSource instanceof RoutingDataSource) {
+      ((RoutingDataSource) dataSource).close();
+    }
+    dataSource = null;
   }
 
   private DataSource createDataSource() {
+    DataSource primary = createDataSource(configuration.getHost(), configuration.getPort());
+    if (configuration.getReplicas().isEmpty()) {
+      return primary;
+    }
+
+    List<DataSource> replicas = new ArrayList<>();
+    for (ReplicaConfiguration replica : configuration.getReplicas()) {
+      replicas.add(createDataSource(replica.getHost(), replica.getPort()));
+    }
+    return new RoutingDataSource(primary, replicas, configuration.getRouting());
+  }
+
+  private DataSource createDataSource(String host, int port) {
+    DataSource ds = createSimpleDataSource(host, port);
+    PoolConfiguration pool = configuration.getPool();
+    return pool != null ? new ConnectionPool(ds, pool) : ds;
+  }
+
+  private PGSimpleDataSource createSimpleDataSource(String host, int port) {
     PGSimpleDataSource ds = new PGSimpleDataSource();
-    ds.setServerName(configuration.getHost());
-    ds.setPortNumber(configuration.getPort());
+    ds.setServerName(host);
+    ds.setPortNumber(port);
     ds.setUser(configuration.getUser());
     ds.setPassword(configuration.getPassword());
     ds.setDatabaseName(configuration.getDatabase());
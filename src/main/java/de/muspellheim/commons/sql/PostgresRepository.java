@@ -7,7 +7,11 @@ package de.muspellheim.commons.sql;
 
 import de.muspellheim.commons.domain.QueryCanceledException;
 import de.muspellheim.commons.domain.RepositoryException;
+import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.StringJoiner;
 
 /**
  * Base class for Postgres SQL repository.
@@ -19,6 +23,8 @@ public abstract class PostgresRepository extends SqlRepository {
   /** SQL state for query canceled. */
   public static final String QUERY_CANCELED = "57014";
 
+  private static final String EXPLAIN_STATEMENT = "muspellheim_commons_explain";
+
   /**
    * Map default SQL exception to repository exception.
    *
@@ -34,4 +40,73 @@ public abstract class PostgresRepository extends SqlRepository {
       throw new QueryCanceledException(bundle.getString("postgresRepository.queryCanceled"), e);
     }
   }
+
+  /**
+   * Explain the generic plan of a query without executing it.
+   *
+   * <p>The query is prepared with <code>?</code> parameters replaced by <code>$1</code>, <code>$2
+   * </code> and so on and explained with <code>EXPLAIN (ANALYZE off)</code> while <code>
+   * plan_cache_mode</code> forces a generic plan. So the plan contains no parameter values. As with
+   * the JDBC driver, <code>??</code> is an escaped <code>?</code> like in the jsonb operators
+   * <code>
+   * ??|</code> and <code>??&amp;</code>, and question marks in strings and comments are no
+   * parameters. Requires Postgres 12 or later.
+   *
+   * @param connection a connection to a Postgres database
+   * @param sql the query to explain
+   * @return the plan as text
+   * @throws SQLException if an error occurred
+   */
+  public static String explain(Connection connection, String sql) throws SQLException {
+    StringBuilder query = new StringBuilder();
+    int parameterCount = replaceParameters(sql.trim(), query);
+    if (query.length() > 0 && query.charAt(query.length() - 1) == ';') {
+      query.setLength(query.length() - 1);
+    }
+
+    StringJoiner arguments = new StringJoiner(", ", "(", ")").setEmptyValue("");
+    for (int i = 0; i < parameterCount; i++) {
+      arguments.add("NULL");
+    }
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+      statement.execute("PREPARE " + EXPLAIN_STATEMENT + " AS " + query);
+      try (ResultSet resultSet =
+          statement.executeQuery(
+              "EXPLAIN (ANALYZE off) EXECUTE " + EXPLAIN_STATEMENT + arguments)) {
+        StringJoiner plan = new StringJoiner(System.lineSeparator());
+        while (resultSet.next()) {
+          plan.add(resultSet.getString(1));
+        }
+        return plan.toString();
+      } finally {
+        connection.rollback();
+        statement.execute("DEALLOCATE " + EXPLAIN_STATEMENT);
+      }
+    } finally {
+      connection.rollback();
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private static int replaceParameters(String sql, StringBuilder query) {
+    int parameterCount = 0;
+    int i = 0;
+    while (i < sql.length()) {
+      if (sql.startsWith("??", i)) {
+        query.append('?');
+        i += 2;
+      } else if (sql.charAt(i) == '?') {
+        query.append('$').append(++parameterCount);
+        i++;
+      } else {
+        int end = SqlTemplate.skipToken(sql, i);
+        query.append(sql, i, end);
+        i = end;
+      }
+    }
+    return parameterCount;
+  }
 }
@@ -0,0 +1,288 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Cache the results of read queries.
+ *
+ * <p>A result is cached by SQL text and bound parameters. The cache holds at most the configured
+ * number of results and evicts the least recently used result first. A result expires after the
+ * configured time to live. Every result is tagged with the tables it depends on, so writing a table
+ * can invalidate all results read from it with {@link #invalidate(String)}.
+ *
+ * <p>Concurrent requests for the same uncached query execute the query only once, all requests get
+ * the same result. So cached results must not be modified.
+ */
+public class QueryCache {
+
+  private final DataSource dataSource;
+  private final QueryCacheConfiguration configuration;
+  private final long timeToLiveNanos;
+  private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Set<Key>> tagIndex = new HashMap<>();
+  private final ConcurrentMap<Key, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder sharedLoads = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  private long invalidations;
+
+  /**
+   * Creates a cache for queries on a data source.
+   *
+   * @param dataSource the data source
+   * @param configuration the cache configuration
+   * @throws IllegalArgumentException if the maximum number of entries is not positive
+   */
+  public QueryCache(
+      @NonNull DataSource dataSource, @NonNull QueryCacheConfiguration configuration) {
+    if (configuration.getMaxEntries() < 1) {
+      throw new IllegalArgumentException("Maximum entries must be positive: " + configuration);
+    }
+
+    this.dataSource = dataSource;
+    this.configuration = configuration;
+    timeToLiveNanos = configuration.getTimeToLive().toNanos();
+  }
+
+  /**
+   * The configuration of this cache.
+   *
+   * @return the cache configuration
+   */
+  public QueryCacheConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns the current statistics of this cache.
+   *
+   * @return the cache statistics
+   */
+  public QueryCacheStatistics getStatistics() {
+    int size;
+    synchronized (entries) {
+      size = entries.size();
+    }
+    return QueryCacheStatistics.of(
+        hits.sum(), misses.sum(), sharedLoads.sum(), evictions.sum(), size);
+  }
+
+  /**
+   * Returns the cached result of a query or executes the query.
+   *
+   * <p>The parameters are bound with <code>setObject</code> before the query is executed.
+   *
+   * @param sql the SQL query string to execute
+   * @param parameters the parameters of the query
+   * @param tags the tags of the result, usually the tables read by the query
+   * @param query the handler, which executes statement and return result
+   * @param <T> result type of the query
+   * @return the result of the query
+   * @throws SQLException if an error occurred
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T query(
+      @NonNull String sql,
+      @NonNull List<?> parameters,
+      @NonNull Collection<String> tags,
+      @NonNull SqlQuery<T> query)
+      throws SQLException {
+    Key key = Key.of(sql, parameters.toArray());
+    Entry entry = lookup(key);
+    if (entry != null) {
+      hits.increment();
+      return (T) entry.value;
+    }
+
+    CompletableFuture<Object> load = new CompletableFuture<>();
+    CompletableFuture<Object> concurrentLoad = loading.putIfAbsent(key, load);
+    if (concurrentLoad != null) {
+      sharedLoads.increment();
+      return (T) await(concurrentLoad);
+    }
+
+    misses.increment();
+    try {
+      long invalidationsBeforeLoad = getInvalidations();
+      T value = execute(sql, parameters, query);
+      store(
+          key,
+          new Entry(value, tags, System.nanoTime() + timeToLiveNanos),
+          invalidationsBeforeLoad);
+      load.complete(value);
+      return value;
+    } catch (Throwable e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, load);
+    }
+  }
+
+  private <T> T execute(String sql, List<?> parameters, SqlQuery<T> query) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (int i = 0; i < parameters.size(); i++) {
+        statement.setObject(i + 1, parameters.get(i));
+      }
+      return query.execute(statement);
+    }
+  }
+
+  /**
+   * Invalidate all results tagged with a tag.
+   *
+   * @param tag the tag, usually a table name
+   */
+  public void invalidate(@NonNull String tag) {
+    synchronized (entries) {
+      invalidations++;
+      Set<Key> keys = tagIndex.remove(tag);
+      if (keys != null) {
+        keys.forEach(this::remove);
+      }
+    }
+  }
+
+  /** Invalidate all cached results. */
+  public void invalidateAll() {
+    synchronized (entries) {
+      invalidations++;
+      entries.clear();
+      tagIndex.clear();
+    }
+  }
+
+  private long getInvalidations() {
+    synchronized (entries) {
+      return invalidations;
+    }
+  }
+
+  private Entry lookup(Key key) {
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry == null) {
+        return null;
+      }
+      if (entry.isExpired()) {
+        remove(key);
+        evictions.increment();
+        return null;
+      }
+      return entry;
+    }
+  }
+
+  private void store(Key key, Entry entry, long invalidationsBeforeLoad) {
+    synchronized (entries) {
+      if (invalidations != invalidationsBeforeLoad) {
+        // result may be stale
+        return;
+      }
+
+      remove(key);
+      entries.put(key, entry);
+      for (String tag : entry.tags) {
+        tagIndex.computeIfAbsent(tag, t -> new HashSet<>()).add(key);
+      }
+      evict();
+    }
+  }
+
+  private void evict() {
+    Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext() && entries.size() > configuration.getMaxEntries()) {
+      Map.Entry<Key, Entry> eldest = iterator.next();
+      iterator.remove();
+      untag(eldest.getKey(), eldest.getValue());
+      evictions.increment();
+    }
+  }
+
+  private void remove(Key key) {
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      untag(key, entry);
+    }
+  }
+
+  private void untag(Key key, Entry entry) {
+    for (String tag : entry.tags) {
+      Set<Key> keys = tagIndex.get(tag);
+      if (keys != null) {
+        keys.remove(key);
+        if (keys.isEmpty()) {
+          tagIndex.remove(tag);
+        }
+      }
+    }
+  }
+
+  private static Object await(CompletableFuture<Object> load) throws SQLException {
+    try {
+      return load.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for concurrent query.", e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof SQLException) {
+        throw (SQLException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  @Value(staticConstructor = "of")
+  private static class Key {
+    String sql;
+    Object[] parameters;
+  }
+
+  private static class Entry {
+
+    private final Object value;
+    private final Collection<String> tags;
+    private final long expiresAt;
+
+    Entry(Object value, Collection<String> tags, long expiresAt) {
+      this.value = value;
+      this.tags = new HashSet<>(tags);
+      this.expiresAt = expiresAt;
+    }
+
+    boolean isExpired() {
+      return System.nanoTime() - expiresAt >= 0;
+    }
+  }
+}
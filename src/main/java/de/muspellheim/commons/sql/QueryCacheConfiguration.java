@@ -0,0 +1,49 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for a query result cache.
+ *
+ * @see QueryCache
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class QueryCacheConfiguration {
+
+  /**
+   * Maximum number of cached results, the least recently used result is evicted first.
+   *
+   * @return the maximum number of entries
+   */
+  int maxEntries;
+
+  /**
+   * Time after a cached result expires.
+   *
+   * @return the time to live
+   */
+  @NonNull Duration timeToLive;
+
+  /**
+   * Obtains a query cache configuration.
+   *
+   * @param maxEntries the maximum number of cached results
+   * @param timeToLive the time after a cached result expires
+   * @return the query cache configuration
+   */
+  public static QueryCacheConfiguration of(int maxEntries, @NonNull Duration timeToLive) {
+    return new QueryCacheConfiguration(maxEntries, timeToLive);
+  }
+}
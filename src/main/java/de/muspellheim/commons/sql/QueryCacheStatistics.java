@@ -0,0 +1,54 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Statistics of a query result cache.
+ *
+ * @see QueryCache#getStatistics()
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class QueryCacheStatistics {
+
+  /**
+   * Number of queries answered from the cache.
+   *
+   * @return the hit count
+   */
+  long hitCount;
+
+  /**
+   * Number of queries executed on the database.
+   *
+   * @return the miss count
+   */
+  long missCount;
+
+  /**
+   * Number of queries answered by a concurrent load of the same query, without executing it again.
+   *
+   * @return the shared load count
+   */
+  long sharedLoadCount;
+
+  /**
+   * Number of results evicted because the cache was full or the result expired.
+   *
+   * @return the eviction count
+   */
+  long evictionCount;
+
+  /**
+   * Number of currently cached results.
+   *
+   * @return the size
+   */
+  int size;
+}
@@ -0,0 +1,79 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * The phases of a finished query.
+ *
+ * @see QueryListener
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class QueryEvent {
+
+  /**
+   * The SQL statement of the query.
+   *
+   * @return the SQL statement
+   */
+  String sql;
+
+  /**
+   * The SQL statement without literals and with normalized whitespace.
+   *
+   * @return the fingerprint
+   * @see QueryMetrics#fingerprint(String)
+   */
+  String fingerprint;
+
+  /**
+   * Time to acquire a connection in nanoseconds.
+   *
+   * @return the acquisition time
+   */
+  long acquisitionNanos;
+
+  /**
+   * Time to execute the query and fetch rows, except the mapping time, in nanoseconds.
+   *
+   * @return the execution time
+   */
+  long executionNanos;
+
+  /**
+   * Time to map rows with a {@link ResultSetMapper} in nanoseconds.
+   *
+   * @return the mapping time
+   */
+  long mappingNanos;
+
+  /**
+   * Number of rows mapped with a {@link ResultSetMapper}.
+   *
+   * @return the rows
+   */
+  long rows;
+
+  /**
+   * Tests if the query failed.
+   *
+   * @return <code>true</code> if the query failed
+   */
+  boolean failed;
+
+  /**
+   * The types of the bound parameters, the values are redacted.
+   *
+   * <p>A <code>NULL</code> is described as <code>null</code>.
+   *
+   * @return the parameter types in order of the parameter index
+   */
+  List<String> parameters;
+}
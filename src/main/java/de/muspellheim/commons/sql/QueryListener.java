@@ -0,0 +1,22 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+/**
+ * Listen to finished queries.
+ *
+ * @see QueryMetrics#addListener(QueryListener)
+ */
+@FunctionalInterface
+public interface QueryListener {
+
+  /**
+   * Called in the thread of the query, after the query finished.
+   *
+   * @param event the phases of the query
+   */
+  void queryFinished(QueryEvent event);
+}
@@ -0,0 +1,249 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import lombok.NonNull;
+
+/**
+ * Metrics of queries run by {@link SqlTask}s.
+ *
+ * <p>Every query is measured in three phases: acquiring a connection, executing the statement and
+ * mapping the rows with a {@link ResultSetMapper}. The phases are recorded in histograms per SQL
+ * fingerprint and reported to the added {@link QueryListener}s. The histograms can be exposed via
+ * JMX with {@link #registerMBean()}.
+ *
+ * <p>Metrics are disabled until a listener is added or histograms are enabled. Disabled metrics
+ * cost one volatile read per query and mapped result set.
+ */
+public final class QueryMetrics {
+
+  /** The object name of the registered MXBean. */
+  public static final String OBJECT_NAME = "de.muspellheim.commons.sql:type=QueryMetrics";
+
+  private static final int MAX_FINGERPRINTS = 1024;
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(?:\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private static final List<QueryListener> listeners = new CopyOnWriteArrayList<>();
+  private static final ConcurrentMap<String, String> fingerprints = new ConcurrentHashMap<>();
+  private static final ConcurrentMap<String, QueryHistograms> histograms =
+      new ConcurrentHashMap<>();
+
+  private static volatile boolean histogramsEnabled;
+  private static volatile boolean enabled;
+
+  private QueryMetrics() {
+    // utility class
+  }
+
+  /**
+   * Tests if metrics are enabled.
+   *
+   * @return <code>true</code> if histograms are enabled or a listener is added
+   */
+  public static boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Tests if histograms are enabled.
+   *
+   * @return <code>true</code> if histograms are enabled
+   */
+  public static boolean isHistogramsEnabled() {
+    return histogramsEnabled;
+  }
+
+  /**
+   * Enable or disable the histograms per fingerprint.
+   *
+   * @param histogramsEnabled <code>true</code> to enable histograms
+   */
+  public static synchronized void setHistogramsEnabled(boolean histogramsEnabled) {
+    QueryMetrics.histogramsEnabled = histogramsEnabled;
+    updateEnabled();
+  }
+
+  /**
+   * Add a listener for finished queries and enable metrics.
+   *
+   * @param listener the listener to add
+   */
+  public static synchronized void addListener(@NonNull QueryListener listener) {
+    listeners.add(listener);
+    updateEnabled();
+  }
+
+  /**
+   * Remove a listener, metrics are disabled if no listener remains and histograms are disabled.
+   *
+   * @param listener the listener to remove
+   */
+  public static synchronized void removeListener(@NonNull QueryListener listener) {
+    listeners.remove(listener);
+    updateEnabled();
+  }
+
+  private static void updateEnabled() {
+    enabled = histogramsEnabled || !listeners.isEmpty();
+  }
+
+  /**
+   * Enable histograms and register the MXBean with the platform MBean server.
+   *
+   * @throws IllegalStateException if the MXBean can not be registered
+   * @see #OBJECT_NAME
+   */
+  public static synchronized void registerMBean() {
+    setHistogramsEnabled(true);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (!server.isRegistered(name)) {
+        server.registerMBean(new QueryMetricsBean(), name);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Can not register query metrics MXBean", e);
+    }
+  }
+
+  /**
+   * Unregister the MXBean from the platform MBean server and disable histograms.
+   *
+   * @throws IllegalStateException if the MXBean can not be unregistered
+   */
+  public static synchronized void unregisterMBean() {
+    setHistogramsEnabled(false);
+    try {
+      MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      ObjectName name = new ObjectName(OBJECT_NAME);
+      if (server.isRegistered(name)) {
+        server.unregisterMBean(name);
+      }
+    } catch (JMException e) {
+      throw new IllegalStateException("Can not unregister query metrics MXBean", e);
+    }
+  }
+
+  /**
+   * Returns the statistics of all query fingerprints.
+   *
+   * @return the query statistics
+   */
+  public static List<QueryStatistics> getStatistics() {
+    List<QueryStatistics> statistics = new ArrayList<>();
+    histograms.forEach((fingerprint, h) -> statistics.add(h.getStatistics(fingerprint)));
+    return statistics;
+  }
+
+  /** Clear all statistics. */
+  public static void reset() {
+    histograms.clear();
+  }
+
+  /**
+   * Normalize a SQL statement, so that statements which differ only in literals and whitespace have
+   * the same fingerprint.
+   *
+   * <p>String and number literals are replaced with <code>?</code>, lists of parameters are
+   * collapsed to one <code>?</code> and whitespace is collapsed to one space.
+   *
+   * @param sql a SQL statement
+   * @return the fingerprint of the SQL statement
+   */
+  public static String fingerprint(@NonNull String sql) {
+    String fingerprint = fingerprints.get(sql);
+    if (fingerprint == null) {
+      fingerprint = STRING_LITERAL.matcher(sql).replaceAll("?");
+      fingerprint = NUMBER_LITERAL.matcher(fingerprint).replaceAll("?");
+      fingerprint = PARAMETER_LIST.matcher(fingerprint).replaceAll("?");
+      fingerprint = WHITESPACE.matcher(fingerprint).replaceAll(" ").trim();
+      if (fingerprints.size() >= MAX_FINGERPRINTS) {
+        fingerprints.clear();
+      }
+      fingerprints.put(sql, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  static void record(QueryEvent event) {
+    if (histogramsEnabled) {
+      if (histograms.size() >= MAX_FINGERPRINTS
+          && !histograms.containsKey(event.getFingerprint())) {
+        histograms.clear();
+      }
+      histograms.computeIfAbsent(event.getFingerprint(), f -> new QueryHistograms()).record(event);
+    }
+    for (QueryListener listener : listeners) {
+      try {
+        listener.queryFinished(event);
+      } catch (RuntimeException e) {
+        Thread.currentThread()
+            .getUncaughtExceptionHandler()
+            .uncaughtException(Thread.currentThread(), e);
+      }
+    }
+  }
+
+  private static class QueryHistograms {
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LatencyHistogram acquisition = new LatencyHistogram();
+    private final LatencyHistogram execution = new LatencyHistogram();
+    private final LatencyHistogram mapping = new LatencyHistogram();
+
+    void record(QueryEvent event) {
+      count.increment();
+      if (event.isFailed()) {
+        failures.increment();
+      }
+      rows.add(event.getRows());
+      acquisition.record(event.getAcquisitionNanos());
+      execution.record(event.getExecutionNanos());
+      mapping.record(event.getMappingNanos());
+    }
+
+    QueryStatistics getStatistics(String fingerprint) {
+      return QueryStatistics.of(
+          fingerprint,
+          count.sum(),
+          failures.sum(),
+          rows.sum(),
+          acquisition.getStatistics(),
+          execution.getStatistics(),
+          mapping.getStatistics());
+    }
+  }
+
+  private static class QueryMetricsBean implements QueryMetricsMXBean {
+
+    @Override
+    public List<QueryStatistics> getQueryStatistics() {
+      return getStatistics();
+    }
+
+    @Override
+    public void reset() {
+      QueryMetrics.reset();
+    }
+  }
+}
@@ -0,0 +1,26 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.List;
+
+/**
+ * Management interface of the query metrics.
+ *
+ * @see QueryMetrics#registerMBean()
+ */
+public interface QueryMetricsMXBean {
+
+  /**
+   * Returns the statistics of all query fingerprints.
+   *
+   * @return the query statistics
+   */
+  List<QueryStatistics> getQueryStatistics();
+
+  /** Clear all statistics. */
+  void reset();
+}
@@ -0,0 +1,164 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the phases of a query running in the current thread.
+ *
+ * <p>All methods return immediately if {@link QueryMetrics} are disabled.
+ */
+final class QueryRecording {
+
+  /** Start time returned, if no query is recorded. */
+  static final long NOT_RECORDING = Long.MIN_VALUE;
+
+  private static final ThreadLocal<QueryRecording> current = new ThreadLocal<>();
+
+  private final QueryRecording previous;
+  private final String sql;
+  private final long started = System.nanoTime();
+
+  private long acquired;
+  private long mappingNanos;
+  private long rows;
+  private Map<Integer, String> parameters;
+
+  private QueryRecording(QueryRecording previous, String sql) {
+    this.previous = previous;
+    this.sql = sql;
+  }
+
+  /**
+   * Start recording a query in the current thread.
+   *
+   * @param sql the SQL statement of the query
+   * @return the recording or <code>null</code> if metrics are disabled
+   */
+  static QueryRecording start(String sql) {
+    if (!QueryMetrics.isEnabled()) {
+      return null;
+    }
+
+    QueryRecording recording = new QueryRecording(current.get(), sql);
+    current.set(recording);
+    return recording;
+  }
+
+  static void acquired(QueryRecording recording) {
+    if (recording != null) {
+      recording.acquired = System.nanoTime();
+    }
+  }
+
+  /**
+   * Finish recording a query and report it to the query metrics.
+   *
+   * @param recording the recording or <code>null</code> if metrics were disabled
+   * @param failed <code>true</code> if the query failed
+   */
+  static void finish(QueryRecording recording, boolean failed) {
+    if (recording == null) {
+      return;
+    }
+
+    if (recording.previous != null) {
+      current.set(recording.previous);
+    } else {
+      current.remove();
+    }
+    long finished = System.nanoTime();
+    long acquisitionNanos;
+    long executionNanos;
+    if (recording.acquired != 0) {
+      acquisitionNanos = recording.acquired - recording.started;
+      executionNanos = Math.max(0, finished - recording.acquired - recording.mappingNanos);
+    } else {
+      acquisitionNanos = finished - recording.started;
+      executionNanos = 0;
+    }
+    QueryMetrics.record(
+        QueryEvent.of(
+            recording.sql,
+            QueryMetrics.fingerprint(recording.sql),
+            acquisitionNanos,
+            executionNanos,
+            recording.mappingNanos,
+            recording.rows,
+            failed,
+            recording.getParameters()));
+  }
+
+  private List<String> getParameters() {
+    if (parameters == null) {
+      return Collections.emptyList();
+    }
+
+    List<String> types = new ArrayList<>();
+    parameters.forEach(
+        (index, type) -> {
+          while (types.size() < index - 1) {
+            types.add("null");
+          }
+          types.add(type);
+        });
+    return Collections.unmodifiableList(types);
+  }
+
+  /**
+   * Record the types of the parameters bound to a statement for the query running in the current
+   * thread. The values are not recorded.
+   *
+   * @param statement a prepared statement
+   * @return a statement recording the bound parameters or the given statement if no query is
+   *     recorded
+   */
+  static PreparedStatement recordParameters(PreparedStatement statement) {
+    QueryRecording recording = QueryMetrics.isEnabled() ? current.get() : null;
+    if (recording == null) {
+      return statement;
+    }
+
+    recording.parameters = new TreeMap<>();
+    return new ParameterRecordingStatement(statement, recording.parameters);
+  }
+
+  /**
+   * Start measuring the mapping of rows for the query running in the current thread.
+   *
+   * @return the start time or {@link #NOT_RECORDING}
+   */
+  static long startMapping() {
+    if (!QueryMetrics.isEnabled() || current.get() == null) {
+      return NOT_RECORDING;
+    }
+    return System.nanoTime();
+  }
+
+  /**
+   * Add mapped rows to the query running in the current thread.
+   *
+   * @param start the start time returned by {@link #startMapping()}
+   * @param rows the number of mapped rows
+   */
+  static void mapped(long start, long rows) {
+    if (start == NOT_RECORDING) {
+      return;
+    }
+
+    QueryRecording recording = current.get();
+    if (recording != null) {
+      recording.mappingNanos += System.nanoTime() - start;
+      recording.rows += rows;
+    }
+  }
+}
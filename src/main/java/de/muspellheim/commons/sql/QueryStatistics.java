@@ -0,0 +1,68 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Statistics of all queries with the same fingerprint.
+ *
+ * @see QueryMetrics#getStatistics()
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class QueryStatistics {
+
+  /**
+   * The SQL statement without literals and with normalized whitespace.
+   *
+   * @return the fingerprint
+   */
+  String fingerprint;
+
+  /**
+   * Number of finished queries.
+   *
+   * @return the count
+   */
+  long count;
+
+  /**
+   * Number of failed queries.
+   *
+   * @return the failures
+   */
+  long failures;
+
+  /**
+   * Number of mapped rows of all queries.
+   *
+   * @return the rows
+   */
+  long rows;
+
+  /**
+   * Latency to acquire a connection.
+   *
+   * @return the acquisition latency
+   */
+  LatencyStatistics acquisition;
+
+  /**
+   * Latency to execute a query and fetch rows.
+   *
+   * @return the execution latency
+   */
+  LatencyStatistics execution;
+
+  /**
+   * Latency to map rows.
+   *
+   * @return the mapping latency
+   */
+  LatencyStatistics mapping;
+}
@@ -0,0 +1,35 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Collect information for a connection to a read replica.
+ *
+ * <p>User, password, database and pool are the same as for the primary.
+ *
+ * @see DatabaseConfiguration#withReplicas(java.util.List)
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class ReplicaConfiguration {
+
+  /**
+   * Host ip or hostname.
+   *
+   * @return the host
+   */
+  String host;
+
+  /**
+   * Port.
+   *
+   * @return the port
+   */
+  int port;
+}
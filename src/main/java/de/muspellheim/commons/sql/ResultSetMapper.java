@@ -10,7 +10,18 @@ import java.beans.FeatureDescriptor;
 import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
+import java.io.InputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.sql.Blob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLDataException;
 import java.sql.SQLException;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -18,22 +29,46 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import lombok.NonNull;
 
 /**
  * Mapping a result set to an entity.
  *
  * <p>Use static methods to map individual columns or one of the sub classes {@link
- * ConstructorResultSetMapper} or {@link SetterResultSetMapper} to map a whole entity.
+ * ConstructorResultSetMapper} or {@link SetterResultSetMapper} to map a whole entity. The sub
+ * classes {@link CompiledConstructorResultSetMapper} and {@link CompiledSetterResultSetMapper} map
+ * a whole entity without reflection per row. A mapper is reusable and thread-safe, use {@link
+ * #forType(Class, Strategy)} to obtain a shared mapper for an entity type.
  *
  * <p>Column labels are mapped to property names by following convention: a column label with snake
  * case is mapped to a property name with camel case. For example the column label <code>
  * day_of_birth</code> is mapped to property name <code>dayOfBirth</code>.
  *
+ * <p>A list of entities is mapped with a row mapper, which is created from the result set meta data
+ * once for each list. The row mapper reads the columns by index and assigns them to the properties
+ * without looking up the column labels for every row. Row mappers are cached by the column labels
+ * of the result set, so mapping the same query again does not need to create a new row mapper. A
+ * mapper caches up to 32 row mappers and evicts the least recently used one.
+ *
+ * <p>A large result set can be mapped as stream with {@link #mapStream(PreparedStatement, int)}, so
+ * the rows are fetched and mapped on demand and only a batch of rows is hold in memory.
+ *
+ * <p>A column of numbers can be mapped without boxing to a vector or an array of primitive values,
+ * for example with {@link #mapLongVector(ResultSet)} or {@link #mapLongArray(ResultSet, long)}. All
+ * columns of a result set can be mapped column by column with {@link #mapColumns(ResultSet)}.
+ *
  * <p>Default registered column mappers exists for:
  *
  * <ul>
@@ -46,19 +81,54 @@ import java.util.stream.Collectors;
  *   <li><code>Float</code>/<code>float</code>
  *   <li><code>Boolean</code>/<code>boolean</code>
  *   <li><code>byte[]</code>
+ *   <li><code>InputStream</code>/<code>ReadableByteChannel</code>
  *   <li><code>LocalDate</code>
  *   <li><code>LocalTime</code>
  *   <li><code>LocalDateTime</code>
  *   <li><code>Instant</code>
+ *   <li><code>int[]</code>, <code>long[]</code>, <code>double[]</code>, <code>float[]</code> and
+ *       <code>String[]</code> for one-dimensional Postgres arrays
  * </ul>
  *
+ * <p>Postgres arrays are decoded from the received bytes into primitive arrays without boxing the
+ * elements, in binary format if the driver uses binary transfer and in text format otherwise.
+ * Result sets of other drivers are read with <code>getArray</code>. A <code>NULL</code> element is
+ * mapped to the default value of the element type.
+ *
+ * <p>A binary column mapped to <code>byte[]</code> is rejected if it is longer than {@link
+ * #getMaxBytesLength()}. Large binary values should be mapped to an <code>InputStream</code> or a
+ * <code>ReadableByteChannel</code> instead. A large object column of type <code>oid</code> is
+ * streamed from the database in chunks, so it is never hold in memory as a whole, but the stream is
+ * only readable until the transaction ends. Mappers resolve once per column if a column is a large
+ * object. A <code>bytea</code> column is always received as a whole by the driver, so prefer large
+ * objects for values of several megabytes.
+ *
  * @param <T> the entity type.
  * @see ConstructorResultSetMapper
  * @see SetterResultSetMapper
+ * @see CompiledConstructorResultSetMapper
+ * @see CompiledSetterResultSetMapper
  */
 public abstract class ResultSetMapper<T> {
 
   private static final Map<Class<?>, ColumnMapper<?>> mappings = new HashMap<>();
+  private static final Map<Class<?>, MethodHandle> indexReaders = new HashMap<>();
+  private static final Map<Class<?>, MethodHandle> largeObjectReaders = new HashMap<>();
+  private static final MethodHandle columnMapperMap;
+
+  private static final int MAX_ROW_MAPPERS = 32;
+  private static final int MAX_MAPPERS = 256;
+
+  private static final LruCache<List<Object>, ResultSetMapper<?>> mappers =
+      new LruCache<>(MAX_MAPPERS);
+  private static final LongAdder mapperHits = new LongAdder();
+  private static final LongAdder mapperMisses = new LongAdder();
+  private static final AtomicInteger registrations = new AtomicInteger();
+
+  /** Default maximum length of a binary value mapped to <code>byte[]</code>, 16 MiB. */
+  public static final int DEFAULT_MAX_BYTES_LENGTH = 16 * 1024 * 1024;
+
+  private static volatile int maxBytesLength = DEFAULT_MAX_BYTES_LENGTH;
 
   static {
     registerMapping(String.class, ResultSet::getString);
@@ -80,7 +150,11 @@ public abstract class ResultSetMapper<T> {
     registerMapping(Boolean.class, ResultSetMapper::getBoolean);
     registerMapping(boolean.class, ResultSetMapper::getBoolean);
 
-    registerMapping(byte[].class, ResultSet::getBytes);
+    registerMapping(byte[].class, ResultSetMapper::getBytes);
+    registerMapping(InputStream.class, ResultSetMapper::getBinaryStream);
+    registerMapping(
+        ReadableByteChannel.class,
+        (resultSet, columnLabel) -> toChannel(getBinaryStream(resultSet, columnLabel)));
 
     registerMapping(
         LocalDate.class,
@@ -93,11 +167,93 @@ public abstract class ResultSetMapper<T> {
         (resultSet, columnLabel) -> resultSet.getObject(columnLabel, LocalDateTime.class));
     registerMapping(
         Instant.class, (resultSet, columnLabel) -> resultSet.getObject(columnLabel, Instant.class));
+
+    registerMapping(
+        int[].class,
+        (resultSet, columnLabel) ->
+            PostgresArrays.getIntArray(resultSet, resultSet.findColumn(columnLabel)));
+    registerMapping(
+        long[].class,
+        (resultSet, columnLabel) ->
+            PostgresArrays.getLongArray(resultSet, resultSet.findColumn(columnLabel)));
+    registerMapping(
+        double[].class,
+        (resultSet, columnLabel) ->
+            PostgresArrays.getDoubleArray(resultSet, resultSet.findColumn(columnLabel)));
+    registerMapping(
+        float[].class,
+        (resultSet, columnLabel) ->
+            PostgresArrays.getFloatArray(resultSet, resultSet.findColumn(columnLabel)));
+    registerMapping(
+        String[].class,
+        (resultSet, columnLabel) ->
+            PostgresArrays.getStringArray(resultSet, resultSet.findColumn(columnLabel)));
+
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      columnMapperMap =
+          lookup.findVirtual(
+              ColumnMapper.class,
+              "map",
+              MethodType.methodType(Object.class, ResultSet.class, String.class));
+
+      registerIndexReader(String.class, resultSetGetter(lookup, "getString", String.class));
+
+      registerIndexReader(Long.class, mapperGetter(lookup, "getLong", Long.class));
+      registerIndexReader(long.class, resultSetGetter(lookup, "getLong", long.class));
+      registerIndexReader(Integer.class, mapperGetter(lookup, "getInteger", Integer.class));
+      registerIndexReader(int.class, resultSetGetter(lookup, "getInt", int.class));
+      registerIndexReader(Short.class, mapperGetter(lookup, "getShort", Short.class));
+      registerIndexReader(short.class, resultSetGetter(lookup, "getShort", short.class));
+      registerIndexReader(Byte.class, mapperGetter(lookup, "getByte", Byte.class));
+      registerIndexReader(byte.class, resultSetGetter(lookup, "getByte", byte.class));
+
+      registerIndexReader(Double.class, mapperGetter(lookup, "getDouble", Double.class));
+      registerIndexReader(double.class, resultSetGetter(lookup, "getDouble", double.class));
+      registerIndexReader(Float.class, mapperGetter(lookup, "getFloat", Float.class));
+      registerIndexReader(float.class, resultSetGetter(lookup, "getFloat", float.class));
+
+      registerIndexReader(Boolean.class, mapperGetter(lookup, "getBoolean", Boolean.class));
+      registerIndexReader(boolean.class, resultSetGetter(lookup, "getBoolean", boolean.class));
+
+      registerIndexReader(byte[].class, mapperGetter(lookup, "getBytes", byte[].class));
+      MethodHandle toChannel =
+          lookup.findStatic(
+              ResultSetMapper.class,
+              "toChannel",
+              MethodType.methodType(ReadableByteChannel.class, InputStream.class));
+      MethodHandle binaryStream = resultSetGetter(lookup, "getBinaryStream", InputStream.class);
+      registerIndexReader(InputStream.class, binaryStream);
+      registerIndexReader(
+          ReadableByteChannel.class, MethodHandles.filterReturnValue(binaryStream, toChannel));
+      MethodHandle largeObjectStream =
+          mapperGetter(lookup, "getLargeObjectStream", InputStream.class);
+      largeObjectReaders.put(InputStream.class, largeObjectStream);
+      largeObjectReaders.put(
+          ReadableByteChannel.class, MethodHandles.filterReturnValue(largeObjectStream, toChannel));
+
+      registerIndexReader(LocalDate.class, objectGetter(lookup, LocalDate.class));
+      registerIndexReader(LocalTime.class, objectGetter(lookup, LocalTime.class));
+      registerIndexReader(LocalDateTime.class, objectGetter(lookup, LocalDateTime.class));
+      registerIndexReader(Instant.class, objectGetter(lookup, Instant.class));
+
+      registerIndexReader(int[].class, arrayGetter(lookup, "getIntArray", int[].class));
+      registerIndexReader(long[].class, arrayGetter(lookup, "getLongArray", long[].class));
+      registerIndexReader(double[].class, arrayGetter(lookup, "getDoubleArray", double[].class));
+      registerIndexReader(float[].class, arrayGetter(lookup, "getFloatArray", float[].class));
+      registerIndexReader(String[].class, arrayGetter(lookup, "getStringArray", String[].class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      throw new ExceptionInInitializerError(e);
+    }
   }
 
   private final Class<T> type;
   private final Map<String, String> mappedColumns;
-  private final Map<String, ColumnMapper<?>> typeMappings;
+  private final Map<String, Class<?>> mappedTypes;
+  private final LruCache<List<String>, RowMapper<T>> rowMappers = new LruCache<>(MAX_ROW_MAPPERS);
+
+  private volatile Map<String, ColumnMapper<?>> typeMappings;
+  private volatile int resolvedRegistrations = registrations.get();
 
   /**
    * Create a mapper.
@@ -105,9 +261,78 @@ public abstract class ResultSetMapper<T> {
    * @param type the mapped entity type
    */
   public ResultSetMapper(Class<T> type) {
+    this(type, true);
+  }
+
+  /**
+   * Create a mapper with or without introspection of the entity type.
+   *
+   * <p>A mapper without introspection can not resolve properties by column label, so it must
+   * implement {@link #map(ResultSet)} and {@link #createRowMapper(ResultSetMetaData)} without
+   * {@link #propertyNameFor(String)}, {@link #propertyTypeFor(String)} and {@link
+   * #mapColumn(ResultSet, String)}. Mappers generated at compile time do not need introspection.
+   *
+   * @param type the mapped entity type
+   * @param introspect introspect the properties of the entity type
+   * @see GenerateResultSetMapper
+   */
+  protected ResultSetMapper(Class<T> type, boolean introspect) {
     this.type = type;
-    mappedColumns = createMappedColumns();
-    typeMappings = createMappings();
+    if (introspect) {
+      PropertyDescriptor[] properties =
+          Arrays.stream(getBeanInfo().getPropertyDescriptors())
+              .filter(p -> !p.getName().equals("class"))
+              .toArray(PropertyDescriptor[]::new);
+      mappedColumns = createMappedColumns(properties);
+      mappedTypes = createMappedTypes(properties);
+      typeMappings = createMappings(mappedTypes);
+    } else {
+      mappedColumns = Collections.emptyMap();
+      mappedTypes = Collections.emptyMap();
+      typeMappings = Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Obtains the shared mapper for an entity type and strategy.
+   *
+   * <p>The mapper is created once for each combination of entity type and strategy and reused by
+   * all following calls, so the entity type is introspected only once. Concurrent first calls
+   * create only one mapper. Up to 256 mappers are shared, the least recently used one is evicted.
+   *
+   * @param type the mapped entity type
+   * @param strategy the mapping strategy
+   * @param <T> the mapped entity type
+   * @return the shared mapper
+   * @see #getMapperCacheStatistics()
+   */
+  @SuppressWarnings("unchecked")
+  public static <T> ResultSetMapper<T> forType(@NonNull Class<T> type, @NonNull Strategy strategy) {
+    List<Object> key = Arrays.asList(type, strategy);
+    ResultSetMapper<?> mapper = mappers.get(key);
+    if (mapper != null) {
+      mapperHits.increment();
+      return (ResultSetMapper<T>) mapper;
+    }
+
+    return (ResultSetMapper<T>)
+        mappers.computeIfAbsent(
+            key,
+            k -> {
+              mapperMisses.increment();
+              return strategy.factory.apply(type);
+            });
+  }
+
+  /**
+   * Returns the statistics of the shared mappers.
+   *
+   * @return the current statistics
+   * @see #forType(Class, Strategy)
+   */
+  public static MapperCacheStatistics getMapperCacheStatistics() {
+    return MapperCacheStatistics.of(
+        mapperHits.sum(), mapperMisses.sum(), mappers.getEvictions(), mappers.size());
   }
 
   /**
@@ -137,12 +362,53 @@ public abstract class ResultSetMapper<T> {
   /**
    * Register a new column mapper or replace a exists one.
    *
+   * <p>The shared mappers and the cached row mappers are discarded, so the new column mapper is
+   * used for all following result sets.
+   *
    * @param type the mapped property type
    * @param columnMapper the column mapper
    * @param <T> the mapped property type
    */
   public static <T> void registerMapping(Class<T> type, ColumnMapper<T> columnMapper) {
     mappings.put(type, columnMapper);
+    indexReaders.remove(type);
+    registrations.incrementAndGet();
+    mappers.clear();
+  }
+
+  private static void registerIndexReader(Class<?> type, MethodHandle reader) {
+    indexReaders.put(type, reader);
+  }
+
+  private static MethodHandle resultSetGetter(
+      MethodHandles.Lookup lookup, String getterName, Class<?> type)
+      throws NoSuchMethodException, IllegalAccessException {
+    return lookup.findVirtual(ResultSet.class, getterName, MethodType.methodType(type, int.class));
+  }
+
+  private static MethodHandle mapperGetter(
+      MethodHandles.Lookup lookup, String getterName, Class<?> type)
+      throws NoSuchMethodException, IllegalAccessException {
+    return lookup.findStatic(
+        ResultSetMapper.class, getterName, MethodType.methodType(type, ResultSet.class, int.class));
+  }
+
+  private static MethodHandle objectGetter(MethodHandles.Lookup lookup, Class<?> type)
+      throws NoSuchMethodException, IllegalAccessException {
+    MethodHandle getter =
+        lookup.findVirtual(
+            ResultSet.class,
+            "getObject",
+            MethodType.methodType(Object.class, int.class, Class.class));
+    getter = MethodHandles.insertArguments(getter, 2, type);
+    return getter.asType(MethodType.methodType(type, ResultSet.class, int.class));
+  }
+
+  private static MethodHandle arrayGetter(
+      MethodHandles.Lookup lookup, String getterName, Class<?> type)
+      throws NoSuchMethodException, IllegalAccessException {
+    return lookup.findStatic(
+        PostgresArrays.class, getterName, MethodType.methodType(type, ResultSet.class, int.class));
   }
 
   /**
@@ -170,16 +436,291 @@ public abstract class ResultSetMapper<T> {
    * @throws SQLException if an error occurred
    */
   public static <T> List<T> mapValueList(ResultSet resultSet, Class<T> type) throws SQLException {
-    ColumnMapper<T> columnMapper = getColumnMapper(type);
-    String columnLabel = resultSet.getMetaData().getColumnLabel(1);
+    RowMapper<T> valueMapper = valueMapper(type, resultSet.getMetaData(), 1);
+    long start = QueryRecording.startMapping();
     List<T> values = new ArrayList<>();
     while (resultSet.next()) {
-      T e = columnMapper.map(resultSet, columnLabel);
+      T e = valueMapper.map(resultSet);
       values.add(e);
     }
+    QueryRecording.mapped(start, values.size());
+    return values;
+  }
+
+  /**
+   * Map a result set to a stream of values.
+   *
+   * <p>The values are mapped on demand. Closing the stream closes the result set.
+   *
+   * @param resultSet a result set
+   * @param type the mapped value class
+   * @param <T> the mapped value type
+   * @return the mapped value stream
+   * @throws SQLException if an error occurred
+   * @see UncheckedSqlException
+   */
+  public static <T> Stream<T> mapValueStream(ResultSet resultSet, Class<T> type)
+      throws SQLException {
+    RowMapper<T> valueMapper = valueMapper(type, resultSet.getMetaData(), 1);
+    return stream(resultSet, valueMapper);
+  }
+
+  /**
+   * Map the first column of a result set to a vector of <code>long</code> values.
+   *
+   * <p>The values are read by column index without boxing. A <code>NULL</code> is marked in the
+   * null bitmap of the vector.
+   *
+   * @param resultSet a result set
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   */
+  public static LongVector mapLongVector(ResultSet resultSet) throws SQLException {
+    LongVector values = new LongVector();
+    while (resultSet.next()) {
+      long v = resultSet.getLong(1);
+      if (resultSet.wasNull()) {
+        values.addNull();
+      } else {
+        values.add(v);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Map the first column of a result set to an array of <code>long</code> values.
+   *
+   * @param resultSet a result set
+   * @param nullValue the sentinel for a <code>NULL</code>
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   * @see #mapLongVector(ResultSet)
+   */
+  public static long[] mapLongArray(ResultSet resultSet, long nullValue) throws SQLException {
+    return mapLongVector(resultSet).toArray(nullValue);
+  }
+
+  /**
+   * Map the first column of a result set to a vector of <code>int</code> values.
+   *
+   * <p>The values are read by column index without boxing. A <code>NULL</code> is marked in the
+   * null bitmap of the vector.
+   *
+   * @param resultSet a result set
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   */
+  public static IntVector mapIntVector(ResultSet resultSet) throws SQLException {
+    IntVector values = new IntVector();
+    while (resultSet.next()) {
+      int v = resultSet.getInt(1);
+      if (resultSet.wasNull()) {
+        values.addNull();
+      } else {
+        values.add(v);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Map the first column of a result set to an array of <code>int</code> values.
+   *
+   * @param resultSet a result set
+   * @param nullValue the sentinel for a <code>NULL</code>
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   * @see #mapIntVector(ResultSet)
+   */
+  public static int[] mapIntArray(ResultSet resultSet, int nullValue) throws SQLException {
+    return mapIntVector(resultSet).toArray(nullValue);
+  }
+
+  /**
+   * Map the first column of a result set to a vector of <code>double</code> values.
+   *
+   * <p>The values are read by column index without boxing. A <code>NULL</code> is marked in the
+   * null bitmap of the vector.
+   *
+   * @param resultSet a result set
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   */
+  public static DoubleVector mapDoubleVector(ResultSet resultSet) throws SQLException {
+    DoubleVector values = new DoubleVector();
+    while (resultSet.next()) {
+      double v = resultSet.getDouble(1);
+      if (resultSet.wasNull()) {
+        values.addNull();
+      } else {
+        values.add(v);
+      }
+    }
     return values;
   }
 
+  /**
+   * Map the first column of a result set to an array of <code>double</code> values.
+   *
+   * @param resultSet a result set
+   * @param nullValue the sentinel for a <code>NULL</code>
+   * @return the mapped values
+   * @throws SQLException if an error occurred
+   * @see #mapDoubleVector(ResultSet)
+   */
+  public static double[] mapDoubleArray(ResultSet resultSet, double nullValue) throws SQLException {
+    return mapDoubleVector(resultSet).toArray(nullValue);
+  }
+
+  /**
+   * Map all columns of a result set to column vectors.
+   *
+   * <p>The vector type of a column is derived from its SQL type.
+   *
+   * @param resultSet a result set
+   * @return the mapped columns
+   * @throws SQLException if an error occurred
+   * @see ColumnarResult
+   */
+  public static ColumnarResult mapColumns(ResultSet resultSet) throws SQLException {
+    return ColumnarResult.read(resultSet, Collections.emptyMap());
+  }
+
+  /**
+   * Map all columns of a result set to column vectors with explicit column types.
+   *
+   * <p>A column type of <code>long</code>, <code>int</code>, <code>double</code> or <code>boolean
+   * </code> is mapped to a primitive vector, <code>String</code> to a dictionary encoded vector and
+   * all other types with the registered column mappers. Columns without an explicit type are
+   * derived from their SQL type.
+   *
+   * @param resultSet a result set
+   * @param columnTypes the column types by column label
+   * @return the mapped columns
+   * @throws SQLException if an error occurred
+   * @see ColumnarResult
+   */
+  public static ColumnarResult mapColumns(ResultSet resultSet, Map<String, Class<?>> columnTypes)
+      throws SQLException {
+    return ColumnarResult.read(resultSet, columnTypes);
+  }
+
+  /**
+   * The maximum length of a binary value mapped to <code>byte[]</code>.
+   *
+   * @return the maximum length in bytes
+   */
+  public static int getMaxBytesLength() {
+    return maxBytesLength;
+  }
+
+  /**
+   * Sets the maximum length of a binary value mapped to <code>byte[]</code>.
+   *
+   * <p>A longer value is rejected with a {@link SQLDataException}, so an unexpectedly large value
+   * fails fast instead of being copied through the application. This is a sanity check after the
+   * driver received the value, it does not limit what the driver reads from the database. To reject
+   * a large value before it is transferred, select its <code>octet_length</code> first or store it
+   * as large object. Defaults to {@link #DEFAULT_MAX_BYTES_LENGTH}.
+   *
+   * @param maxBytesLength the maximum length in bytes
+   * @throws IllegalArgumentException if the maximum length is negative
+   */
+  public static void setMaxBytesLength(int maxBytesLength) {
+    if (maxBytesLength < 0) {
+      throw new IllegalArgumentException("Maximum length must not be negative: " + maxBytesLength);
+    }
+
+    ResultSetMapper.maxBytesLength = maxBytesLength;
+  }
+
+  /**
+   * Return the binary value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnLabel a column label
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   * @throws SQLDataException if the value is longer than {@link #getMaxBytesLength()}
+   */
+  public static byte[] getBytes(ResultSet resultSet, String columnLabel) throws SQLException {
+    return checkLength(resultSet.getBytes(columnLabel), columnLabel);
+  }
+
+  /**
+   * Return the binary value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   * @throws SQLDataException if the value is longer than {@link #getMaxBytesLength()}
+   */
+  public static byte[] getBytes(ResultSet resultSet, int columnIndex) throws SQLException {
+    return checkLength(resultSet.getBytes(columnIndex), "column " + columnIndex);
+  }
+
+  private static byte[] checkLength(byte[] value, String column) throws SQLDataException {
+    int max = maxBytesLength;
+    if (value != null && value.length > max) {
+      throw new SQLDataException(
+          "Binary value of " + column + " exceeds maximum length " + max + ": " + value.length);
+    }
+    return value;
+  }
+
+  /**
+   * Return the binary value of a column as stream or <code>null</code>.
+   *
+   * <p>A large object column of type <code>oid</code> is read in chunks, so the stream must be read
+   * before the transaction ends.
+   *
+   * @param resultSet a result set
+   * @param columnLabel a column label
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static InputStream getBinaryStream(ResultSet resultSet, String columnLabel)
+      throws SQLException {
+    return getBinaryStream(resultSet, resultSet.findColumn(columnLabel));
+  }
+
+  /**
+   * Return the binary value of a column as stream or <code>null</code>.
+   *
+   * <p>A large object column of type <code>oid</code> is read in chunks, so the stream must be read
+   * before the transaction ends. The column type is looked up on every call, a mapper looks it up
+   * once per column.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static InputStream getBinaryStream(ResultSet resultSet, int columnIndex)
+      throws SQLException {
+    if (isLargeObject(resultSet.getMetaData(), columnIndex)) {
+      return getLargeObjectStream(resultSet, columnIndex);
+    }
+    return resultSet.getBinaryStream(columnIndex);
+  }
+
+  private static boolean isLargeObject(ResultSetMetaData metaData, int columnIndex)
+      throws SQLException {
+    return "oid".equals(metaData.getColumnTypeName(columnIndex));
+  }
+
+  private static InputStream getLargeObjectStream(ResultSet resultSet, int columnIndex)
+      throws SQLException {
+    Blob blob = resultSet.getBlob(columnIndex);
+    return blob != null ? blob.getBinaryStream() : null;
+  }
+
+  private static ReadableByteChannel toChannel(InputStream stream) {
+    return stream != null ? Channels.newChannel(stream) : null;
+  }
+
   /**
    * Return the double value of a column or <code>null</code>.
    *
@@ -196,6 +737,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the double value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Double getDouble(ResultSet resultSet, int columnIndex) throws SQLException {
+    double v = resultSet.getDouble(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the float value of a column or <code>null</code>.
    *
@@ -212,6 +769,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the float value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Float getFloat(ResultSet resultSet, int columnIndex) throws SQLException {
+    float v = resultSet.getFloat(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the long value of a column or <code>null</code>.
    *
@@ -228,6 +801,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the long value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Long getLong(ResultSet resultSet, int columnIndex) throws SQLException {
+    long v = resultSet.getLong(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the integer value of a column or <code>null</code>.
    *
@@ -244,6 +833,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the integer value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Integer getInteger(ResultSet resultSet, int columnIndex) throws SQLException {
+    int v = resultSet.getInt(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the short value of a column or <code>null</code>.
    *
@@ -260,6 +865,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the short value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Short getShort(ResultSet resultSet, int columnIndex) throws SQLException {
+    short v = resultSet.getShort(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the byte value of a column or <code>null</code>.
    *
@@ -276,6 +897,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the byte value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Byte getByte(ResultSet resultSet, int columnIndex) throws SQLException {
+    byte v = resultSet.getByte(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Return the boolean value of a column or <code>null</code>.
    *
@@ -292,6 +929,22 @@ public abstract class ResultSetMapper<T> {
     return v;
   }
 
+  /**
+   * Return the boolean value of a column or <code>null</code>.
+   *
+   * @param resultSet a result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the value of given column or <code>null</code>
+   * @throws SQLException if an error occurred
+   */
+  public static Boolean getBoolean(ResultSet resultSet, int columnIndex) throws SQLException {
+    boolean v = resultSet.getBoolean(columnIndex);
+    if (resultSet.wasNull()) {
+      return null;
+    }
+    return v;
+  }
+
   /**
    * Map a result set to a list of entities.
    *
@@ -300,14 +953,107 @@ public abstract class ResultSetMapper<T> {
    * @throws SQLException if an error occurred
    */
   public List<T> mapList(ResultSet resultSet) throws SQLException {
+    RowMapper<T> rowMapper = rowMapperFor(resultSet.getMetaData());
+    long start = QueryRecording.startMapping();
     List<T> list = new ArrayList<>();
     while (resultSet.next()) {
-      T v = map(resultSet);
+      T v = rowMapper.map(resultSet);
       list.add(v);
     }
+    QueryRecording.mapped(start, list.size());
     return list;
   }
 
+  /**
+   * Map a result set to a stream of entities.
+   *
+   * <p>The entities are mapped on demand while the stream is consumed, so the stream must be
+   * consumed before the connection is closed. Closing the stream closes the result set. A SQL
+   * exception while consuming the stream is thrown as {@link UncheckedSqlException}.
+   *
+   * @param resultSet a result set
+   * @return the mapped entity stream
+   * @throws SQLException if an error occurred
+   */
+  public Stream<T> mapStream(ResultSet resultSet) throws SQLException {
+    RowMapper<T> rowMapper = rowMapperFor(resultSet.getMetaData());
+    return stream(resultSet, rowMapper);
+  }
+
+  /**
+   * Execute a query and map the result set to a stream of entities using a cursor.
+   *
+   * <p>The rows are fetched in batches of the fetch size, so only one batch is hold in memory
+   * regardless of the size of the result. A cursor requires for PostgreSQL that auto commit is
+   * disabled, so auto commit is disabled while the stream is open. Closing the stream closes the
+   * result set and the statement, and restores auto commit.
+   *
+   * @param statement a prepared query statement
+   * @param fetchSize the number of rows fetched at once
+   * @return the mapped entity stream
+   * @throws SQLException if an error occurred
+   * @see #mapStream(ResultSet)
+   */
+  public Stream<T> mapStream(PreparedStatement statement, int fetchSize) throws SQLException {
+    Connection connection = statement.getConnection();
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try {
+      statement.setFetchSize(fetchSize);
+      ResultSet resultSet = statement.executeQuery();
+      return mapStream(resultSet)
+          .onClose(() -> close(statement))
+          .onClose(() -> restoreAutoCommit(connection, autoCommit));
+    } catch (SQLException | RuntimeException e) {
+      connection.setAutoCommit(autoCommit);
+      throw e;
+    }
+  }
+
+  /**
+   * Map a result set entity by entity.
+   *
+   * <p>Every entity is passed to the action after mapping, so no list is hold in memory.
+   *
+   * @param resultSet a result set
+   * @param action the action consuming every entity
+   * @throws SQLException if an error occurred
+   */
+  public void forEach(ResultSet resultSet, Consumer<? super T> action) throws SQLException {
+    RowMapper<T> rowMapper = rowMapperFor(resultSet.getMetaData());
+    long start = QueryRecording.startMapping();
+    long rows = 0;
+    while (resultSet.next()) {
+      T v = rowMapper.map(resultSet);
+      action.accept(v);
+      rows++;
+    }
+    QueryRecording.mapped(start, rows);
+  }
+
+  private static <T> Stream<T> stream(ResultSet resultSet, RowMapper<T> rowMapper) {
+    ResultSetSpliterator<T> spliterator = new ResultSetSpliterator<>(resultSet, rowMapper);
+    return StreamSupport.stream(spliterator, false).onClose(() -> close(resultSet));
+  }
+
+  private static void close(AutoCloseable resource) {
+    try {
+      resource.close();
+    } catch (SQLException e) {
+      throw new UncheckedSqlException("Can not close " + resource, e);
+    } catch (Exception e) {
+      throw new IllegalStateException("Can not close " + resource, e);
+    }
+  }
+
+  private static void restoreAutoCommit(Connection connection, boolean autoCommit) {
+    try {
+      connection.setAutoCommit(autoCommit);
+    } catch (SQLException e) {
+      throw new UncheckedSqlException("Can not restore auto commit", e);
+    }
+  }
+
   /**
    * Map a result set to an entity.
    *
@@ -317,6 +1063,47 @@ public abstract class ResultSetMapper<T> {
    */
   public abstract T map(ResultSet resultSet) throws SQLException;
 
+  /**
+   * Obtains the row mapper for result sets with given meta data.
+   *
+   * <p>The row mapper is created once for each combination of column labels and reused for all
+   * following result sets with the same column labels.
+   *
+   * @param metaData the meta data of a result set
+   * @return the row mapper
+   * @throws SQLException if an error occurred
+   * @see #createRowMapper(ResultSetMetaData)
+   */
+  protected RowMapper<T> rowMapperFor(ResultSetMetaData metaData) throws SQLException {
+    List<String> columnLabels = new ArrayList<>();
+    int columnCount = metaData.getColumnCount();
+    for (int i = 1; i <= columnCount; i++) {
+      columnLabels.add(metaData.getColumnLabel(i));
+    }
+
+    checkRegistrations();
+    RowMapper<T> rowMapper = rowMappers.get(columnLabels);
+    if (rowMapper == null) {
+      rowMapper = createRowMapper(metaData);
+      rowMappers.put(columnLabels, rowMapper);
+    }
+    return rowMapper;
+  }
+
+  /**
+   * Create a row mapper for result sets with given meta data.
+   *
+   * <p>Sub classes should resolve the columns once and return a row mapper, which reads the columns
+   * by index. The default implementation maps every row with {@link #map(ResultSet)}.
+   *
+   * @param metaData the meta data of a result set
+   * @return the row mapper
+   * @throws SQLException if an error occurred
+   */
+  protected RowMapper<T> createRowMapper(ResultSetMetaData metaData) throws SQLException {
+    return this::map;
+  }
+
   /**
    * Obtains the mapper for a given type.
    *
@@ -333,6 +1120,96 @@ public abstract class ResultSetMapper<T> {
     return columnMapper;
   }
 
+  /**
+   * Obtains a method handle reading a column as given type.
+   *
+   * <p>The returned method handle has the type <code>(ResultSet)type</code>. Default registered
+   * types are read by column index with the typed getter of the result set, as long as no custom
+   * column mapper is registered for them. So a <code>NULL</code> is read as default value of a
+   * primitive type. All other types are read by column label with the registered column mapper.
+   * Whether a binary column is a large object is resolved from the meta data here, not per row.
+   *
+   * @param type the type to read
+   * @param metaData the meta data of the result set
+   * @param columnIndex a column index, the first column is 1
+   * @return the method handle reading the column
+   * @throws SQLException if the meta data can not be read
+   * @see #registerMapping(Class, ColumnMapper)
+   */
+  protected static MethodHandle columnReader(
+      Class<?> type, ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    MethodHandle reader = indexReaders.get(type);
+    if (reader != null) {
+      if (largeObjectReaders.containsKey(type) && isLargeObject(metaData, columnIndex)) {
+        reader = largeObjectReaders.get(type);
+      }
+      return MethodHandles.insertArguments(reader, 1, columnIndex);
+    }
+
+    reader = columnMapperMap.bindTo(getColumnMapper(type));
+    reader = MethodHandles.insertArguments(reader, 1, metaData.getColumnLabel(columnIndex));
+    return reader.asType(MethodType.methodType(type, ResultSet.class));
+  }
+
+  /**
+   * Obtains a row mapper reading a column as given type.
+   *
+   * @param type the class to read
+   * @param metaData the meta data of the result set
+   * @param columnIndex a column index, the first column is 1
+   * @param <V> the type to read
+   * @return the row mapper reading the column
+   * @throws SQLException if the meta data can not be read
+   * @see #columnReader(Class, ResultSetMetaData, int)
+   */
+  @SuppressWarnings("unchecked")
+  protected static <V> RowMapper<V> valueMapper(
+      Class<V> type, ResultSetMetaData metaData, int columnIndex) throws SQLException {
+    String columnLabel = metaData.getColumnLabel(columnIndex);
+    MethodHandle reader =
+        columnReader(type, metaData, columnIndex)
+            .asType(MethodType.methodType(Object.class, ResultSet.class));
+    return resultSet -> {
+      try {
+        return (V) reader.invokeExact(resultSet);
+      } catch (SQLException | RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException("Can not read column: " + columnLabel, e);
+      }
+    };
+  }
+
+  /**
+   * Resolve the column indexes of mapped properties in a result set.
+   *
+   * @param metaData the meta data of a result set
+   * @param columnLabels the column labels of all mapped properties
+   * @return for every given column label the column index or 0 if the result set does not contain
+   *     the column
+   * @throws SQLException if an error occurred
+   * @throws IllegalStateException if the result set contains a column without mapped property
+   */
+  protected static int[] columnIndexes(ResultSetMetaData metaData, String... columnLabels)
+      throws SQLException {
+    Map<String, Integer> properties = new HashMap<>();
+    for (int i = 0; i < columnLabels.length; i++) {
+      properties.put(columnLabels[i], i);
+    }
+
+    int[] columnIndexes = new int[columnLabels.length];
+    int columnCount = metaData.getColumnCount();
+    for (int i = 1; i <= columnCount; i++) {
+      String columnLabel = metaData.getColumnLabel(i);
+      Integer property = properties.get(columnLabel);
+      if (property == null) {
+        throw new IllegalStateException("no mapped property found for column: " + columnLabel);
+      }
+      columnIndexes[property] = i;
+    }
+    return columnIndexes;
+  }
+
   /**
    * Get the property name for a column label.
    *
@@ -343,6 +1220,16 @@ public abstract class ResultSetMapper<T> {
     return mappedColumns.get(columnLabel);
   }
 
+  /**
+   * Get the property type for a column label.
+   *
+   * @param columnLabel a column label
+   * @return the associated property type
+   */
+  protected Class<?> propertyTypeFor(String columnLabel) {
+    return mappedTypes.get(columnLabel);
+  }
+
   /**
    * Use known column mapper to get a column value.
    *
@@ -353,26 +1240,46 @@ public abstract class ResultSetMapper<T> {
    * @see #registerMapping(Class, ColumnMapper)
    */
   protected Object mapColumn(ResultSet resultSet, String columnLabel) throws SQLException {
+    checkRegistrations();
     ColumnMapper<?> mapper = typeMappings.get(columnLabel);
     return mapper.map(resultSet, columnLabel);
   }
 
-  private Map<String, String> createMappedColumns() {
-    BeanInfo beanInfo = getBeanInfo();
-    return Arrays.stream(beanInfo.getPropertyDescriptors())
-        .filter(p -> !p.getName().equals("class"))
-        .collect(Collectors.toMap(ResultSetMapper::columnLabel, FeatureDescriptor::getName));
+  private static Map<String, String> createMappedColumns(PropertyDescriptor[] properties) {
+    return Arrays.stream(properties)
+        .collect(Collectors.toMap(p -> columnLabel(p.getName()), FeatureDescriptor::getName));
+  }
+
+  private static Map<String, Class<?>> createMappedTypes(PropertyDescriptor[] properties) {
+    return Arrays.stream(properties)
+        .collect(
+            Collectors.toMap(p -> columnLabel(p.getName()), PropertyDescriptor::getPropertyType));
   }
 
-  private Map<String, ColumnMapper<?>> createMappings() {
-    BeanInfo beanInfo = getBeanInfo();
-    return Arrays.stream(beanInfo.getPropertyDescriptors())
-        .filter(p -> !p.getName().equals("class"))
-        .collect(Collectors.toMap(ResultSetMapper::columnLabel, ResultSetMapper::columnMapper));
+  private static Map<String, ColumnMapper<?>> createMappings(Map<String, Class<?>> types) {
+    Map<String, ColumnMapper<?>> typeMappings = new HashMap<>();
+    types.forEach((columnLabel, type) -> typeMappings.put(columnLabel, getColumnMapper(type)));
+    return typeMappings;
   }
 
-  private static String columnLabel(PropertyDescriptor propertyDescriptor) {
-    String propertyName = propertyDescriptor.getName();
+  private void checkRegistrations() {
+    int current = registrations.get();
+    if (resolvedRegistrations != current) {
+      rowMappers.clear();
+      if (!typeMappings.isEmpty()) {
+        typeMappings = createMappings(mappedTypes);
+      }
+      resolvedRegistrations = current;
+    }
+  }
+
+  /**
+   * Get the column label for a property name.
+   *
+   * @param propertyName a property name
+   * @return the associated column label
+   */
+  public static String columnLabel(String propertyName) {
     StringBuilder columnLabel = new StringBuilder();
     int i = 0;
     while (i < propertyName.length()) {
@@ -399,8 +1306,41 @@ public abstract class ResultSetMapper<T> {
     return columnLabel.toString();
   }
 
-  private static ColumnMapper<?> columnMapper(PropertyDescriptor propertyDescriptor) {
-    Class<?> propertyType = propertyDescriptor.getPropertyType();
-    return getColumnMapper(propertyType);
+  /** Strategy how a result set is mapped to an entity. */
+  public enum Strategy {
+
+    /**
+     * Map with all args constructor.
+     *
+     * @see ConstructorResultSetMapper
+     */
+    CONSTRUCTOR(ConstructorResultSetMapper::new),
+
+    /**
+     * Map with default constructor and setters.
+     *
+     * @see SetterResultSetMapper
+     */
+    SETTER(SetterResultSetMapper::new),
+
+    /**
+     * Map with all args constructor compiled into method handles.
+     *
+     * @see CompiledConstructorResultSetMapper
+     */
+    COMPILED_CONSTRUCTOR(CompiledConstructorResultSetMapper::new),
+
+    /**
+     * Map with default constructor and setters compiled into method handles.
+     *
+     * @see CompiledSetterResultSetMapper
+     */
+    COMPILED_SETTER(CompiledSetterResultSetMapper::new);
+
+    private final Function<Class<?>, ResultSetMapper<?>> factory;
+
+    Strategy(Function<Class<?>, ResultSetMapper<?>> factory) {
+      this.factory = factory;
+    }
   }
 }
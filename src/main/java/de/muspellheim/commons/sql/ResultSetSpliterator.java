@@ -0,0 +1,43 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Map the rows of a result set on demand.
+ *
+ * @param <T> the row type
+ */
+class ResultSetSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+  private final ResultSet resultSet;
+  private final RowMapper<T> rowMapper;
+
+  ResultSetSpliterator(ResultSet resultSet, RowMapper<T> rowMapper) {
+    super(Long.MAX_VALUE, Spliterator.ORDERED);
+    this.resultSet = resultSet;
+    this.rowMapper = rowMapper;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super T> action) {
+    try {
+      if (!resultSet.next()) {
+        return false;
+      }
+
+      action.accept(rowMapper.map(resultSet));
+      return true;
+    } catch (SQLException e) {
+      throw new UncheckedSqlException("Can not map row", e);
+    }
+  }
+}
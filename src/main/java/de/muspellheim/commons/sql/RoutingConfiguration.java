@@ -0,0 +1,48 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for routing read only connections to replicas.
+ *
+ * @see RoutingDataSource
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class RoutingConfiguration {
+
+  /**
+   * Maximum replication lag of a replica used for read only connections.
+   *
+   * @return the maximum replication lag
+   */
+  @NonNull Duration maxReplicationLag;
+
+  /**
+   * Time between two checks of the availability and the replication lag of the replicas.
+   *
+   * @return the health check interval
+   */
+  @NonNull Duration healthCheckInterval;
+
+  /**
+   * Obtains a routing configuration with a health check interval of 5 seconds.
+   *
+   * @param maxReplicationLag the maximum replication lag
+   * @return the routing configuration
+   */
+  public static RoutingConfiguration of(@NonNull Duration maxReplicationLag) {
+    return new RoutingConfiguration(maxReplicationLag, Duration.ofSeconds(5));
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * A data source routing read only connections to replicas of a primary database.
+ *
+ * <p>{@link #getConnection()} always returns a connection of the primary, so writes stay on the
+ * primary. Read only connections are obtained with {@link #getReadOnlyConnection()} or from the
+ * data source returned by {@link #getReadOnlyDataSource()}, which can be passed to a {@link
+ * SqlTask}.
+ *
+ * <p>A read only connection is taken from the replica with the least outstanding connections. A
+ * background thread checks the replicas in the interval of the configuration. A replica is skipped
+ * if its replication lag, the age of the last replayed transaction, exceeds the maximum replication
+ * lag, or if it is not reachable. If no replica is usable, the read only connection is taken from
+ * the primary.
+ *
+ * @see RoutingConfiguration
+ */
+public class RoutingDataSource implements DataSource, AutoCloseable {
+
+  // language=PostgreSQL
+  // A replica which replayed all received WAL has no lag, even if the primary was idle since the
+  // last replayed transaction.
+  static final String REPLICATION_LAG_QUERY =
+      "SELECT CASE WHEN NOT pg_is_in_recovery() THEN 0\n"
+          + "    WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0\n"
+          + "    ELSE coalesce(extract(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0)\n"
+          + "    END * 1000;";
+
+  private final DataSource primary;
+  private final List<Replica> replicas = new ArrayList<>();
+  private final RoutingConfiguration configuration;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+  private final DataSource readOnlyDataSource = new ReadOnlyDataSource();
+  private final ScheduledExecutorService healthChecker;
+
+  /**
+   * Creates a routing data source.
+   *
+   * <p>The replicas are checked once before the constructor returns, so a replica is not used
+   * before its replication lag is known.
+   *
+   * @param primary the data source of the primary
+   * @param replicas the data sources of the replicas
+   * @param configuration the routing configuration
+   */
+  public RoutingDataSource(
+      @NonNull DataSource primary,
+      @NonNull List<? extends DataSource> replicas,
+      @NonNull RoutingConfiguration configuration) {
+    this.primary = primary;
+    replicas.forEach(r -> this.replicas.add(new Replica(r)));
+    this.configuration = configuration;
+    healthChecker =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "RoutingDataSource Health Checker");
+              t.setDaemon(true);
+              return t;
+            });
+    checkReplicas();
+    long interval = configuration.getHealthCheckInterval().toMillis();
+    healthChecker.scheduleWithFixedDelay(
+        this::checkReplicas, interval, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * The configuration of this data source.
+   *
+   * @return the routing configuration
+   */
+  public RoutingConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Obtain a connection of the primary.
+   *
+   * @return a connection for reads and writes
+   * @throws SQLException if an error occurred
+   */
+  @Override
+  public Connection getConnection() throws SQLException {
+    return primary.getConnection();
+  }
+
+  /**
+   * Not supported, the routing data source uses the credentials of the underlying data sources.
+   *
+   * @throws SQLFeatureNotSupportedException always
+   */
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    throw new SQLFeatureNotSupportedException("Routed connections use the configured user.");
+  }
+
+  /**
+   * Obtain a connection for reads only.
+   *
+   * <p>The connection is taken from the usable replica with the least outstanding connections, or
+   * from the primary if no replica is usable.
+   *
+   * @return a connection for reads only
+   * @throws SQLException if an error occurred
+   */
+  public Connection getReadOnlyConnection() throws SQLException {
+    for (Replica replica : selectReplicas()) {
+      try {
+        return replica.getConnection();
+      } catch (SQLException e) {
+        replica.available = false;
+      }
+    }
+    return primary.getConnection();
+  }
+
+  private List<Replica> selectReplicas() {
+    List<Replica> candidates = new ArrayList<>(replicas.size());
+    int start =
+        replicas.isEmpty() ? 0 : Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+    for (int i = 0; i < replicas.size(); i++) {
+      Replica replica = replicas.get((start + i) % replicas.size());
+      if (replica.available) {
+        candidates.add(replica);
+      }
+    }
+    candidates.sort(Comparator.comparingInt(r -> r.outstanding.get()));
+    return candidates;
+  }
+
+  /**
+   * Returns a data source for read only connections.
+   *
+   * @return a data source, which obtains its connections with {@link #getReadOnlyConnection()}
+   */
+  public DataSource getReadOnlyDataSource() {
+    return readOnlyDataSource;
+  }
+
+  private void checkReplicas() {
+    for (Replica replica : replicas) {
+      replica.available = isHealthy(replica);
+    }
+  }
+
+  private boolean isHealthy(Replica replica) {
+    try (Connection connection = replica.dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(REPLICATION_LAG_QUERY)) {
+      resultSet.next();
+      return resultSet.getLong(1) <= configuration.getMaxReplicationLag().toMillis();
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  /** Stop checking the replicas and close the data sources, which are connection pools. */
+  @Override
+  public void close() {
+    healthChecker.shutdownNow();
+    if (primary instanceof ConnectionPool) {
+      ((ConnectionPool) primary).close();
+    }
+    for (Replica replica : replicas) {
+      if (replica.dataSource instanceof ConnectionPool) {
+        ((ConnectionPool) replica.dataSource).close();
+      }
+    }
+  }
+
+  @Override
+  public PrintWriter getLogWriter() throws SQLException {
+    return primary.getLogWriter();
+  }
+
+  @Override
+  public void setLogWriter(PrintWriter out) throws SQLException {
+    primary.setLogWriter(out);
+  }
+
+  @Override
+  public void setLoginTimeout(int seconds) throws SQLException {
+    primary.setLoginTimeout(seconds);
+  }
+
+  @Override
+  public int getLoginTimeout() throws SQLException {
+    return primary.getLoginTimeout();
+  }
+
+  @Override
+  public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+    return primary.getParentLogger();
+  }
+
+  @Override
+  public <T> T unwrap(Class<T> iface) throws SQLException {
+    if (iface.isInstance(this)) {
+      return iface.cast(this);
+    }
+    return primary.unwrap(iface);
+  }
+
+  @Override
+  public boolean isWrapperFor(Class<?> iface) throws SQLException {
+    return iface.isInstance(this) || primary.isWrapperFor(iface);
+  }
+
+  private static class Replica {
+
+    private final DataSource dataSource;
+    private final AtomicInteger outstanding = new AtomicInteger();
+
+    private volatile boolean available;
+
+    Replica(DataSource dataSource) {
+      this.dataSource = dataSource;
+    }
+
+    Connection getConnection() throws SQLException {
+      outstanding.incrementAndGet();
+      Connection connection;
+      try {
+        connection = dataSource.getConnection();
+      } catch (SQLException | RuntimeException e) {
+        outstanding.decrementAndGet();
+        throw e;
+      }
+      return new ReplicaConnection(connection, outstanding::decrementAndGet);
+    }
+  }
+
+  private class ReadOnlyDataSource implements DataSource {
+
+    @Override
+    public Connection getConnection() throws SQLException {
+      return getReadOnlyConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+      return RoutingDataSource.this.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+      return RoutingDataSource.this.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+      RoutingDataSource.this.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+      RoutingDataSource.this.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+      return RoutingDataSource.this.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      return RoutingDataSource.this.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+      return RoutingDataSource.this.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+      return RoutingDataSource.this.isWrapperFor(iface);
+    }
+  }
+}
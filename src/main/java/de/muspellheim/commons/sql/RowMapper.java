@@ -0,0 +1,28 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Map the current row of a result set to a value.
+ *
+ * @param <T> value type.
+ * @see ResultSetMapper
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+  /**
+   * Map current row to value.
+   *
+   * @param resultSet a result set positioned on a row
+   * @return the row value
+   * @throws SQLException if an error occurred
+   */
+  T map(ResultSet resultSet) throws SQLException;
+}
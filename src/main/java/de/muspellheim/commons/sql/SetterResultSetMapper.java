@@ -11,6 +11,7 @@ import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.Arrays;
 import java.util.Map;
@@ -23,6 +24,7 @@ import java.util.stream.Collectors;
  *
  * @param <T> the entity type.
  * @see ResultSetMapper
+ * @see CompiledSetterResultSetMapper
  */
 public class SetterResultSetMapper<T> extends ResultSetMapper<T> {
 
@@ -40,17 +42,46 @@ public class SetterResultSetMapper<T> extends ResultSetMapper<T> {
         .collect(Collectors.toMap(FeatureDescriptor::getName, PropertyDescriptor::getWriteMethod));
   }
 
+  /**
+   * Get the setter for a column label.
+   *
+   * @param columnLabel a column label
+   * @return the associated setter
+   * @throws IllegalStateException if no setter is associated with the column label
+   */
+  protected Method setterFor(String columnLabel) {
+    String propertyName = propertyNameFor(columnLabel);
+    Method setter = propertyName != null ? mappedSetters.get(propertyName) : null;
+    if (setter == null) {
+      throw new IllegalStateException("no mapped property found for column: " + columnLabel);
+    }
+    return setter;
+  }
+
   @Override
   public T map(ResultSet resultSet) throws SQLException {
+    return rowMapperFor(resultSet.getMetaData()).map(resultSet);
+  }
+
+  @Override
+  protected RowMapper<T> createRowMapper(ResultSetMetaData metaData) throws SQLException {
+    int columnCount = metaData.getColumnCount();
+    Method[] setters = new Method[columnCount];
+    RowMapper<?>[] valueMappers = new RowMapper<?>[columnCount];
+    for (int i = 1; i <= columnCount; i++) {
+      String columnLabel = metaData.getColumnLabel(i);
+      setters[i - 1] = setterFor(columnLabel);
+      valueMappers[i - 1] = valueMapper(propertyTypeFor(columnLabel), metaData, i);
+    }
+    return resultSet -> create(setters, valueMappers, resultSet);
+  }
+
+  private T create(Method[] setters, RowMapper<?>[] valueMappers, ResultSet resultSet)
+      throws SQLException {
     try {
       T entity = getType().getDeclaredConstructor().newInstance();
-      int columnCount = resultSet.getMetaData().getColumnCount();
-      for (int i = 1; i <= columnCount; i++) {
-        String columnLabel = resultSet.getMetaData().getColumnLabel(i);
-        String propertyName = propertyNameFor(columnLabel);
-        Method setter = mappedSetters.get(propertyName);
-        Object value = mapColumn(resultSet, columnLabel);
-        setter.invoke(entity, value);
+      for (int i = 0; i < setters.length; i++) {
+        setters[i].invoke(entity, valueMappers[i].map(resultSet));
       }
       return entity;
     } catch (InstantiationException
@@ -0,0 +1,188 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.FileHandler;
+import java.util.logging.Formatter;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * Log queries exceeding a threshold to rolling local files.
+ *
+ * <p>An entry contains the phases of the query, the number of mapped rows, the SQL fingerprint and
+ * the types of the bound parameters, but not their values. If a data source for a Postgres database
+ * is given, the generic plan of a successful slow query is captured in background, see {@link
+ * PostgresRepository#explain(Connection, String)}.
+ *
+ * <p>The log is a {@link QueryListener}, which is added to the {@link QueryMetrics} on creation and
+ * removed on close.
+ */
+public class SlowQueryLog implements QueryListener, AutoCloseable {
+
+  private static final int MAX_PENDING_EXPLAINS = 100;
+
+  private final SlowQueryLogConfiguration configuration;
+  private final DataSource explainDataSource;
+  private final long thresholdNanos;
+  private final FileHandler handler;
+  private final ThreadPoolExecutor explainExecutor;
+
+  /**
+   * Creates a slow query log without plans.
+   *
+   * @param configuration the log configuration
+   * @throws IOException if the log file can not be opened
+   */
+  public SlowQueryLog(@NonNull SlowQueryLogConfiguration configuration) throws IOException {
+    this(configuration, null);
+  }
+
+  /**
+   * Creates a slow query log capturing plans.
+   *
+   * @param configuration the log configuration
+   * @param explainDataSource the data source of the Postgres database to explain queries or <code>
+   *     null</code> to log without plans
+   * @throws IOException if the log file can not be opened
+   */
+  public SlowQueryLog(
+      @NonNull SlowQueryLogConfiguration configuration, DataSource explainDataSource)
+      throws IOException {
+    this.configuration = configuration;
+    this.explainDataSource = explainDataSource;
+    thresholdNanos = configuration.getThreshold().toNanos();
+    handler =
+        new FileHandler(
+            configuration.getFilePattern(),
+            configuration.getFileSizeLimit(),
+            configuration.getFileCount(),
+            true);
+    handler.setEncoding("UTF-8");
+    handler.setFormatter(new EntryFormatter());
+    explainExecutor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_EXPLAINS),
+            r -> {
+              Thread t = new Thread(r, "SlowQueryLog Explain");
+              t.setDaemon(true);
+              return t;
+            });
+    QueryMetrics.addListener(this);
+  }
+
+  /**
+   * The configuration of this log.
+   *
+   * @return the log configuration
+   */
+  public SlowQueryLogConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  @Override
+  public void queryFinished(QueryEvent event) {
+    long durationNanos =
+        event.getAcquisitionNanos() + event.getExecutionNanos() + event.getMappingNanos();
+    if (durationNanos < thresholdNanos) {
+      return;
+    }
+
+    if (explainDataSource == null || event.isFailed()) {
+      write(event, durationNanos, null);
+      return;
+    }
+
+    try {
+      explainExecutor.execute(() -> write(event, durationNanos, explain(event)));
+    } catch (RejectedExecutionException e) {
+      write(event, durationNanos, "not captured, too many pending plans");
+    }
+  }
+
+  private String explain(QueryEvent event) {
+    try (Connection connection = explainDataSource.getConnection()) {
+      return PostgresRepository.explain(connection, event.getSql());
+    } catch (SQLException e) {
+      return "not captured, " + e.getMessage();
+    }
+  }
+
+  private void write(QueryEvent event, long durationNanos, String plan) {
+    StringBuilder entry = new StringBuilder();
+    entry.append(
+        String.format(
+            Locale.ROOT,
+            "%s slow query %.1f ms (acquisition %.1f ms, execution %.1f ms, mapping %.1f ms), "
+                + "%d rows%s%n",
+            LocalDateTime.now(),
+            millis(durationNanos),
+            millis(event.getAcquisitionNanos()),
+            millis(event.getExecutionNanos()),
+            millis(event.getMappingNanos()),
+            event.getRows(),
+            event.isFailed() ? ", failed" : ""));
+    entry.append("  fingerprint: ").append(event.getFingerprint()).append(System.lineSeparator());
+    entry.append("  parameters: ").append(event.getParameters()).append(System.lineSeparator());
+    if (plan != null) {
+      entry.append("  plan:").append(System.lineSeparator());
+      for (String line : plan.split("\\R")) {
+        entry.append("    ").append(line).append(System.lineSeparator());
+      }
+    }
+    handler.publish(new LogRecord(Level.INFO, entry.toString()));
+    handler.flush();
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+
+  /**
+   * Stops logging, waits for pending plans and closes the log file.
+   *
+   * <p>Pending plans are cancelled if they do not complete within 10 seconds or if the current
+   * thread is interrupted. The interrupt flag of the current thread is kept.
+   */
+  @Override
+  public void close() {
+    QueryMetrics.removeListener(this);
+    explainExecutor.shutdown();
+    try {
+      if (!explainExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+        explainExecutor.shutdownNow();
+      }
+    } catch (InterruptedException e) {
+      explainExecutor.shutdownNow();
+      Thread.currentThread().interrupt();
+    } finally {
+      handler.close();
+    }
+  }
+
+  private static class EntryFormatter extends Formatter {
+
+    @Override
+    public String format(LogRecord record) {
+      return record.getMessage();
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for a slow query log.
+ *
+ * @see SlowQueryLog
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SlowQueryLogConfiguration {
+
+  /**
+   * Minimum duration of a query to be logged.
+   *
+   * @return the threshold
+   */
+  @NonNull Duration threshold;
+
+  /**
+   * Pattern of the log files as used by <code>java.util.logging.FileHandler</code>, for example
+   * <code>%h/slow-query-%g.log</code>.
+   *
+   * @return the file pattern
+   */
+  @NonNull String filePattern;
+
+  /**
+   * Approximate maximum number of bytes written to one file.
+   *
+   * @return the file size limit
+   */
+  int fileSizeLimit;
+
+  /**
+   * Number of files to rotate.
+   *
+   * @return the file count
+   */
+  int fileCount;
+
+  /**
+   * Obtains a slow query log configuration with 5 rotating files of 10 MB.
+   *
+   * @param threshold the minimum duration of a logged query
+   * @param filePattern the pattern of the log files
+   * @return the slow query log configuration
+   */
+  public static SlowQueryLogConfiguration of(
+      @NonNull Duration threshold, @NonNull String filePattern) {
+    return new SlowQueryLogConfiguration(threshold, filePattern, 10 * 1024 * 1024, 5);
+  }
+}
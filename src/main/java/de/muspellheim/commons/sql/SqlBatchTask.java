@@ -0,0 +1,157 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import de.muspellheim.commons.util.Event;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CancellationException;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * A runnable future task for writing entities with a batched SQL statement.
+ *
+ * <p>The entities are bound to the statement with a {@link StatementBinder} and executed in chunks
+ * with <code>executeBatch</code>. All chunks run in one transaction: if a chunk fails, the
+ * transaction is rolled back and the task completes exceptional. After every chunk the progress is
+ * sent to the handlers of {@link #getOnProgress()}. The result of the task is the progress after
+ * the last chunk.
+ *
+ * <p>A stream can be written with <code>stream::iterator</code> as iterable.
+ *
+ * @param <T> entity type
+ */
+public class SqlBatchTask<T> extends SqlTask<BatchProgress> {
+
+  /** Default number of entities executed as one batch. */
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  private final Event<BatchProgress> onProgress = new Event<>();
+  private final Iterable<? extends T> entities;
+  private final StatementBinder<? super T> binder;
+  private final int chunkSize;
+
+  /**
+   * Obtains a new task with the default chunk size.
+   *
+   * @param dataSource the data source
+   * @param sql the SQL statement to execute for every entity
+   * @param entities the entities to write
+   * @param binder binds an entity to the statement
+   */
+  public SqlBatchTask(
+      @NonNull DataSource dataSource,
+      @NonNull String sql,
+      @NonNull Iterable<? extends T> entities,
+      @NonNull StatementBinder<? super T> binder) {
+    this(dataSource, sql, entities, binder, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Obtains a new task.
+   *
+   * @param dataSource the data source
+   * @param sql the SQL statement to execute for every entity
+   * @param entities the entities to write
+   * @param binder binds an entity to the statement
+   * @param chunkSize the number of entities executed as one batch
+   * @throws IllegalArgumentException if the chunk size is not positive
+   */
+  public SqlBatchTask(
+      @NonNull DataSource dataSource,
+      @NonNull String sql,
+      @NonNull Iterable<? extends T> entities,
+      @NonNull StatementBinder<? super T> binder,
+      int chunkSize) {
+    super(dataSource, sql);
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+    }
+
+    this.entities = entities;
+    this.binder = binder;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * The event sent after every executed chunk.
+   *
+   * @return the progress event
+   */
+  public Event<BatchProgress> getOnProgress() {
+    return onProgress;
+  }
+
+  @Override
+  protected BatchProgress execute(Connection connection) throws Exception {
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (PreparedStatement statement = connection.prepareStatement(getSql())) {
+      setStatement(statement);
+      BatchProgress progress = writeChunks(statement);
+      connection.commit();
+      return progress;
+    } catch (Exception e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private BatchProgress writeChunks(PreparedStatement statement) throws SQLException {
+    BatchProgress progress = BatchProgress.of(0, 0, 0, 0, null);
+    int count = 0;
+    for (T entity : entities) {
+      if (isCancelled()) {
+        throw new CancellationException();
+      }
+
+      binder.bind(statement, entity);
+      statement.addBatch();
+      count++;
+      if (count == chunkSize) {
+        progress = executeChunk(statement, progress, count);
+        count = 0;
+      }
+    }
+    if (count > 0) {
+      progress = executeChunk(statement, progress, count);
+    }
+    return progress;
+  }
+
+  private BatchProgress executeChunk(PreparedStatement statement, BatchProgress progress, int count)
+      throws SQLException {
+    int chunks = progress.getChunks() + 1;
+    try {
+      setStatement(statement);
+      long updateCount = 0;
+      for (int c : statement.executeBatch()) {
+        if (c != Statement.SUCCESS_NO_INFO) {
+          updateCount += c;
+        }
+      }
+      BatchProgress next =
+          BatchProgress.of(
+              chunks,
+              count,
+              progress.getProcessedEntities() + count,
+              progress.getUpdateCount() + updateCount,
+              null);
+      onProgress.send(next);
+      return next;
+    } catch (SQLException e) {
+      onProgress.send(
+          BatchProgress.of(
+              chunks, count, progress.getProcessedEntities(), progress.getUpdateCount(), e));
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * Run SQL tasks asynchronously with bounded concurrency.
+ *
+ * <p>At most the configured number of tasks run at once, so the executor should not run more
+ * queries than the connection pool has connections. Further tasks wait in a bounded queue. If the
+ * queue is full, the {@link RejectionPolicy} of the configuration decides what happens with a task.
+ * A rejected task completes its future exceptional with a <code>RejectedExecutionException
+ * </code>. A task never runs in the calling thread, so the maximum concurrency always holds.
+ *
+ * <p>Cancelling a returned future cancels the task and its running statement.
+ */
+public class SqlExecutor implements AutoCloseable {
+
+  private static final AtomicInteger executorNumber = new AtomicInteger();
+
+  private final DataSource dataSource;
+  private final SqlExecutorConfiguration configuration;
+  private final ThreadPoolExecutor executor;
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder cancelled = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder started = new LongAdder();
+  private final LongAdder totalWaitNanos = new LongAdder();
+  private final LongAccumulator maxWaitNanos = new LongAccumulator(Long::max, 0);
+
+  /**
+   * Creates an executor for a connection pool, running at most as many tasks as the pool has
+   * connections.
+   *
+   * @param pool the connection pool
+   * @param queueCapacity the maximum number of waiting tasks
+   */
+  public SqlExecutor(@NonNull ConnectionPool pool, int queueCapacity) {
+    this(pool, SqlExecutorConfiguration.of(pool.getConfiguration().getMaxSize(), queueCapacity));
+  }
+
+  /**
+   * Creates an executor for a data source.
+   *
+   * @param dataSource the data source
+   * @param configuration the executor configuration
+   * @throws IllegalArgumentException if the concurrency or the queue capacity is not positive
+   */
+  public SqlExecutor(
+      @NonNull DataSource dataSource, @NonNull SqlExecutorConfiguration configuration) {
+    if (configuration.getMaxConcurrency() < 1 || configuration.getQueueCapacity() < 1) {
+      throw new IllegalArgumentException(
+          "Concurrency and queue capacity must be positive: " + configuration);
+    }
+
+    this.dataSource = dataSource;
+    this.configuration = configuration;
+    String prefix = "SqlExecutor-" + executorNumber.incrementAndGet() + "-";
+    AtomicInteger threadNumber = new AtomicInteger();
+    ThreadFactory threadFactory =
+        r -> {
+          Thread t = new Thread(r, prefix + threadNumber.incrementAndGet());
+          t.setDaemon(true);
+          return t;
+        };
+    executor =
+        new ThreadPoolExecutor(
+            configuration.getMaxConcurrency(),
+            configuration.getMaxConcurrency(),
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(configuration.getQueueCapacity()),
+            threadFactory,
+            this::reject);
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  /**
+   * The configuration of this executor.
+   *
+   * @return the executor configuration
+   */
+  public SqlExecutorConfiguration getConfiguration() {
+    return configuration;
+  }
+
+  /**
+   * Returns the current statistics of this executor.
+   *
+   * @return the executor statistics
+   */
+  public SqlExecutorStatistics getStatistics() {
+    long count = started.sum();
+    long averageWaitNanos = count > 0 ? totalWaitNanos.sum() / count : 0;
+    return SqlExecutorStatistics.of(
+        executor.getActiveCount(),
+        executor.getQueue().size(),
+        completed.sum(),
+        failed.sum(),
+        cancelled.sum(),
+        rejected.sum(),
+        Duration.ofNanos(averageWaitNanos),
+        Duration.ofNanos(maxWaitNanos.get()));
+  }
+
+  /**
+   * Submit a query.
+   *
+   * @param sql the SQL query string to execute
+   * @param query the handler, which executes statement and return result
+   * @param <T> result type of the query
+   * @return the future result of the query
+   */
+  public <T> CompletableFuture<T> submit(@NonNull String sql, @NonNull SqlQuery<T> query) {
+    return submit(new SqlQueryTask<>(dataSource, sql, query));
+  }
+
+  /**
+   * Submit a task.
+   *
+   * @param task the task to run
+   * @param <T> result type of the task
+   * @return the future result of the task
+   */
+  public <T> CompletableFuture<T> submit(@NonNull SqlTask<T> task) {
+    Job<T> job = new Job<>(task);
+    try {
+      executor.execute(job);
+    } catch (RejectedExecutionException e) {
+      job.reject(e);
+    }
+    return job.future;
+  }
+
+  /**
+   * Stops accepting new tasks.
+   *
+   * <p>Tasks already submitted are still run.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  private void reject(Runnable runnable, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      throw new RejectedExecutionException("Executor is closed.");
+    }
+
+    if (configuration.getRejectionPolicy() == RejectionPolicy.DISCARD_OLDEST
+        && discardOldest(runnable, executor)) {
+      return;
+    }
+    throw new RejectedExecutionException("Queue is full.");
+  }
+
+  private boolean discardOldest(Runnable runnable, ThreadPoolExecutor executor) {
+    BlockingQueue<Runnable> queue = executor.getQueue();
+    for (int i = 0; i < configuration.getQueueCapacity(); i++) {
+      Runnable oldest = queue.poll();
+      if (oldest instanceof Job) {
+        ((Job<?>) oldest).reject(new RejectedExecutionException("Discarded by newer task."));
+      }
+      if (queue.offer(runnable)) {
+        if (executor.isShutdown() && queue.remove(runnable)) {
+          throw new RejectedExecutionException("Executor is closed.");
+        }
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** What happens with a task, if the queue of the executor is full. */
+  public enum RejectionPolicy {
+
+    /** Reject the new task. */
+    ABORT,
+
+    /** Reject the oldest waiting task and queue the new task. */
+    DISCARD_OLDEST
+  }
+
+  private class Job<T> implements Runnable {
+
+    private final long submitted = System.nanoTime();
+    private final SqlTask<T> task;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    Job(SqlTask<T> task) {
+      this.task = task;
+      future.whenComplete(
+          (result, exception) -> {
+            if (future.isCancelled()) {
+              task.cancel(true);
+            }
+          });
+    }
+
+    @Override
+    public void run() {
+      long waitNanos = System.nanoTime() - submitted;
+      started.increment();
+      totalWaitNanos.add(waitNanos);
+      maxWaitNanos.accumulate(waitNanos);
+      if (future.isDone()) {
+        if (future.isCancelled()) {
+          cancelled.increment();
+        }
+        return;
+      }
+
+      task.run();
+      try {
+        T result = task.get();
+        completed.increment();
+        future.complete(result);
+      } catch (ExecutionException e) {
+        failed.increment();
+        future.completeExceptionally(e.getCause());
+      } catch (CancellationException e) {
+        cancelled.increment();
+        future.cancel(false);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failed.increment();
+        future.completeExceptionally(e);
+      }
+    }
+
+    void reject(RejectedExecutionException exception) {
+      rejected.increment();
+      future.completeExceptionally(exception);
+    }
+  }
+}
@@ -0,0 +1,57 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Collect information for a SQL executor.
+ *
+ * @see SqlExecutor
+ */
+@Value
+@With
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class SqlExecutorConfiguration {
+
+  /**
+   * Maximum number of queries running at once, should not exceed the maximum size of the connection
+   * pool.
+   *
+   * @return the maximum concurrency
+   */
+  int maxConcurrency;
+
+  /**
+   * Maximum number of queries waiting for execution.
+   *
+   * @return the queue capacity
+   */
+  int queueCapacity;
+
+  /**
+   * What happens with a query if the queue is full.
+   *
+   * @return the rejection policy
+   */
+  @NonNull SqlExecutor.RejectionPolicy rejectionPolicy;
+
+  /**
+   * Obtains an executor configuration, which rejects queries if the queue is full.
+   *
+   * @param maxConcurrency the maximum number of running queries
+   * @param queueCapacity the maximum number of waiting queries
+   * @return the executor configuration
+   */
+  public static SqlExecutorConfiguration of(int maxConcurrency, int queueCapacity) {
+    return new SqlExecutorConfiguration(
+        maxConcurrency, queueCapacity, SqlExecutor.RejectionPolicy.ABORT);
+  }
+}
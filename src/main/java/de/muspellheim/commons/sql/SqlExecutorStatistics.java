@@ -0,0 +1,76 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.time.Duration;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+/**
+ * Statistics of a SQL executor.
+ *
+ * @see SqlExecutor#getStatistics()
+ */
+@Value
+@RequiredArgsConstructor(staticName = "of")
+public class SqlExecutorStatistics {
+
+  /**
+   * Number of queries running now.
+   *
+   * @return the active queries
+   */
+  int activeQueries;
+
+  /**
+   * Number of queries waiting in the queue now.
+   *
+   * @return the queue depth
+   */
+  int queueDepth;
+
+  /**
+   * Number of queries finished successfully since the executor was created.
+   *
+   * @return the completed queries
+   */
+  long completedQueries;
+
+  /**
+   * Number of queries failed with an exception since the executor was created.
+   *
+   * @return the failed queries
+   */
+  long failedQueries;
+
+  /**
+   * Number of queries cancelled since the executor was created.
+   *
+   * @return the cancelled queries
+   */
+  long cancelledQueries;
+
+  /**
+   * Number of queries rejected since the executor was created.
+   *
+   * @return the rejected queries
+   */
+  long rejectedQueries;
+
+  /**
+   * Average time a query waited in the queue before it started.
+   *
+   * @return the average wait time
+   */
+  Duration averageWaitTime;
+
+  /**
+   * Longest time a query waited in the queue before it started.
+   *
+   * @return the maximum wait time
+   */
+  Duration maxWaitTime;
+}
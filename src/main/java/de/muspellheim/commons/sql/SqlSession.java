@@ -0,0 +1,28 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+
+/**
+ * A session running several queries on one connection.
+ *
+ * @see SqlSessionTask
+ */
+public interface SqlSession {
+
+  /**
+   * Run a query on the connection of this session.
+   *
+   * @param sql the SQL query string to execute
+   * @param query the handler, which executes statement and return result
+   * @param <T> result type of the query
+   * @return the result of the query
+   * @throws SQLException if an error occurred
+   * @throws java.util.concurrent.CancellationException if the session was cancelled
+   */
+  <T> T query(String sql, SqlQuery<T> query) throws SQLException;
+}
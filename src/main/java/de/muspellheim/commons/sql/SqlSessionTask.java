@@ -0,0 +1,145 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.CancellationException;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * A runnable future task for running a unit of work with several queries on one connection.
+ *
+ * <p>The connection is acquired once for all queries of the {@link SqlUnitOfWork}. Cancelling the
+ * task cancels the current query and no further query is started. A deadline applies to every query
+ * of the session.
+ *
+ * <p>With a read only transaction all queries run in one transaction with isolation level <code>
+ * REPEATABLE READ</code>, so they see the same snapshot of the database.
+ *
+ * <p>If {@link QueryMetrics} are enabled, every query is recorded on its own and the unit of work
+ * as a whole is recorded with the name of the task.
+ *
+ * @param <T> result type of the unit of work
+ */
+public class SqlSessionTask<T> extends SqlTask<T> {
+
+  private final SqlUnitOfWork<T> work;
+
+  private volatile boolean readOnlyTransaction;
+
+  /**
+   * Obtains a new task.
+   *
+   * @param dataSource the data source
+   * @param name the name of the unit of work, used as SQL statement of the task for query metrics
+   * @param work the unit of work, which runs the queries of the session
+   */
+  public SqlSessionTask(
+      @NonNull DataSource dataSource, @NonNull String name, @NonNull SqlUnitOfWork<T> work) {
+    super(dataSource, name);
+    this.work = work;
+  }
+
+  /**
+   * Runs all queries of the session in one read only transaction.
+   *
+   * @return <code>true</code> if the queries run in one read only transaction
+   */
+  public boolean isReadOnlyTransaction() {
+    return readOnlyTransaction;
+  }
+
+  /**
+   * Sets if all queries of the session run in one read only transaction.
+   *
+   * <p>Must be set before the task runs.
+   *
+   * @param readOnlyTransaction <code>true</code> to run the queries in one read only transaction
+   */
+  public void setReadOnlyTransaction(boolean readOnlyTransaction) {
+    this.readOnlyTransaction = readOnlyTransaction;
+  }
+
+  @Override
+  protected T execute(Connection connection) throws Exception {
+    if (!readOnlyTransaction) {
+      return work.execute(new Session(connection));
+    }
+
+    boolean autoCommit = connection.getAutoCommit();
+    boolean readOnly = connection.isReadOnly();
+    int isolation = connection.getTransactionIsolation();
+    connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+    connection.setReadOnly(true);
+    connection.setAutoCommit(false);
+    Exception failure = null;
+    try {
+      T result = work.execute(new Session(connection));
+      connection.commit();
+      return result;
+    } catch (Exception e) {
+      failure = e;
+      rollback(connection, e);
+      throw e;
+    } finally {
+      restore(connection, autoCommit, readOnly, isolation, failure);
+    }
+  }
+
+  private static void rollback(Connection connection, Exception failure) {
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      failure.addSuppressed(e);
+    }
+  }
+
+  private static void restore(
+      Connection connection, boolean autoCommit, boolean readOnly, int isolation, Exception failure)
+      throws SQLException {
+    try {
+      connection.setAutoCommit(autoCommit);
+      connection.setReadOnly(readOnly);
+      connection.setTransactionIsolation(isolation);
+    } catch (SQLException e) {
+      if (failure == null) {
+        throw e;
+      }
+      failure.addSuppressed(e);
+    }
+  }
+
+  private class Session implements SqlSession {
+
+    private final Connection connection;
+
+    Session(Connection connection) {
+      this.connection = connection;
+    }
+
+    @Override
+    public <R> R query(@NonNull String sql, @NonNull SqlQuery<R> query) throws SQLException {
+      if (isCancelled()) {
+        throw new CancellationException();
+      }
+
+      QueryRecording recording = QueryRecording.start(sql);
+      QueryRecording.acquired(recording);
+      boolean failed = true;
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        setStatement(statement);
+        R result = query.execute(QueryRecording.recordParameters(statement));
+        failed = false;
+        return result;
+      } finally {
+        QueryRecording.finish(recording, failed);
+      }
+    }
+  }
+}
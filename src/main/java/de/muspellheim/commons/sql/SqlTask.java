@@ -0,0 +1,257 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import lombok.NonNull;
+
+/**
+ * A runnable future task for running SQL statements on a connection of a data source.
+ *
+ * <p>Cancelling the task cancels the current statement. A task cancelled while it waits for a
+ * connection does not start a statement.
+ *
+ * <p>A task can have a {@link Deadline}. If the deadline is reached before the task acquired a
+ * connection, the task fails fast without executing a statement. If the data source is a {@link
+ * ConnectionPool}, the task waits for a connection at most until the deadline. Otherwise the
+ * remaining time is set as query timeout of the statement, so the database cancels the statement at
+ * the deadline and the connection is not blocked any longer. Both cases fail with a SQL exception
+ * with the SQL state {@link PostgresRepository#QUERY_CANCELED}, which a {@link PostgresRepository}
+ * maps to a <code>
+ * QueryCanceledException</code>.
+ *
+ * <p>If {@link QueryMetrics} are enabled, the time to acquire a connection, to execute and to map
+ * rows is recorded for the SQL statement of the task.
+ *
+ * @param <T> result type of the task
+ */
+public abstract class SqlTask<T> implements RunnableFuture<T> {
+
+  // Possible state transitions:
+  // NEW -> NORMAL
+  // NEW -> EXCEPTIONAL
+  // NEW -> CANCELLED
+  private final AtomicInteger state = new AtomicInteger(NEW);
+  private static final int NEW = 0;
+  private static final int NORMAL = 1;
+  private static final int EXCEPTIONAL = 2;
+  private static final int CANCELLED = 3;
+
+  private CountDownLatch barrier = new CountDownLatch(1);
+
+  private final DataSource dataSource;
+  private final String sql;
+
+  private volatile Deadline deadline;
+  private volatile Statement statement;
+  private volatile T result;
+  private volatile Throwable exception;
+
+  /**
+   * Initializes a new task.
+   *
+   * @param dataSource the data source
+   * @param sql the SQL statement of the task
+   */
+  protected SqlTask(@NonNull DataSource dataSource, @NonNull String sql) {
+    this.dataSource = dataSource;
+    this.sql = sql;
+  }
+
+  /**
+   * The SQL statement of this task.
+   *
+   * @return the SQL statement
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * Execute the statements of this task.
+   *
+   * @param connection the connection to use
+   * @return the result of the task
+   * @throws Exception if an error occurred
+   */
+  protected abstract T execute(Connection connection) throws Exception;
+
+  /**
+   * The deadline of this task.
+   *
+   * @return the deadline or <code>null</code> if the task has no deadline
+   */
+  public Deadline getDeadline() {
+    return deadline;
+  }
+
+  /**
+   * Sets the deadline of this task.
+   *
+   * <p>The deadline must be set before the task runs.
+   *
+   * @param deadline the deadline or <code>null</code> if the task has no deadline
+   */
+  public void setDeadline(Deadline deadline) {
+    this.deadline = deadline;
+  }
+
+  /**
+   * Sets the current statement, which is cancelled if the task is cancelled.
+   *
+   * <p>If the task has a deadline, the remaining time is set as query timeout of the statement.
+   *
+   * @param statement the current statement
+   * @throws SQLException if the deadline is reached or the query timeout can not be set
+   * @throws CancellationException if the task is cancelled
+   */
+  protected void setStatement(Statement statement) throws SQLException {
+    this.statement = statement;
+    checkCancelled();
+    Deadline d = deadline;
+    if (d != null) {
+      checkDeadline();
+      long remainingMillis = d.getRemaining().toMillis();
+      statement.setQueryTimeout((int) Math.max(1, (remainingMillis + 999) / 1000));
+    }
+  }
+
+  private void checkDeadline() throws SQLTimeoutException {
+    Deadline d = deadline;
+    if (d != null && d.isExpired()) {
+      throw new SQLTimeoutException(
+          "Deadline reached before query started.", PostgresRepository.QUERY_CANCELED);
+    }
+  }
+
+  private void checkCancelled() {
+    if (isCancelled()) {
+      throw new CancellationException();
+    }
+  }
+
+  @Override
+  public boolean isCancelled() {
+    return state.get() == CANCELLED;
+  }
+
+  @Override
+  public boolean isDone() {
+    return state.get() != NEW;
+  }
+
+  @Override
+  public synchronized void run() {
+    if (state.get() != NEW) {
+      return;
+    }
+
+    try {
+      checkDeadline();
+      result = executeWithConnection();
+      state.compareAndSet(NEW, NORMAL);
+    } catch (Exception e) {
+      exception = e;
+      state.compareAndSet(NEW, EXCEPTIONAL);
+    }
+    barrier.countDown();
+  }
+
+  private T executeWithConnection() throws Exception {
+    QueryRecording recording = QueryRecording.start(sql);
+    boolean failed = true;
+    try (Connection connection = getConnection()) {
+      QueryRecording.acquired(recording);
+      checkCancelled();
+      checkDeadline();
+      T value = execute(connection);
+      failed = false;
+      return value;
+    } finally {
+      QueryRecording.finish(recording, failed);
+    }
+  }
+
+  private Connection getConnection() throws SQLException {
+    Deadline d = deadline;
+    if (d == null || !(dataSource instanceof ConnectionPool)) {
+      return dataSource.getConnection();
+    }
+
+    try {
+      return ((ConnectionPool) dataSource).getConnection(d.getRemaining());
+    } catch (SQLException e) {
+      if (d.isExpired()) {
+        throw new SQLTimeoutException(
+            "Deadline reached while waiting for a connection.",
+            PostgresRepository.QUERY_CANCELED,
+            e);
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  public boolean cancel(boolean mayInterruptIfRunning) {
+    if (!state.compareAndSet(NEW, CANCELLED)) {
+      return false;
+    }
+
+    Statement s = statement;
+    if (s != null) {
+      try {
+        s.cancel();
+      } catch (SQLException e) {
+        // statement already finished or closed, nothing to cancel
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public T get() throws InterruptedException, ExecutionException {
+    if (state.get() == NEW) {
+      barrier.await();
+    }
+    return report();
+  }
+
+  @Override
+  public T get(long timeout, @NonNull TimeUnit unit)
+      throws InterruptedException, ExecutionException, TimeoutException {
+    if (state.get() == NEW) {
+      if (!barrier.await(timeout, unit)) {
+        throw new TimeoutException();
+      }
+    }
+    return report();
+  }
+
+  private T report() throws ExecutionException {
+    int s = state.get();
+    switch (s) {
+      case NORMAL:
+        return result;
+      case EXCEPTIONAL:
+        throw new ExecutionException(exception);
+      case CANCELLED:
+        throw new CancellationException();
+      default:
+        throw new IllegalStateException("unknown state: " + s);
+    }
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import lombok.NonNull;
+
+/**
+ * A SQL statement with named parameters.
+ *
+ * <p>A parameter is written as <code>:name</code> and can occur several times. Casts with <code>::
+ * </code>, quoted strings and identifiers, dollar quoted strings and comments are not parameters.
+ * The template is parsed once into a SQL statement with positional <code>?</code> parameters, which
+ * can be prepared and cached as usual:
+ *
+ * <pre>
+ * SqlTemplate template = SqlTemplate.parse("SELECT * FROM person WHERE id = ANY(:ids);");
+ * new SqlQueryTask&lt;&gt;(dataSource, template.getSql(), statement -&gt; {
+ *   template.bind(statement, Collections.singletonMap("ids", Arrays.asList(1, 2, 3)));
+ *   return mapper.mapList(statement.executeQuery());
+ * });
+ * </pre>
+ *
+ * <p>A collection or an object array is bound as Postgres array, so use <code>= ANY(:name)</code>
+ * instead of <code>IN (...)</code> and the statement text does not depend on the number of values.
+ * The element type of the array is derived from the first element which is not <code>null</code>,
+ * an empty collection is bound as <code>text[]</code>. Add a cast like <code>:ids::int[]</code> if
+ * the collection can be empty.
+ */
+public final class SqlTemplate {
+
+  private static final int MAX_TEMPLATES = 1024;
+  private static final LruCache<String, SqlTemplate> templates = new LruCache<>(MAX_TEMPLATES);
+  private static final ConcurrentMap<Class<?>, Map<String, MethodHandle>> accessors =
+      new ConcurrentHashMap<>();
+  private static final Map<Class<?>, String> arrayTypes = new HashMap<>();
+
+  static {
+    arrayTypes.put(Boolean.class, "bool");
+    arrayTypes.put(Short.class, "int2");
+    arrayTypes.put(Integer.class, "int4");
+    arrayTypes.put(Long.class, "int8");
+    arrayTypes.put(Float.class, "float4");
+    arrayTypes.put(Double.class, "float8");
+    arrayTypes.put(BigDecimal.class, "numeric");
+    arrayTypes.put(String.class, "text");
+    arrayTypes.put(UUID.class, "uuid");
+    arrayTypes.put(LocalDate.class, "date");
+    arrayTypes.put(LocalDateTime.class, "timestamp");
+  }
+
+  private final String template;
+  private final String sql;
+  private final List<String> parameterNames;
+
+  private SqlTemplate(String template, String sql, List<String> parameterNames) {
+    this.template = template;
+    this.sql = sql;
+    this.parameterNames = parameterNames;
+  }
+
+  /**
+   * Obtains a template for a SQL statement with named parameters.
+   *
+   * <p>Up to 1024 parsed templates are cached, so parsing the same statement again is cheap. The
+   * least recently used template is evicted.
+   *
+   * @param template a SQL statement with named parameters
+   * @return the parsed template
+   */
+  public static SqlTemplate parse(@NonNull String template) {
+    SqlTemplate parsed = templates.get(template);
+    if (parsed == null) {
+      parsed = compile(template);
+      templates.put(template, parsed);
+    }
+    return parsed;
+  }
+
+  private static SqlTemplate compile(String template) {
+    StringBuilder sql = new StringBuilder(template.length());
+    List<String> names = new ArrayList<>();
+    int i = 0;
+    while (i < template.length()) {
+      int end;
+      if (isParameter(template, i)) {
+        end = i + 2;
+        while (end < template.length() && Character.isJavaIdentifierPart(template.charAt(end))) {
+          end++;
+        }
+        names.add(template.substring(i + 1, end));
+        sql.append('?');
+      } else {
+        end = skipToken(template, i);
+        sql.append(template, i, end);
+      }
+      i = end;
+    }
+    return new SqlTemplate(template, sql.toString(), Collections.unmodifiableList(names));
+  }
+
+  private static boolean isParameter(String template, int index) {
+    return template.charAt(index) == ':'
+        && index + 1 < template.length()
+        && Character.isJavaIdentifierStart(template.charAt(index + 1))
+        && (index == 0 || template.charAt(index - 1) != ':');
+  }
+
+  /**
+   * Skip a token of a SQL statement which can not contain parameters.
+   *
+   * <p>Quoted strings and identifiers, dollar quoted strings, comments and casts are skipped as a
+   * whole, every other character is a token on its own.
+   *
+   * @param sql a SQL statement
+   * @param index the start index of the token
+   * @return the index after the token
+   */
+  static int skipToken(String sql, int index) {
+    char c = sql.charAt(index);
+    if (c == '\'' || c == '"') {
+      return skipUntil(sql, index + 1, String.valueOf(c));
+    } else if (c == '$') {
+      return skipDollarQuoted(sql, index);
+    } else if (sql.startsWith("--", index)) {
+      return skipUntil(sql, index + 2, "\n");
+    } else if (sql.startsWith("/*", index)) {
+      return skipUntil(sql, index + 2, "*/");
+    } else if (sql.startsWith("::", index)) {
+      return index + 2;
+    } else {
+      return index + 1;
+    }
+  }
+
+  private static int skipDollarQuoted(String template, int index) {
+    if (index > 0 && Character.isJavaIdentifierPart(template.charAt(index - 1))) {
+      return index + 1;
+    }
+
+    int end = index + 1;
+    if (end < template.length() && Character.isDigit(template.charAt(end))) {
+      return index + 1;
+    }
+    while (end < template.length() && isTagPart(template.charAt(end))) {
+      end++;
+    }
+    if (end == template.length() || template.charAt(end) != '$') {
+      return index + 1;
+    }
+    String tag = template.substring(index, end + 1);
+    return skipUntil(template, end + 1, tag);
+  }
+
+  private static boolean isTagPart(char c) {
+    return c != '$' && Character.isJavaIdentifierPart(c);
+  }
+
+  private static int skipUntil(String template, int index, String terminator) {
+    int end = template.indexOf(terminator, index);
+    return end == -1 ? template.length() : end + terminator.length();
+  }
+
+  /**
+   * The SQL statement with named parameters.
+   *
+   * @return the template
+   */
+  public String getTemplate() {
+    return template;
+  }
+
+  /**
+   * The SQL statement with positional parameters to prepare.
+   *
+   * @return the SQL statement
+   */
+  public String getSql() {
+    return sql;
+  }
+
+  /**
+   * The names of the parameters in order of their positions.
+   *
+   * @return the parameter names, a name occurs once for every position
+   */
+  public List<String> getParameterNames() {
+    return parameterNames;
+  }
+
+  /**
+   * Bind the values of a map to the parameters of a statement prepared with {@link #getSql()}.
+   *
+   * @param statement a prepared statement
+   * @param parameters the values by parameter name
+   * @throws SQLException if an error occurred
+   * @throws IllegalArgumentException if a parameter has no value
+   */
+  public void bind(@NonNull PreparedStatement statement, @NonNull Map<String, ?> parameters)
+      throws SQLException {
+    for (int i = 0; i < parameterNames.size(); i++) {
+      String name = parameterNames.get(i);
+      if (!parameters.containsKey(name)) {
+        throw new IllegalArgumentException("No value for parameter: " + name);
+      }
+      bindValue(statement, i + 1, parameters.get(name));
+    }
+  }
+
+  /**
+   * Bind the properties of a bean to the parameters of a statement prepared with {@link #getSql()}.
+   *
+   * <p>The parameter names are the property names. The accessors of a bean type are looked up once
+   * and cached, the bean type need not be public.
+   *
+   * @param statement a prepared statement
+   * @param bean the bean with the values
+   * @throws SQLException if an error occurred
+   * @throws IllegalArgumentException if a parameter has no readable property
+   */
+  public void bindBean(@NonNull PreparedStatement statement, @NonNull Object bean)
+      throws SQLException {
+    Map<String, MethodHandle> getters =
+        accessors.computeIfAbsent(bean.getClass(), SqlTemplate::getters);
+    for (int i = 0; i < parameterNames.size(); i++) {
+      String name = parameterNames.get(i);
+      MethodHandle getter = getters.get(name);
+      if (getter == null) {
+        throw new IllegalArgumentException("No property for parameter: " + name);
+      }
+      bindValue(statement, i + 1, read(getter, bean));
+    }
+  }
+
+  private static Map<String, MethodHandle> getters(Class<?> type) {
+    try {
+      Map<String, MethodHandle> getters = new HashMap<>();
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      for (PropertyDescriptor property : Introspector.getBeanInfo(type).getPropertyDescriptors()) {
+        if (property.getReadMethod() != null) {
+          getters.put(property.getName(), getter(lookup, property.getReadMethod()));
+        }
+      }
+      return getters;
+    } catch (IntrospectionException | IllegalAccessException e) {
+      throw new IllegalStateException("Can not create property accessors for " + type, e);
+    }
+  }
+
+  static MethodHandle getter(MethodHandles.Lookup lookup, Method method)
+      throws IllegalAccessException {
+    try {
+      return lookup.unreflect(method);
+    } catch (IllegalAccessException e) {
+      // public getter of a type which is not accessible from this package
+      method.setAccessible(true);
+      return lookup.unreflect(method);
+    }
+  }
+
+  private static Object read(MethodHandle getter, Object bean) {
+    try {
+      return getter.invoke(bean);
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Can not read property", e);
+    }
+  }
+
+  private static void bindValue(PreparedStatement statement, int index, Object value)
+      throws SQLException {
+    if (value instanceof Collection) {
+      value = ((Collection<?>) value).toArray();
+    }
+    if (value instanceof Object[]) {
+      Object[] elements = (Object[]) value;
+      statement.setArray(
+          index, statement.getConnection().createArrayOf(arrayType(elements), elements));
+    } else {
+      statement.setObject(index, value);
+    }
+  }
+
+  private static String arrayType(Object[] elements) {
+    for (Object e : elements) {
+      if (e != null) {
+        return arrayTypes.getOrDefault(e.getClass(), "text");
+      }
+    }
+    return "text";
+  }
+
+  @Override
+  public String toString() {
+    return template;
+  }
+}
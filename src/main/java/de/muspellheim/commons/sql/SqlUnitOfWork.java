@@ -0,0 +1,27 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+
+/**
+ * A unit of work running several queries in a session.
+ *
+ * @param <T> result type of the unit of work
+ * @see SqlSessionTask
+ */
+@FunctionalInterface
+public interface SqlUnitOfWork<T> {
+
+  /**
+   * Run the queries of this unit of work.
+   *
+   * @param session the session to run the queries
+   * @return the result of the unit of work
+   * @throws SQLException if an error occurred
+   */
+  T execute(SqlSession session) throws SQLException;
+}
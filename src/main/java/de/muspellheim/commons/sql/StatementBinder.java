@@ -0,0 +1,28 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Bind the properties of an entity to the parameters of a prepared statement.
+ *
+ * @param <T> entity type.
+ * @see SqlBatchTask
+ */
+@FunctionalInterface
+public interface StatementBinder<T> {
+
+  /**
+   * Set the parameters of the statement to the properties of the entity.
+   *
+   * @param statement a prepared statement
+   * @param entity the entity to bind
+   * @throws SQLException if an error occurred
+   */
+  void bind(PreparedStatement statement, T entity) throws SQLException;
+}
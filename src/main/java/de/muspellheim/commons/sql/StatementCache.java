@@ -0,0 +1,102 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded LRU cache of prepared statements of a physical connection.
+ *
+ * <p>A statement is removed from the cache while it is in use and put back when it is closed. If
+ * the cache is full, the least recently used statement is closed.
+ */
+class StatementCache {
+
+  private final Connection connection;
+  private final int maxSize;
+  private final LongAdder hits;
+  private final LongAdder misses;
+  private final LongAdder evictions;
+  private final Map<String, PreparedStatement> statements;
+
+  private boolean closed;
+
+  StatementCache(
+      Connection connection, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+    this.connection = connection;
+    this.maxSize = maxSize;
+    this.hits = hits;
+    this.misses = misses;
+    this.evictions = evictions;
+    statements = new LinkedHashMap<>(16, 0.75f, true);
+  }
+
+  /**
+   * Take a cached statement or prepare a new one.
+   *
+   * @param handle the logical connection returned by the statement
+   * @param sql the SQL statement
+   * @return the prepared statement, closing it puts it back into the cache
+   * @throws SQLException if an error occurred
+   */
+  synchronized PreparedStatement prepareStatement(Connection handle, String sql)
+      throws SQLException {
+    PreparedStatement statement = statements.remove(sql);
+    if (statement != null && !statement.isClosed()) {
+      hits.increment();
+    } else {
+      misses.increment();
+      statement = connection.prepareStatement(sql);
+    }
+    return new CachedStatement(this, handle, sql, statement);
+  }
+
+  /**
+   * Put a statement back into the cache.
+   *
+   * @param sql the SQL statement
+   * @param statement the physical statement
+   */
+  synchronized void release(String sql, PreparedStatement statement) {
+    if (closed) {
+      close(statement);
+      return;
+    }
+
+    PreparedStatement previous = statements.put(sql, statement);
+    if (previous != null) {
+      close(previous);
+    }
+    if (statements.size() > maxSize) {
+      String eldest = statements.keySet().iterator().next();
+      close(statements.remove(eldest));
+      evictions.increment();
+    }
+  }
+
+  /** Close all cached statements, for example if the connection is discarded. */
+  synchronized void close() {
+    closed = true;
+    List<PreparedStatement> cached = new ArrayList<>(statements.values());
+    statements.clear();
+    cached.forEach(StatementCache::close);
+  }
+
+  private static void close(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException ignored) {
+      // statement is discarded anyway
+    }
+  }
+}
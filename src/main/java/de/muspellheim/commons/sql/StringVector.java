@@ -0,0 +1,103 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A growable, dictionary encoded vector of strings with a null bitmap.
+ *
+ * <p>Every distinct string is stored once in the dictionary, the vector stores the dictionary code
+ * of each value. So a column with repeating values needs only one <code>int</code> per row. A
+ * <code>NULL</code> is stored with code <code>-1</code> and marked in the null bitmap.
+ *
+ * @see ColumnarResult
+ */
+public class StringVector extends ColumnVector {
+
+  private final List<String> dictionary = new ArrayList<>();
+  private final Map<String, Integer> codes = new HashMap<>();
+  private int[] values = new int[DEFAULT_CAPACITY];
+
+  /**
+   * Appends a value.
+   *
+   * @param value the value, may be <code>null</code>
+   */
+  public void add(String value) {
+    if (value == null) {
+      addNull();
+      return;
+    }
+
+    ensureCapacity();
+    values[size()] = codes.computeIfAbsent(value, this::addToDictionary);
+    added(false);
+  }
+
+  private int addToDictionary(String value) {
+    dictionary.add(value);
+    return dictionary.size() - 1;
+  }
+
+  /** Appends a <code>NULL</code>. */
+  public void addNull() {
+    ensureCapacity();
+    values[size()] = -1;
+    added(true);
+  }
+
+  private void ensureCapacity() {
+    if (size() == values.length) {
+      values = Arrays.copyOf(values, grow(values.length));
+    }
+  }
+
+  /**
+   * Returns the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the value or <code>null</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   */
+  public String get(int index) {
+    checkIndex(index);
+    int code = values[index];
+    return code >= 0 ? dictionary.get(code) : null;
+  }
+
+  @Override
+  public String getObject(int index) {
+    return get(index);
+  }
+
+  /**
+   * Returns the dictionary code of the value at the given index.
+   *
+   * @param index the index of the value
+   * @return the dictionary code or <code>-1</code> if the value is <code>NULL</code>
+   * @throws IndexOutOfBoundsException if the index is out of range
+   * @see #getDictionary()
+   */
+  public int getCode(int index) {
+    checkIndex(index);
+    return values[index];
+  }
+
+  /**
+   * The dictionary of all distinct values, the dictionary code is the index in this list.
+   *
+   * @return the dictionary
+   */
+  public List<String> getDictionary() {
+    return Collections.unmodifiableList(dictionary);
+  }
+}
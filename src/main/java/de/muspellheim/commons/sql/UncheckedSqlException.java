@@ -0,0 +1,37 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import java.sql.SQLException;
+import lombok.NonNull;
+
+/** Wraps a SQL exception with an unchecked exception, for example in a stream. */
+public class UncheckedSqlException extends RuntimeException {
+
+  /**
+   * Wraps a SQL exception.
+   *
+   * @param message the detail message
+   * @param cause the SQL exception
+   */
+  public UncheckedSqlException(String message, @NonNull SQLException cause) {
+    super(message, cause);
+  }
+
+  /**
+   * Wraps a SQL exception.
+   *
+   * @param cause the SQL exception
+   */
+  public UncheckedSqlException(@NonNull SQLException cause) {
+    super(cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+}
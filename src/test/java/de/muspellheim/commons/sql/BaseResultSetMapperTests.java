@@ -15,6 +15,8 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -77,6 +79,45 @@ abstract class BaseResultSetMapperTests {
     assertEquals(Arrays.asList(ENTITY_1, ENTITY_2), entities);
   }
 
+  @Test
+  void listMappedTwice() throws Exception {
+    // Given
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+        ResultSet resultSet = statement.executeQuery();
+        mapper.mapList(resultSet);
+      }
+    }
+
+    // When
+    List<ExampleEntity> entities;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+        ResultSet resultSet = statement.executeQuery();
+        entities = mapper.mapList(resultSet);
+      }
+    }
+
+    // Then
+    assertEquals(Arrays.asList(ENTITY_1, ENTITY_2), entities);
+  }
+
+  @Test
+  void streamMapped() throws Exception {
+    // When
+    List<ExampleEntity> entities;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+        try (Stream<ExampleEntity> stream = mapper.mapStream(statement, 1)) {
+          entities = stream.collect(Collectors.toList());
+        }
+      }
+    }
+
+    // Then
+    assertEquals(Arrays.asList(ENTITY_1, ENTITY_2), entities);
+  }
+
   @Test
   void missingColumnMapper() {
     // When
@@ -0,0 +1,19 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+
+@Tag("postgres")
+class CompiledSetterResultSetMapperTests extends BaseResultSetMapperTests {
+
+  @BeforeEach
+  void setUp() {
+    super.setUp();
+    mapper = new CompiledSetterResultSetMapper<>(ExampleEntity.class);
+  }
+}
@@ -0,0 +1,291 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.muspellheim.commons.domain.ConnectionException;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.postgresql.PGConnection;
+
+@Tag("postgres")
+class ConnectionPoolTests {
+
+  private PostgresDatabase database;
+
+  private ConnectionPool createPool(PoolConfiguration poolConfiguration) {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons")
+            .withPool(poolConfiguration);
+    database = new PostgresDatabase(config);
+    return (ConnectionPool) database.getDataSource();
+  }
+
+  @AfterEach
+  void tearDown() {
+    database.close();
+  }
+
+  @Test
+  void connectionReused() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 2));
+
+    // When
+    PGConnection first;
+    try (Connection connection = pool.getConnection()) {
+      first = connection.unwrap(PGConnection.class);
+    }
+    PGConnection second;
+    try (Connection connection = pool.getConnection()) {
+      second = connection.unwrap(PGConnection.class);
+    }
+
+    // Then
+    PoolStatistics statistics = pool.getStatistics();
+    assertAll(
+        () -> assertSame(first, second, "same physical connection"),
+        () -> assertEquals(1, statistics.getCreatedConnections(), "created connections"),
+        () -> assertEquals(1, statistics.getIdleConnections(), "idle connections"),
+        () -> assertEquals(0, statistics.getActiveConnections(), "active connections"));
+  }
+
+  @Test
+  void closedConnectionNotUsable() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1));
+    Connection connection = pool.getConnection();
+
+    // When
+    connection.close();
+
+    // Then
+    assertAll(
+        () -> assertTrue(connection.isClosed(), "closed"),
+        () -> assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1;")));
+  }
+
+  @Test
+  void transactionRolledBackOnReturn() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1));
+    try (Connection connection = pool.getConnection()) {
+      connection.setAutoCommit(false);
+    }
+
+    // When
+    boolean autoCommit;
+    try (Connection connection = pool.getConnection()) {
+      autoCommit = connection.getAutoCommit();
+    }
+
+    // Then
+    assertTrue(autoCommit);
+  }
+
+  @Test
+  void acquisitionTimeout() throws Exception {
+    // Given
+    ConnectionPool pool =
+        createPool(PoolConfiguration.of(0, 1).withAcquisitionTimeout(Duration.ofMillis(50)));
+
+    // When
+    Executable executable =
+        () -> {
+          try {
+            pool.getConnection();
+          } catch (SQLException e) {
+            new SqlRepository().checkForRepositoryException(e);
+          }
+        };
+
+    // Then
+    try (Connection ignored = pool.getConnection()) {
+      assertThrows(ConnectionException.class, executable);
+    }
+    assertEquals(1, pool.getStatistics().getAcquisitionTimeouts());
+  }
+
+  @Test
+  void idleConnectionsEvicted() throws Exception {
+    // Given
+    ConnectionPool pool =
+        createPool(PoolConfiguration.of(0, 2).withIdleTimeout(Duration.ofMillis(50)));
+    pool.getConnection().close();
+
+    // When
+    Thread.sleep(500);
+
+    // Then
+    PoolStatistics statistics = pool.getStatistics();
+    assertAll(
+        () -> assertEquals(0, statistics.getTotalConnections(), "total connections"),
+        () -> assertEquals(1, statistics.getClosedConnections(), "closed connections"));
+  }
+
+  @Test
+  void minimumConnectionsOpened() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(2, 4));
+
+    // When
+    Thread.sleep(500);
+
+    // Then
+    assertEquals(2, pool.getStatistics().getIdleConnections());
+  }
+
+  @Test
+  void statementCached() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1).withStatementCacheSize(2));
+
+    // When
+    int value;
+    try (Connection connection = pool.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement("SELECT ?;")) {
+        statement.setInt(1, 1);
+        statement.executeQuery().close();
+      }
+      try (PreparedStatement statement = connection.prepareStatement("SELECT ?;")) {
+        statement.setInt(1, 2);
+        try (ResultSet resultSet = statement.executeQuery()) {
+          resultSet.next();
+          value = resultSet.getInt(1);
+        }
+      }
+    }
+
+    // Then
+    PoolStatistics statistics = pool.getStatistics();
+    assertAll(
+        () -> assertEquals(2, value, "value"),
+        () -> assertEquals(1, statistics.getStatementCacheHits(), "hits"),
+        () -> assertEquals(1, statistics.getStatementCacheMisses(), "misses"),
+        () -> assertEquals(0, statistics.getStatementCacheEvictions(), "evictions"));
+  }
+
+  @Test
+  void resultSetClosedWithCachedStatement() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1).withStatementCacheSize(1));
+
+    // When
+    ResultSet resultSet;
+    ResultSet generatedKeys;
+    try (Connection connection = pool.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement("SELECT 1;")) {
+        resultSet = statement.executeQuery();
+        generatedKeys = statement.getGeneratedKeys();
+      }
+    }
+
+    // Then
+    assertAll(
+        () -> assertTrue(resultSet.isClosed(), "result set closed"),
+        () -> assertTrue(generatedKeys.isClosed(), "generated keys closed"),
+        () -> assertEquals(1, pool.getStatistics().getIdleConnections(), "idle connections"));
+  }
+
+  @Test
+  void openStatementsClosedWithConnection() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1));
+
+    // When
+    Connection connection = pool.getConnection();
+    Statement statement = connection.createStatement();
+    PreparedStatement prepared = connection.prepareStatement("SELECT 1;");
+    CallableStatement callable = connection.prepareCall("SELECT 1;");
+    connection.close();
+
+    // Then
+    assertAll(
+        () -> assertTrue(statement.isClosed(), "statement closed"),
+        () -> assertTrue(prepared.isClosed(), "prepared statement closed"),
+        () -> assertTrue(callable.isClosed(), "callable statement closed"),
+        () -> assertEquals(1, pool.getStatistics().getIdleConnections(), "idle connections"));
+  }
+
+  @Test
+  void statementsReturnLogicalConnection() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1));
+
+    // When
+    List<Connection> connections;
+    try (Connection connection = pool.getConnection();
+        Statement statement = connection.createStatement();
+        PreparedStatement prepared = connection.prepareStatement("SELECT 1;");
+        CallableStatement callable = connection.prepareCall("SELECT 1;")) {
+      connections =
+          Arrays.asList(
+              connection,
+              statement.getConnection(),
+              prepared.getConnection(),
+              callable.getConnection());
+    }
+
+    // Then
+    assertAll(
+        () -> assertSame(connections.get(0), connections.get(1), "statement"),
+        () -> assertSame(connections.get(0), connections.get(2), "prepared statement"),
+        () -> assertSame(connections.get(0), connections.get(3), "callable statement"));
+  }
+
+  @Test
+  void statementEvicted() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(PoolConfiguration.of(0, 1).withStatementCacheSize(1));
+
+    // When
+    PreparedStatement evicted;
+    try (Connection connection = pool.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement("SELECT 1;")) {
+        evicted = statement.unwrap(PreparedStatement.class);
+      }
+      connection.prepareStatement("SELECT 2;").close();
+    }
+
+    // Then
+    PoolStatistics statistics = pool.getStatistics();
+    assertAll(
+        () -> assertEquals(1, statistics.getStatementCacheEvictions(), "evictions"),
+        () -> assertTrue(evicted.isClosed(), "evicted statement closed"));
+  }
+
+  @Test
+  void invalidSize() {
+    // Given
+    database =
+        new PostgresDatabase(
+            DatabaseConfiguration.of(
+                "localhost", 5432, "postgres", "", "java_muspellheim_commons"));
+
+    // When
+    Executable executable =
+        () -> new ConnectionPool(database.getDataSource(), PoolConfiguration.of(2, 1));
+
+    // Then
+    assertThrows(IllegalArgumentException.class, executable);
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+class EntityBinderTests {
+
+  @Test
+  void bind() throws Exception {
+    // Given
+    EntityBinder<ExampleEntity> binder =
+        new EntityBinder<>(
+            ExampleEntity.class, "family_name", "age", "weight", "valid_plz_entry", "day_of_birth");
+    ExampleEntity entity =
+        new ExampleEntity("Foo", 42, 74.7, true, LocalDateTime.of(2000, 12, 31, 23, 59));
+    List<String> calls = new ArrayList<>();
+
+    // When
+    binder.bind(statement(calls), entity);
+
+    // Then
+    assertEquals(
+        Arrays.asList(
+            "setString(1, Foo)",
+            "setInt(2, 42)",
+            "setDouble(3, 74.7)",
+            "setBoolean(4, true)",
+            "setObject(5, 2000-12-31T23:59)"),
+        calls);
+  }
+
+  @Test
+  void bindNull() throws Exception {
+    // Given
+    EntityBinder<ExampleEntity> binder =
+        new EntityBinder<>(ExampleEntity.class, "day_of_birth", "family_name");
+    List<String> calls = new ArrayList<>();
+
+    // When
+    binder.bind(statement(calls), new ExampleEntity());
+
+    // Then
+    assertEquals(Arrays.asList("setObject(1, null)", "setString(2, null)"), calls);
+  }
+
+  @Test
+  void customMapping() throws Exception {
+    // Given
+    EntityBinder.registerMapping(
+        String.class,
+        (statement, parameterIndex, value) -> statement.setString(parameterIndex, value + "!"));
+    try {
+      EntityBinder<ExampleEntity> binder = new EntityBinder<>(ExampleEntity.class, "family_name");
+      List<String> calls = new ArrayList<>();
+
+      // When
+      binder.bind(statement(calls), new ExampleEntity("Foo", 42, 0, false, null));
+
+      // Then
+      assertEquals(Arrays.asList("setString(1, Foo!)"), calls);
+    } finally {
+      EntityBinder.registerMapping(String.class, PreparedStatement::setString);
+    }
+  }
+
+  @Test
+  void bindNonPublicEntity() throws Exception {
+    // Given
+    EntityBinder<PrivateEntity> binder = new EntityBinder<>(PrivateEntity.class, "name");
+    List<String> calls = new ArrayList<>();
+
+    // When
+    binder.bind(statement(calls), new PrivateEntity("Foo"));
+
+    // Then
+    assertEquals(Arrays.asList("setString(1, Foo)"), calls);
+  }
+
+  @Test
+  void unknownColumn() {
+    // When
+    Executable executable = () -> new EntityBinder<>(ExampleEntity.class, "height");
+
+    // Then
+    assertThrows(IllegalArgumentException.class, executable);
+  }
+
+  private static PreparedStatement statement(List<String> calls) {
+    return (PreparedStatement)
+        Proxy.newProxyInstance(
+            EntityBinderTests.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            (proxy, method, args) -> {
+              calls.add(method.getName() + "(" + args[0] + ", " + args[1] + ")");
+              return null;
+            });
+  }
+
+  @Data
+  @AllArgsConstructor
+  private static class PrivateEntity {
+    String name;
+  }
+}
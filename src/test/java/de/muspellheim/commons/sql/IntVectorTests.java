@@ -0,0 +1,68 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class IntVectorTests {
+
+  @Test
+  void empty() {
+    // When
+    IntVector vector = new IntVector();
+
+    // Then
+    assertAll(
+        () -> assertEquals(0, vector.size(), "size"),
+        () -> assertEquals(0, vector.toArray().length, "array length"),
+        () -> assertThrows(IndexOutOfBoundsException.class, () -> vector.get(0), "get"));
+  }
+
+  @Test
+  void grown() {
+    // Given
+    IntVector vector = new IntVector(1);
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      vector.add(i);
+    }
+
+    // Then
+    assertAll(
+        () -> assertEquals(100, vector.size(), "size"),
+        () -> assertEquals(99, vector.get(99), "last value"),
+        () -> assertEquals(0, vector.getNullCount(), "null count"));
+  }
+
+  @Test
+  void nullsMarked() {
+    // Given
+    IntVector vector = new IntVector();
+
+    // When
+    vector.add(1);
+    vector.addNull();
+    vector.add(3);
+
+    // Then
+    assertAll(
+        () -> assertFalse(vector.isNull(0), "first is null"),
+        () -> assertTrue(vector.isNull(1), "second is null"),
+        () -> assertNull(vector.getObject(1), "second object"),
+        () -> assertEquals(1, vector.getNullCount(), "null count"),
+        () -> assertArrayEquals(new int[] {1, 0, 3}, vector.toArray(), "array"),
+        () -> assertArrayEquals(new int[] {1, -1, 3}, vector.toArray(-1), "array with sentinel"));
+  }
+}
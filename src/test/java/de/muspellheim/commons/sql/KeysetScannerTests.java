@@ -0,0 +1,133 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.function.Executable;
+
+@Tag("postgres")
+class KeysetScannerTests {
+
+  // language=PostgreSQL
+  private static final String QUERY =
+      "SELECT 'Foo' || n AS family_name, n AS age, 74.7 AS weight, true AS valid_plz_entry,\n"
+          + "    '2000-12-31 23:59'::timestamp AS day_of_birth\n"
+          + "FROM generate_series(1, 25) AS n;";
+
+  private DataSource dataSource;
+  private ResultSetMapper<ExampleEntity> mapper;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+    mapper = new ConstructorResultSetMapper<>(ExampleEntity.class);
+  }
+
+  @Test
+  @Timeout(2)
+  void scanPages() {
+    // Given
+    KeysetScanner<ExampleEntity, Integer> scanner =
+        new KeysetScanner<>(dataSource, QUERY, "age", mapper, ExampleEntity::getAge);
+    scanner.setPageSize(10);
+
+    // When
+    List<Integer> ages = scanner.stream().map(ExampleEntity::getAge).collect(Collectors.toList());
+
+    // Then
+    assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()), ages);
+  }
+
+  @Test
+  @Timeout(2)
+  void scanPagesWithPrefetch() {
+    // Given
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    KeysetScanner<ExampleEntity, Integer> scanner =
+        new KeysetScanner<>(dataSource, QUERY, "age", mapper, ExampleEntity::getAge);
+    scanner.setPageSize(5);
+    scanner.setPrefetchExecutor(executor);
+
+    // When
+    List<Integer> ages = new ArrayList<>();
+    for (ExampleEntity entity : scanner) {
+      ages.add(entity.getAge());
+    }
+
+    // Then
+    executor.shutdown();
+    assertEquals(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()), ages);
+  }
+
+  @Test
+  @Timeout(2)
+  void closingStreamCancelsPrefetchedPage() {
+    // Given
+    List<Runnable> tasks = new ArrayList<>();
+    KeysetScanner<ExampleEntity, Integer> scanner =
+        new KeysetScanner<>(dataSource, QUERY, "age", mapper, ExampleEntity::getAge);
+    scanner.setPrefetchExecutor(tasks::add);
+
+    // When
+    Stream<ExampleEntity> stream = scanner.stream();
+    stream.close();
+
+    // Then
+    Future<?> prefetched = (Future<?>) tasks.get(0);
+    assertAll(
+        () -> assertEquals(1, tasks.size(), "prefetched pages"),
+        () -> assertTrue(prefetched.isCancelled(), "prefetched page cancelled"));
+  }
+
+  @Test
+  @Timeout(2)
+  void nullKeyRejected() {
+    // Given
+    KeysetScanner<ExampleEntity, Integer> scanner =
+        new KeysetScanner<>(dataSource, QUERY, "age", mapper, e -> null);
+    scanner.setPageSize(10);
+
+    // When
+    Executable executable = () -> scanner.stream().count();
+
+    // Then
+    assertThrows(IllegalStateException.class, executable);
+  }
+
+  @Test
+  @Timeout(2)
+  void invalidQuery() {
+    // Given
+    KeysetScanner<ExampleEntity, Integer> scanner =
+        new KeysetScanner<>(dataSource, "SELECT foo;", "age", mapper, ExampleEntity::getAge);
+
+    // When
+    Executable executable = () -> scanner.iterator().hasNext();
+
+    // Then
+    assertThrows(UncheckedSqlException.class, executable);
+  }
+}
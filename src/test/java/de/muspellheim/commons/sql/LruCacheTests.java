@@ -0,0 +1,52 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class LruCacheTests {
+
+  @Test
+  void leastRecentlyUsedEvicted() {
+    // Given
+    LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.get("a");
+
+    // When
+    cache.put("c", 3);
+
+    // Then
+    assertAll(
+        () -> assertEquals(1, cache.get("a"), "recently used"),
+        () -> assertNull(cache.get("b"), "least recently used"),
+        () -> assertEquals(3, cache.get("c"), "added"),
+        () -> assertEquals(2, cache.size(), "size"),
+        () -> assertEquals(1, cache.getEvictions(), "evictions"));
+  }
+
+  @Test
+  void computedOnlyIfAbsent() {
+    // Given
+    LruCache<String, Integer> cache = new LruCache<>(2);
+    cache.put("a", 1);
+
+    // When
+    int cached = cache.computeIfAbsent("a", String::length);
+    int computed = cache.computeIfAbsent("bb", String::length);
+
+    // Then
+    assertAll(
+        () -> assertEquals(1, cached, "cached"),
+        () -> assertEquals(2, computed, "computed"),
+        () -> assertEquals(2, cache.get("bb"), "stored"));
+  }
+}
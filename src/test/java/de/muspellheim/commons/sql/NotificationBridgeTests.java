@@ -0,0 +1,170 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.muspellheim.commons.util.EventBus;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("postgres")
+class NotificationBridgeTests {
+
+  private DatabaseConfiguration config;
+  private PostgresDatabase database;
+  private BlockingQueue<NotificationBatch> batches;
+  private NotificationBridge bridge;
+
+  @BeforeEach
+  void setUp() {
+    config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    database = new PostgresDatabase(config);
+    batches = new LinkedBlockingQueue<>();
+    EventBus eventBus = new EventBus("Notification Bridge Tests");
+    eventBus.subscribe(NotificationBatch.class, batches::add);
+    bridge =
+        new NotificationBridge(
+            database,
+            eventBus,
+            NotificationBridgeConfiguration.of()
+                .withPollInterval(Duration.ofMillis(50))
+                .withReconnectDelay(Duration.ofMillis(10)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    bridge.close();
+    database.close();
+  }
+
+  @Test
+  void publishBurstAsBatch() throws Exception {
+    // Given
+    bridge.listen("bridge_test");
+    awaitListening("bridge_test");
+
+    // When
+    execute(
+        "SELECT pg_notify('bridge_test', 'Foo');",
+        "SELECT pg_notify('bridge_test', 'Bar');",
+        "SELECT pg_notify('bridge_test', 'Foo');");
+
+    // Then
+    NotificationBatch batch = batches.poll(5, TimeUnit.SECONDS);
+    assertAll(
+        () -> assertEquals("bridge_test", batch.getChannel(), "channel"),
+        () -> assertEquals(3, batch.getNotifications().size(), "notifications"),
+        () -> assertEquals(Arrays.asList("Foo", "Bar"), batch.getPayloads(), "payloads"));
+  }
+
+  @Test
+  void reconnectAndListenAgain() throws Exception {
+    // Given
+    bridge.listen("bridge_test");
+    awaitListening("bridge_test");
+
+    // When
+    execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE query LIKE 'LISTEN%';");
+
+    // Then
+    NotificationBatch reconnected = batches.poll(5, TimeUnit.SECONDS);
+    awaitListening("bridge_test");
+    execute("SELECT pg_notify('bridge_test', 'Foo');");
+    NotificationBatch batch = batches.poll(5, TimeUnit.SECONDS);
+    assertAll(
+        () -> assertTrue(bridge.isConnected(), "connected"),
+        () ->
+            assertEquals(
+                NotificationBatch.of("bridge_test", Collections.emptyList()),
+                reconnected,
+                "empty batch after reconnect"),
+        () -> assertEquals(Collections.singletonList("Foo"), batch.getPayloads(), "payloads"));
+  }
+
+  @Test
+  void reconnectAfterRuntimeException() throws Exception {
+    // Given
+    BlockingQueue<Throwable> errors = new LinkedBlockingQueue<>();
+    Thread.UncaughtExceptionHandler defaultHandler = Thread.getDefaultUncaughtExceptionHandler();
+    Thread.setDefaultUncaughtExceptionHandler((t, e) -> errors.add(e));
+    AtomicBoolean failed = new AtomicBoolean();
+    PostgresDatabase failingDatabase =
+        new PostgresDatabase(config) {
+          @Override
+          public Connection getDedicatedConnection() throws SQLException {
+            if (failed.compareAndSet(false, true)) {
+              throw new IllegalStateException("Foobar");
+            }
+            return super.getDedicatedConnection();
+          }
+        };
+
+    // When
+    NotificationBridge failingBridge =
+        new NotificationBridge(
+            failingDatabase,
+            new EventBus("Failing Notification Bridge Tests"),
+            NotificationBridgeConfiguration.of()
+                .withPollInterval(Duration.ofMillis(50))
+                .withReconnectDelay(Duration.ofMillis(10)));
+    try {
+      failingBridge.listen("failing_bridge_test");
+      awaitListening("failing_bridge_test");
+
+      // Then
+      Throwable error = errors.poll(5, TimeUnit.SECONDS);
+      assertAll(
+          () -> assertTrue(error instanceof IllegalStateException, "reported exception"),
+          () -> assertTrue(failingBridge.isConnected(), "connected"));
+    } finally {
+      failingBridge.close();
+      Thread.setDefaultUncaughtExceptionHandler(defaultHandler);
+    }
+  }
+
+  private void awaitListening(String channel) throws Exception {
+    String sql =
+        "SELECT count(*) FROM pg_stat_activity WHERE query = 'LISTEN \"" + channel + "\"';";
+    for (int i = 0; i < 100; i++) {
+      try (Connection connection = database.getDataSource().getConnection();
+          Statement statement = connection.createStatement();
+          ResultSet resultSet = statement.executeQuery(sql)) {
+        resultSet.next();
+        if (resultSet.getInt(1) > 0) {
+          return;
+        }
+      }
+      Thread.sleep(50);
+    }
+    throw new IllegalStateException("Bridge does not listen to " + channel);
+  }
+
+  private void execute(String... sqls) throws SQLException {
+    try (Connection connection = database.getDataSource().getConnection();
+        Statement statement = connection.createStatement()) {
+      for (String sql : sqls) {
+        statement.execute(sql);
+      }
+    }
+  }
+}
@@ -0,0 +1,266 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.postgresql.ds.PGSimpleDataSource;
+
+class PostgresArraysTests {
+
+  @Test
+  void decodeText() throws Exception {
+    // When
+    int[] ints = PostgresArrays.toIntArray(bytes("{1,NULL,-3}"));
+    long[] longs = PostgresArrays.toLongArray(bytes("[0:1]={2,3}"));
+    double[] doubles = PostgresArrays.toDoubleArray(bytes("{1.5,NaN,-Infinity}"));
+    String[] strings = PostgresArrays.toStringArray(bytes("{\"a\\\"b\",NULL,\"NULL\",\"x,y\",z}"));
+
+    // Then
+    assertAll(
+        () -> assertArrayEquals(new int[] {1, 0, -3}, ints, "ints"),
+        () -> assertArrayEquals(new long[] {2, 3}, longs, "longs"),
+        () ->
+            assertArrayEquals(
+                new double[] {1.5, Double.NaN, Double.NEGATIVE_INFINITY}, doubles, "doubles"),
+        () ->
+            assertArrayEquals(new String[] {"a\"b", null, "NULL", "x,y", "z"}, strings, "strings"));
+  }
+
+  @Test
+  void decodeBinary() throws Exception {
+    // Given
+    byte[] int4Array = {
+      0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 23, 0, 0, 0, 3, 0, 0, 0, 1, 0, 0, 0, 4, 0, 0, 0, 1, -1, -1,
+      -1, -1, 0, 0, 0, 4, -1, -1, -1, -3
+    };
+    byte[] float8Array = {
+      0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 2, -67, 0, 0, 0, 2, 0, 0, 0, 1, 0, 0, 0, 8, 63, -8, 0, 0, 0, 0,
+      0, 0, -1, -1, -1, -1
+    };
+    byte[] emptyArray = {0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 23};
+
+    // When
+    int[] ints = PostgresArrays.toIntArray(int4Array);
+    long[] longs = PostgresArrays.toLongArray(int4Array);
+    double[] doubles = PostgresArrays.toDoubleArray(float8Array);
+    float[] floats = PostgresArrays.toFloatArray(float8Array);
+    int[] empty = PostgresArrays.toIntArray(emptyArray);
+
+    // Then
+    assertAll(
+        () -> assertArrayEquals(new int[] {1, 0, -3}, ints, "ints"),
+        () -> assertArrayEquals(new long[] {1, 0, -3}, longs, "longs"),
+        () -> assertArrayEquals(new double[] {1.5, 0}, doubles, "doubles"),
+        () -> assertArrayEquals(new float[] {1.5f, 0}, floats, "floats"),
+        () -> assertEquals(0, empty.length, "empty"));
+  }
+
+  @Test
+  void multidimensionalArrayNotSupported() {
+    // When
+    Executable executable = () -> PostgresArrays.toIntArray(bytes("{{1,2},{3,4}}"));
+
+    // Then
+    assertThrows(SQLDataException.class, executable);
+  }
+
+  @Test
+  void intOverflowNotSupported() {
+    // Given
+    byte[] int8Array = {
+      0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 20, 0, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 8, 0, 0, 0, 0, -128, 0,
+      0, 0
+    };
+
+    // When
+    Executable binary = () -> PostgresArrays.toIntArray(int8Array);
+    Executable text = () -> PostgresArrays.toIntArray(bytes("{2147483648}"));
+
+    // Then
+    assertAll(
+        () -> assertThrows(SQLDataException.class, binary, "binary"),
+        () -> assertThrows(SQLDataException.class, text, "text"));
+  }
+
+  @Test
+  void encodeText() {
+    // When
+    String ints = PostgresArrays.toText(new int[] {1, -2});
+    String strings = PostgresArrays.toText(new String[] {"a\"b", null});
+
+    // Then
+    assertAll(
+        () -> assertEquals("{1,-2}", ints, "ints"),
+        () -> assertEquals("{\"a\\\"b\",NULL}", strings, "strings"));
+  }
+
+  @Test
+  @Tag("postgres")
+  void mapBinaryTransfer() throws Exception {
+    // When
+    List<Object> values = queryArrays(-1);
+
+    // Then
+    assertArrays(values);
+  }
+
+  @Test
+  @Tag("postgres")
+  void mapTextTransfer() throws Exception {
+    // When
+    List<Object> values = queryArrays(0);
+
+    // Then
+    assertArrays(values);
+  }
+
+  @Test
+  @Tag("postgres")
+  void mapJdbcArrays() throws Exception {
+    // Given
+    // language=PostgreSQL
+    String sql =
+        "SELECT ARRAY[1, NULL, 3]::int8[] AS ints, ARRAY[0.25, 2]::float4[] AS floats,\n"
+            + "    ARRAY['Foo', NULL]::text[] AS strings;";
+
+    // When
+    List<Object> values;
+    try (Connection connection = dataSource(-1).getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      values =
+          Arrays.asList(
+              PostgresArrays.toIntArray(resultSet.getArray("ints")),
+              PostgresArrays.toFloatArray(resultSet.getArray("floats")),
+              PostgresArrays.toStringArray(resultSet.getArray("strings")),
+              PostgresArrays.toLongArray((Array) null));
+    }
+
+    // Then
+    assertArrays(values);
+  }
+
+  @Test
+  void mapWithoutPostgresDriver() throws Exception {
+    // Given
+    URL classes = PostgresArrays.class.getProtectionDomain().getCodeSource().getLocation();
+    ResultSet resultSet = resultSet(new Integer[] {1, null, 3});
+
+    // When
+    Object value;
+    boolean driverLoaded;
+    try (URLClassLoader classLoader =
+        new URLClassLoader(new URL[] {classes}, ClassLoader.getSystemClassLoader().getParent())) {
+      Method mapValue =
+          classLoader
+              .loadClass(ResultSetMapper.class.getName())
+              .getMethod("mapValue", ResultSet.class, String.class, Class.class);
+      value = mapValue.invoke(null, resultSet, "ints", int[].class);
+      driverLoaded = isLoadable(classLoader, "org.postgresql.jdbc.PgResultSet");
+    }
+
+    // Then
+    assertAll(
+        () -> assertFalse(driverLoaded, "driver loaded"),
+        () -> assertArrayEquals(new int[] {1, 0, 3}, (int[]) value, "ints"));
+  }
+
+  private static ResultSet resultSet(Object[] elements) {
+    Array array =
+        (Array)
+            Proxy.newProxyInstance(
+                Array.class.getClassLoader(),
+                new Class<?>[] {Array.class},
+                (proxy, method, args) -> "getArray".equals(method.getName()) ? elements : null);
+    return (ResultSet)
+        Proxy.newProxyInstance(
+            ResultSet.class.getClassLoader(),
+            new Class<?>[] {ResultSet.class},
+            (proxy, method, args) -> {
+              switch (method.getName()) {
+                case "findColumn":
+                  return 1;
+                case "getArray":
+                  return array;
+                case "isWrapperFor":
+                case "wasNull":
+                  return false;
+                default:
+                  throw new UnsupportedOperationException(method.getName());
+              }
+            });
+  }
+
+  private static boolean isLoadable(ClassLoader classLoader, String name) {
+    try {
+      classLoader.loadClass(name);
+      return true;
+    } catch (ClassNotFoundException e) {
+      return false;
+    }
+  }
+
+  private static PGSimpleDataSource dataSource(int prepareThreshold) {
+    PGSimpleDataSource dataSource = new PGSimpleDataSource();
+    dataSource.setServerName("localhost");
+    dataSource.setUser("postgres");
+    dataSource.setDatabaseName("java_muspellheim_commons");
+    dataSource.setPrepareThreshold(prepareThreshold);
+    return dataSource;
+  }
+
+  private static List<Object> queryArrays(int prepareThreshold) throws SQLException {
+    // language=PostgreSQL
+    String sql =
+        "SELECT ARRAY[1, NULL, 3]::int[] AS ints, ARRAY[0.25, 2]::float4[] AS floats,\n"
+            + "    ARRAY['Foo', NULL]::text[] AS strings, NULL::bigint[] AS longs;";
+    try (Connection connection = dataSource(prepareThreshold).getConnection();
+        PreparedStatement statement = connection.prepareStatement(sql);
+        ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return Arrays.asList(
+          ResultSetMapper.mapValue(resultSet, "ints", int[].class),
+          ResultSetMapper.mapValue(resultSet, "floats", float[].class),
+          ResultSetMapper.mapValue(resultSet, "strings", String[].class),
+          ResultSetMapper.mapValue(resultSet, "longs", long[].class));
+    }
+  }
+
+  private static void assertArrays(List<Object> values) {
+    assertAll(
+        () -> assertArrayEquals(new int[] {1, 0, 3}, (int[]) values.get(0), "ints"),
+        () -> assertArrayEquals(new float[] {0.25f, 2f}, (float[]) values.get(1), "floats"),
+        () -> assertArrayEquals(new String[] {"Foo", null}, (String[]) values.get(2), "strings"),
+        () -> assertNull(values.get(3), "null array"));
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.Data;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+
+@Tag("postgres")
+class PostgresCopyTests {
+
+  private static final ExampleEntity ENTITY_1 =
+      new ExampleEntity("Foo\tBar\\Baz", 42, 74.7, true, LocalDateTime.of(2000, 12, 31, 23, 59));
+  private static final ExampleEntity ENTITY_2 =
+      new ExampleEntity("Multi\nLine", 24, 47.4, false, LocalDateTime.of(1999, 8, 2, 12, 0, 1));
+
+  private static final List<String> COLUMNS =
+      Arrays.asList("family_name", "age", "weight", "valid_plz_entry", "day_of_birth");
+
+  private DataSource dataSource;
+  private PostgresCopy copy;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+    copy = new PostgresCopy(dataSource);
+    // language=PostgreSQL
+    execute(
+        "CREATE TABLE copy_example (family_name VARCHAR(32), age INTEGER, weight DOUBLE PRECISION, "
+            + "valid_plz_entry BOOLEAN, day_of_birth TIMESTAMP);");
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    // language=PostgreSQL
+    execute("DROP TABLE copy_example;");
+  }
+
+  @Test
+  void copyInAndOut() throws Exception {
+    // Given
+    long loaded =
+        copy.copyIn(
+            "copy_example",
+            COLUMNS,
+            Arrays.asList(ENTITY_1, ENTITY_2),
+            e ->
+                new Object[] {
+                  e.getFamilyName(),
+                  e.getAge(),
+                  e.getWeight(),
+                  e.isValidPlzEntry(),
+                  e.getDayOfBirth()
+                });
+
+    // When
+    List<ExampleEntity> entities = new ArrayList<>();
+    long exported =
+        copy.copyOut(
+            "SELECT * FROM copy_example ORDER BY age DESC;",
+            new ConstructorResultSetMapper<>(ExampleEntity.class),
+            entities::add);
+
+    // Then
+    assertAll(
+        () -> assertEquals(2, loaded, "loaded rows"),
+        () -> assertEquals(2, exported, "exported rows"),
+        () -> assertEquals(Arrays.asList(ENTITY_1, ENTITY_2), entities, "entities"));
+  }
+
+  @Test
+  void copyNullValues() throws Exception {
+    // Given
+    copy.copyIn(
+        "copy_example",
+        Arrays.asList("family_name", "age"),
+        Arrays.asList("Foo", "Bar"),
+        name -> new Object[] {name, null});
+
+    // When
+    List<ExampleEntity> entities = new ArrayList<>();
+    copy.copyOut(
+        "SELECT family_name, age FROM copy_example ORDER BY family_name",
+        new SetterResultSetMapper<>(ExampleEntity.class),
+        entities::add);
+
+    // Then
+    assertEquals(
+        Arrays.asList(
+            new ExampleEntity("Bar", 0, 0.0, false, null),
+            new ExampleEntity("Foo", 0, 0.0, false, null)),
+        entities);
+  }
+
+  @Test
+  void valueCountMismatch() {
+    // When
+    Executable executable =
+        () ->
+            copy.copyIn(
+                "copy_example",
+                COLUMNS,
+                Arrays.asList(ENTITY_1, ENTITY_2),
+                e -> new Object[] {e.getFamilyName()});
+
+    // Then
+    assertThrows(IllegalArgumentException.class, executable);
+  }
+
+  @Test
+  void copyArrays() throws Exception {
+    // Given
+    // language=PostgreSQL
+    execute("ALTER TABLE copy_example ADD COLUMN numbers INTEGER[], ADD COLUMN names TEXT[];");
+    copy.copyIn(
+        "copy_example",
+        Arrays.asList("numbers", "names"),
+        Collections.singletonList("Foo"),
+        name -> new Object[] {new int[] {1, -2}, new String[] {"A\tB\\", null, "\"C,D\""}});
+
+    // When
+    List<ArrayEntity> entities = new ArrayList<>();
+    copy.copyOut(
+        "SELECT numbers, names FROM copy_example;",
+        new SetterResultSetMapper<>(ArrayEntity.class),
+        entities::add);
+
+    // Then
+    assertAll(
+        () -> assertEquals(1, entities.size(), "rows"),
+        () -> assertArrayEquals(new int[] {1, -2}, entities.get(0).getNumbers(), "numbers"),
+        () ->
+            assertArrayEquals(
+                new String[] {"A\tB\\", null, "\"C,D\""}, entities.get(0).getNames(), "names"));
+  }
+
+  @Test
+  void unsupportedTypeRejected() throws Exception {
+    // When
+    Executable executable =
+        () ->
+            copy.copyIn(
+                "copy_example",
+                Collections.singletonList("family_name"),
+                Collections.singletonList("Foo"),
+                name -> new Object[] {new StringBuilder(name)});
+
+    // Then
+    assertAll(
+        () -> assertThrows(IllegalArgumentException.class, executable),
+        () -> assertEquals(0, countRows(), "loaded rows"));
+  }
+
+  @Test
+  void consumerFailureIsNotReplaced() throws Exception {
+    // Given
+    copy.copyIn(
+        "copy_example",
+        Arrays.asList("family_name", "age"),
+        Arrays.asList("Foo", "Bar"),
+        name -> new Object[] {name, 42});
+
+    // When
+    Executable executable =
+        () ->
+            copy.copyOut(
+                "SELECT family_name, age FROM copy_example;",
+                new CompiledSetterResultSetMapper<>(ExampleEntity.class),
+                e -> {
+                  throw new IllegalStateException("stop");
+                });
+
+    // Then
+    Throwable exception = assertThrows(IllegalStateException.class, executable);
+    assertEquals("stop", exception.getMessage());
+  }
+
+  private long countRows() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM copy_example;")) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  @Data
+  public static class ArrayEntity {
+    int[] numbers;
+    String[] names;
+  }
+}
@@ -0,0 +1,191 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Tag("postgres")
+class QueryCacheTests {
+
+  // language=PostgreSQL
+  private static final String SQL = "SELECT ?::integer * 2;";
+
+  private static final List<String> TAGS = Collections.singletonList("example");
+
+  private DataSource dataSource;
+  private AtomicInteger executions;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+    executions = new AtomicInteger();
+  }
+
+  @Test
+  void cached() throws Exception {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(10, Duration.ofHours(1)));
+
+    // When
+    int first = cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+    int second = cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+    int other = cache.query(SQL, Collections.singletonList(4), TAGS, this::value);
+
+    // Then
+    QueryCacheStatistics statistics = cache.getStatistics();
+    assertAll(
+        () -> assertEquals(42, first, "first"),
+        () -> assertEquals(42, second, "second"),
+        () -> assertEquals(8, other, "other"),
+        () -> assertEquals(2, executions.get(), "executions"),
+        () -> assertEquals(QueryCacheStatistics.of(1, 2, 0, 0, 2), statistics, "statistics"));
+  }
+
+  @Test
+  void invalidatedByTag() throws Exception {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(10, Duration.ofHours(1)));
+    cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(4), Collections.singletonList("other"), this::value);
+
+    // When
+    cache.invalidate("example");
+    cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(4), Collections.singletonList("other"), this::value);
+
+    // Then
+    assertEquals(3, executions.get());
+  }
+
+  @Test
+  void expired() throws Exception {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(10, Duration.ofMillis(50)));
+    cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+
+    // When
+    Thread.sleep(100);
+    cache.query(SQL, Collections.singletonList(21), TAGS, this::value);
+
+    // Then
+    assertAll(
+        () -> assertEquals(2, executions.get(), "executions"),
+        () -> assertEquals(1, cache.getStatistics().getEvictionCount(), "evictions"));
+  }
+
+  @Test
+  void leastRecentlyUsedEvicted() throws Exception {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(2, Duration.ofHours(1)));
+    cache.query(SQL, Collections.singletonList(1), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(2), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(1), TAGS, this::value);
+
+    // When
+    cache.query(SQL, Collections.singletonList(3), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(1), TAGS, this::value);
+    cache.query(SQL, Collections.singletonList(2), TAGS, this::value);
+
+    // Then
+    assertAll(
+        () -> assertEquals(4, executions.get(), "executions"),
+        () -> assertEquals(2, cache.getStatistics().getSize(), "size"));
+  }
+
+  @Test
+  @Timeout(5)
+  void concurrentMissesLoadOnce() throws Exception {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(10, Duration.ofHours(1)));
+    // language=PostgreSQL
+    String sql = "SELECT ?::integer FROM pg_sleep(0.3);";
+
+    // When
+    CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> query(cache, sql));
+    CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> query(cache, sql));
+
+    // Then
+    assertAll(
+        () -> assertEquals(42, first.get(), "first"),
+        () -> assertEquals(42, second.get(), "second"),
+        () -> assertEquals(1, executions.get(), "executions"),
+        () -> assertEquals(1, cache.getStatistics().getSharedLoadCount(), "shared loads"));
+  }
+
+  @Test
+  @Timeout(5)
+  void concurrentMissesFailWithError() {
+    // Given
+    QueryCache cache =
+        new QueryCache(dataSource, QueryCacheConfiguration.of(10, Duration.ofHours(1)));
+    // language=PostgreSQL
+    String sql = "SELECT ?::integer FROM pg_sleep(0.3);";
+    SqlQuery<Integer> failing =
+        statement -> {
+          statement.execute();
+          throw new AssertionError("failed");
+        };
+
+    // When
+    CompletableFuture<Integer> first =
+        CompletableFuture.supplyAsync(() -> query(cache, sql, failing));
+    CompletableFuture<Integer> second =
+        CompletableFuture.supplyAsync(() -> query(cache, sql, failing));
+
+    // Then
+    ExecutionException firstException = assertThrows(ExecutionException.class, first::get);
+    ExecutionException secondException = assertThrows(ExecutionException.class, second::get);
+    assertAll(
+        () -> assertTrue(firstException.getCause() instanceof AssertionError, "first"),
+        () -> assertTrue(secondException.getCause() instanceof AssertionError, "second"));
+  }
+
+  private int query(QueryCache cache, String sql) {
+    return query(cache, sql, this::value);
+  }
+
+  private int query(QueryCache cache, String sql, SqlQuery<Integer> query) {
+    try {
+      return cache.query(sql, Collections.singletonList(42), TAGS, query);
+    } catch (SQLException e) {
+      throw new UncheckedSqlException("Query failed", e);
+    }
+  }
+
+  private int value(PreparedStatement statement) throws SQLException {
+    executions.incrementAndGet();
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+@Tag("postgres")
+class QueryMetricsTests {
+
+  // language=PostgreSQL
+  private static final String SQL =
+      "SELECT * FROM (VALUES ('Foo', 42), ('Bar', 24)) AS t(family_name, age) WHERE age > 10;";
+
+  private DataSource dataSource;
+  private final List<QueryEvent> events = new ArrayList<>();
+  private final QueryListener listener = events::add;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+  }
+
+  @AfterEach
+  void tearDown() {
+    QueryMetrics.removeListener(listener);
+    QueryMetrics.unregisterMBean();
+    QueryMetrics.reset();
+  }
+
+  @Test
+  void disabledByDefault() {
+    assertFalse(QueryMetrics.isEnabled());
+  }
+
+  @Test
+  void listenerNotified() throws Exception {
+    // Given
+    QueryMetrics.addListener(listener);
+    SqlQueryTask<List<ExampleEntity>> task = createQueryTask();
+
+    // When
+    task.run();
+
+    // Then
+    QueryEvent event = events.get(0);
+    assertAll(
+        () -> assertEquals(1, events.size(), "events"),
+        () -> assertEquals(SQL, event.getSql(), "sql"),
+        () ->
+            assertEquals(
+                "SELECT * FROM (VALUES (?), (?)) AS t(family_name, age) WHERE age > ?;",
+                event.getFingerprint(),
+                "fingerprint"),
+        () -> assertEquals(2, event.getRows(), "rows"),
+        () -> assertTrue(event.getExecutionNanos() > 0, "execution"),
+        () -> assertTrue(event.getMappingNanos() > 0, "mapping"),
+        () -> assertFalse(event.isFailed(), "failed"));
+  }
+
+  @Test
+  void parameterTypesRecorded() throws Exception {
+    // Given
+    QueryMetrics.addListener(listener);
+    SqlQueryTask<Integer> task =
+        new SqlQueryTask<>(
+            dataSource,
+            "SELECT ?::text, ?::int, ?::int;",
+            statement -> {
+              statement.setString(1, "Foo");
+              statement.setNull(2, Types.INTEGER);
+              statement.setInt(3, 42);
+              return statement.executeQuery().next() ? 1 : 0;
+            });
+
+    // When
+    task.run();
+
+    // Then
+    assertEquals(Arrays.asList("String", "null", "Integer"), events.get(0).getParameters());
+  }
+
+  @Test
+  void histogramsExposedViaJmx() throws Exception {
+    // Given
+    QueryMetrics.registerMBean();
+
+    // When
+    createQueryTask().run();
+    createQueryTask().run();
+
+    // Then
+    CompositeData[] statistics =
+        (CompositeData[])
+            ManagementFactory.getPlatformMBeanServer()
+                .getAttribute(new ObjectName(QueryMetrics.OBJECT_NAME), "QueryStatistics");
+    assertAll(
+        () -> assertEquals(1, statistics.length, "fingerprints"),
+        () -> assertEquals(2L, statistics[0].get("count"), "count"),
+        () -> assertEquals(4L, statistics[0].get("rows"), "rows"));
+  }
+
+  private SqlQueryTask<List<ExampleEntity>> createQueryTask() {
+    return new SqlQueryTask<>(
+        dataSource,
+        SQL,
+        statement -> {
+          ResultSet resultSet = statement.executeQuery();
+          return new SetterResultSetMapper<>(ExampleEntity.class).mapList(resultSet);
+        });
+  }
+}
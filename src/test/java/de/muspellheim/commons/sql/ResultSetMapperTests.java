@@ -5,17 +5,34 @@
 
 package de.muspellheim.commons.sql;
 
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.SQLDataException;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.sql.DataSource;
+import lombok.Data;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 
 @Tag("postgres")
 public class ResultSetMapperTests {
@@ -69,4 +86,213 @@ public class ResultSetMapperTests {
     // Then
     assertEquals(Arrays.asList("Foo", "Bar"), values);
   }
+
+  @Test
+  void mapValueStream() throws Exception {
+    // When
+    List<String> values;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(SQL)) {
+        ResultSet resultSet = statement.executeQuery();
+        try (Stream<String> stream = ResultSetMapper.mapValueStream(resultSet, String.class)) {
+          values = stream.collect(Collectors.toList());
+        }
+      }
+    }
+
+    // Then
+    assertEquals(Arrays.asList("Foo", "Bar"), values);
+  }
+
+  @Test
+  void mapLongVector() throws Exception {
+    // Given
+    String sql = "SELECT * FROM (VALUES (1::bigint), (NULL), (3)) AS table1(id);";
+
+    // When
+    LongVector values;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        values = ResultSetMapper.mapLongVector(resultSet);
+      }
+    }
+
+    // Then
+    assertAll(
+        () -> assertEquals(3, values.size(), "size"),
+        () -> assertTrue(values.isNull(1), "is null"),
+        () -> assertArrayEquals(new long[] {1, -1, 3}, values.toArray(-1), "values"));
+  }
+
+  @Test
+  void mapDoubleArray() throws Exception {
+    // Given
+    String sql = "SELECT * FROM (VALUES (1.5::float8), (NULL), (3.5)) AS table1(weight);";
+
+    // When
+    double[] values;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        values = ResultSetMapper.mapDoubleArray(resultSet, Double.NaN);
+      }
+    }
+
+    // Then
+    assertArrayEquals(new double[] {1.5, Double.NaN, 3.5}, values);
+  }
+
+  @Test
+  void mapColumns() throws Exception {
+    // Given
+    String sql =
+        "SELECT * FROM (VALUES (1::bigint, 'red', DATE '2020-01-30'), (2, NULL, NULL), "
+            + "(3, 'red', DATE '2020-01-31')) AS table1(id, color, created);";
+
+    // When
+    ColumnarResult columns;
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        columns = ResultSetMapper.mapColumns(resultSet);
+      }
+    }
+
+    // Then
+    StringVector colors = columns.getVector("color", StringVector.class);
+    assertAll(
+        () -> assertEquals(3, columns.getRowCount(), "row count"),
+        () -> assertEquals(Arrays.asList("id", "color", "created"), columns.getColumnLabels()),
+        () ->
+            assertArrayEquals(
+                new long[] {1, 2, 3}, columns.getVector("id", LongVector.class).toArray(), "ids"),
+        () -> assertEquals(Collections.singletonList("red"), colors.getDictionary(), "dictionary"),
+        () -> assertTrue(colors.isNull(1), "color is null"),
+        () ->
+            assertEquals(
+                LocalDate.of(2020, 1, 31), columns.getVector("created").getObject(2), "created"));
+  }
+
+  @Test
+  void mapBytesExceedingMaxLength() throws Exception {
+    // Given
+    String sql = "SELECT '\\x0102030405'::bytea AS data;";
+    ResultSetMapper.setMaxBytesLength(4);
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        resultSet.next();
+
+        // When
+        Executable executable = () -> ResultSetMapper.mapValue(resultSet, "data", byte[].class);
+
+        // Then
+        assertThrows(SQLDataException.class, executable);
+      }
+    } finally {
+      ResultSetMapper.setMaxBytesLength(ResultSetMapper.DEFAULT_MAX_BYTES_LENGTH);
+    }
+  }
+
+  @Test
+  void mapLargeObjectStream() throws Exception {
+    // Given
+    String sql = "SELECT lo_from_bytea(0, 'Hello World'::bytea) AS data;";
+
+    // When
+    ByteArrayOutputStream value = new ByteArrayOutputStream();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        resultSet.next();
+        try (InputStream in = ResultSetMapper.mapValue(resultSet, "data", InputStream.class)) {
+          byte[] buffer = new byte[4];
+          int n;
+          while ((n = in.read(buffer)) != -1) {
+            value.write(buffer, 0, n);
+          }
+        }
+      } finally {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+    }
+
+    // Then
+    assertEquals("Hello World", new String(value.toByteArray(), StandardCharsets.UTF_8));
+  }
+
+  @Test
+  void mapLargeObjectStreamList() throws Exception {
+    // Given
+    String sql = "SELECT lo_from_bytea(0, b) FROM (VALUES ('Foo'::bytea), ('Bar'::bytea)) AS t(b);";
+
+    // When
+    List<String> values = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        ResultSet resultSet = statement.executeQuery();
+        for (InputStream in : ResultSetMapper.mapValueList(resultSet, InputStream.class)) {
+          values.add(new String(readAll(in), StandardCharsets.UTF_8));
+        }
+      } finally {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+    }
+
+    // Then
+    assertEquals(Arrays.asList("Foo", "Bar"), values);
+  }
+
+  @Test
+  void registerMappingAfterFirstUse() throws Exception {
+    // Given
+    String sql = "SELECT 'f81d4fae-7dec-11d0-a765-00a0c91e6bf6' AS id;";
+    ResultSetMapper.registerMapping(
+        UUID.class, (resultSet, columnLabel) -> UUID.fromString(resultSet.getString(columnLabel)));
+    ResultSetMapper<UuidEntity> mapper = new CompiledSetterResultSetMapper<>(UuidEntity.class);
+    List<UuidEntity> before = mapList(mapper, sql);
+
+    // When
+    ResultSetMapper.registerMapping(UUID.class, (resultSet, columnLabel) -> new UUID(0, 0));
+    List<UuidEntity> after = mapList(mapper, sql);
+
+    // Then
+    assertAll(
+        () ->
+            assertEquals(
+                UUID.fromString("f81d4fae-7dec-11d0-a765-00a0c91e6bf6"),
+                before.get(0).getId(),
+                "before"),
+        () -> assertEquals(new UUID(0, 0), after.get(0).getId(), "after"));
+  }
+
+  private static byte[] readAll(InputStream in) throws IOException {
+    try (InputStream stream = in) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      byte[] buffer = new byte[4];
+      int n;
+      while ((n = stream.read(buffer)) != -1) {
+        out.write(buffer, 0, n);
+      }
+      return out.toByteArray();
+    }
+  }
+
+  private <T> List<T> mapList(ResultSetMapper<T> mapper, String sql) throws Exception {
+    try (Connection connection = dataSource.getConnection()) {
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        return mapper.mapList(statement.executeQuery());
+      }
+    }
+  }
+
+  @Data
+  public static class UuidEntity {
+    UUID id;
+  }
 }
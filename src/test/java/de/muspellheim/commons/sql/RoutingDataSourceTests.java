@@ -0,0 +1,205 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+
+@Tag("postgres")
+class RoutingDataSourceTests {
+
+  private RoutingDataSource routing;
+
+  @AfterEach
+  void tearDown() {
+    if (routing != null) {
+      routing.close();
+    }
+  }
+
+  @Test
+  void writesOnPrimary() throws Exception {
+    // Given
+    routing =
+        new RoutingDataSource(
+            dataSource("primary", 5432),
+            Collections.singletonList(dataSource("replica", 5432)),
+            RoutingConfiguration.of(Duration.ofSeconds(10)));
+
+    // When
+    String name;
+    try (Connection connection = routing.getConnection()) {
+      name = applicationName(connection);
+    }
+
+    // Then
+    assertEquals("primary", name);
+  }
+
+  @Test
+  void readsOnReplicaWithLeastOutstandingConnections() throws Exception {
+    // Given
+    routing =
+        new RoutingDataSource(
+            dataSource("primary", 5432),
+            Arrays.asList(dataSource("replica1", 5432), dataSource("replica2", 5432)),
+            RoutingConfiguration.of(Duration.ofSeconds(10)));
+
+    // When
+    String first;
+    String second;
+    try (Connection connection1 = routing.getReadOnlyConnection();
+        Connection connection2 = routing.getReadOnlyConnection()) {
+      first = applicationName(connection1);
+      second = applicationName(connection2);
+    }
+
+    // Then
+    assertAll(
+        () -> assertTrue(first.startsWith("replica"), "first on replica"),
+        () -> assertTrue(second.startsWith("replica"), "second on replica"),
+        () -> assertNotEquals(first, second, "different replicas"));
+  }
+
+  @Test
+  void readsOnPrimaryIfReplicaNotReachable() throws Exception {
+    // Given
+    routing =
+        new RoutingDataSource(
+            dataSource("primary", 5432),
+            Collections.singletonList(dataSource("replica", 1)),
+            RoutingConfiguration.of(Duration.ofSeconds(10)));
+
+    // When
+    String name;
+    try (Connection connection = routing.getReadOnlyDataSource().getConnection()) {
+      name = applicationName(connection);
+    }
+
+    // Then
+    assertEquals("primary", name);
+  }
+
+  @Test
+  void readsOnPrimaryIfReplicaLagsBeforeFirstScheduledCheck() throws Exception {
+    // Given
+    routing =
+        new RoutingDataSource(
+            dataSource("primary", 5432),
+            Collections.singletonList(dataSource("replica", 5432)),
+            RoutingConfiguration.of(Duration.ofMillis(-1))
+                .withHealthCheckInterval(Duration.ofHours(1)));
+
+    // When
+    String name;
+    try (Connection connection = routing.getReadOnlyConnection()) {
+      name = applicationName(connection);
+    }
+
+    // Then
+    assertEquals("primary", name);
+  }
+
+  @Test
+  void replicaConnectionEqualsItself() throws Exception {
+    // Given
+    routing =
+        new RoutingDataSource(
+            dataSource("primary", 5432),
+            Collections.singletonList(dataSource("replica", 5432)),
+            RoutingConfiguration.of(Duration.ofSeconds(10)));
+
+    // When
+    Connection connection = routing.getReadOnlyConnection();
+    connection.close();
+
+    // Then
+    assertAll(
+        () -> assertEquals(connection, connection, "equals"),
+        () -> assertTrue(connection instanceof ReplicaConnection, "replica connection"),
+        () -> assertTrue(connection.isClosed(), "closed"));
+  }
+
+  @Test
+  void noReplicationLagIfPrimaryIsIdle() throws Exception {
+    // Given
+    String lagQuery =
+        replicaQuery(
+            RoutingDataSource.REPLICATION_LAG_QUERY, "'0/3000060'::pg_lsn", "'0/3000060'::pg_lsn");
+
+    // When
+    long lag = queryLong(lagQuery);
+
+    // Then
+    assertEquals(0, lag);
+  }
+
+  @Test
+  void replicationLagIfReplayIsBehind() throws Exception {
+    // Given
+    String lagQuery =
+        replicaQuery(
+            RoutingDataSource.REPLICATION_LAG_QUERY, "'0/3000060'::pg_lsn", "'0/3000000'::pg_lsn");
+
+    // When
+    long lag = queryLong(lagQuery);
+
+    // Then
+    assertTrue(lag >= Duration.ofHours(1).toMillis(), "lag");
+  }
+
+  /** Simulate a replica, which replayed a transaction an hour ago. */
+  private static String replicaQuery(String query, String receiveLsn, String replayLsn) {
+    return query
+        .replace("pg_is_in_recovery()", "true")
+        .replace("pg_last_wal_receive_lsn()", receiveLsn)
+        .replace("pg_last_wal_replay_lsn()", replayLsn)
+        .replace("pg_last_xact_replay_timestamp()", "(now() - interval '1 hour')");
+  }
+
+  private static long queryLong(String sql) throws SQLException {
+    try (Connection connection = dataSource("replica", 5432).getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(sql)) {
+      resultSet.next();
+      return resultSet.getLong(1);
+    }
+  }
+
+  private static DataSource dataSource(String applicationName, int port) {
+    PGSimpleDataSource ds = new PGSimpleDataSource();
+    ds.setServerName("localhost");
+    ds.setPortNumber(port);
+    ds.setUser("postgres");
+    ds.setDatabaseName("java_muspellheim_commons");
+    ds.setApplicationName(applicationName);
+    return ds;
+  }
+
+  private static String applicationName(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement();
+        ResultSet resultSet =
+            statement.executeQuery("SELECT current_setting('application_name');")) {
+      resultSet.next();
+      return resultSet.getString(1);
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import de.muspellheim.commons.sql.ResultSetMapper.Strategy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class SharedResultSetMapperTests {
+
+  @Test
+  void sameMapperForSameTypeAndStrategy() {
+    // Given
+    ResultSetMapper<ExampleEntity> first =
+        ResultSetMapper.forType(ExampleEntity.class, Strategy.COMPILED_CONSTRUCTOR);
+    MapperCacheStatistics before = ResultSetMapper.getMapperCacheStatistics();
+
+    // When
+    ResultSetMapper<ExampleEntity> second =
+        ResultSetMapper.forType(ExampleEntity.class, Strategy.COMPILED_CONSTRUCTOR);
+
+    // Then
+    MapperCacheStatistics after = ResultSetMapper.getMapperCacheStatistics();
+    assertAll(
+        () -> assertSame(first, second, "same mapper"),
+        () -> assertTrue(first instanceof CompiledConstructorResultSetMapper, "strategy"),
+        () -> assertEquals(before.getMissCount(), after.getMissCount(), "miss count"),
+        () -> assertTrue(after.getHitCount() > before.getHitCount(), "hit count"));
+  }
+
+  @Test
+  void otherMapperForOtherStrategy() {
+    // When
+    ResultSetMapper<ExampleEntity> setter =
+        ResultSetMapper.forType(ExampleEntity.class, Strategy.SETTER);
+    ResultSetMapper<ExampleEntity> constructor =
+        ResultSetMapper.forType(ExampleEntity.class, Strategy.CONSTRUCTOR);
+
+    // Then
+    assertAll(
+        () -> assertNotSame(setter, constructor, "other mapper"),
+        () -> assertTrue(setter instanceof SetterResultSetMapper, "setter strategy"),
+        () ->
+            assertTrue(constructor instanceof ConstructorResultSetMapper, "constructor strategy"));
+  }
+
+  @Test
+  void concurrentFirstUseCreatesOneMapper() throws Exception {
+    // Given
+    Callable<ResultSetMapper<ExampleEntity>> task =
+        () -> ResultSetMapper.forType(ExampleEntity.class, Strategy.COMPILED_SETTER);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When
+    List<Future<ResultSetMapper<ExampleEntity>>> futures = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      futures.add(executor.submit(task));
+    }
+    executor.shutdown();
+
+    // Then
+    ResultSetMapper<ExampleEntity> expected = futures.get(0).get();
+    for (Future<ResultSetMapper<ExampleEntity>> future : futures) {
+      assertSame(expected, future.get());
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.time.Duration;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+@Tag("postgres")
+class SlowQueryLogTests {
+
+  // language=PostgreSQL
+  private static final String SQL =
+      "SELECT family_name FROM (VALUES ('Foo'), ('Bar')) AS t(family_name) WHERE family_name = ?;";
+
+  @TempDir Path directory;
+
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+  }
+
+  @Test
+  void slowQueryLogged() throws Exception {
+    // Given
+    String pattern = directory.resolve("slow-query-%g.log").toString();
+    SlowQueryLog log =
+        new SlowQueryLog(SlowQueryLogConfiguration.of(Duration.ZERO, pattern), dataSource);
+
+    // When
+    createQueryTask("Foo").run();
+    log.close();
+
+    // Then
+    Path file = directory.resolve("slow-query-0.log");
+    String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    assertAll(
+        () -> assertTrue(content.contains("slow query"), "entry"),
+        () -> assertTrue(content.contains("1 rows"), "rows"),
+        () -> assertTrue(content.contains("fingerprint: SELECT family_name FROM"), "fingerprint"),
+        () -> assertTrue(content.contains("parameters: [String]"), "parameters"),
+        () -> assertFalse(content.contains("'Foo'"), "parameter value redacted"),
+        () -> assertTrue(content.contains("plan:"), "plan"),
+        () -> assertTrue(content.contains("Values Scan"), "plan node"));
+  }
+
+  @Test
+  void fastQueryNotLogged() throws Exception {
+    // Given
+    String pattern = directory.resolve("slow-query-%g.log").toString();
+    SlowQueryLog log =
+        new SlowQueryLog(SlowQueryLogConfiguration.of(Duration.ofMinutes(1), pattern));
+
+    // When
+    createQueryTask("Foo").run();
+    log.close();
+
+    // Then
+    assertEquals(0, Files.size(directory.resolve("slow-query-0.log")));
+  }
+
+  @Test
+  void closeKeepsInterrupt() throws Exception {
+    // Given
+    String pattern = directory.resolve("slow-query-%g.log").toString();
+    SlowQueryLog log =
+        new SlowQueryLog(SlowQueryLogConfiguration.of(Duration.ZERO, pattern), dataSource);
+    createQueryTask("Foo").run();
+
+    // When
+    Thread.currentThread().interrupt();
+    log.close();
+
+    // Then
+    assertTrue(Thread.interrupted(), "interrupted");
+  }
+
+  @Test
+  void explainSkipsEscapedOperatorsAndComments() throws Exception {
+    // Given
+    // language=PostgreSQL
+    String sql =
+        "SELECT x, '{\"a\": 1}'::jsonb ??| array['a'] /* ? */, $$?$$, '?' -- ?\n"
+            + "FROM generate_series(1, 3) AS x WHERE x = ?;";
+
+    // When
+    String plan;
+    try (Connection connection = dataSource.getConnection()) {
+      plan = PostgresRepository.explain(connection, sql);
+    }
+
+    // Then
+    assertTrue(plan.contains("Function Scan"), plan);
+  }
+
+  private SqlQueryTask<Integer> createQueryTask(String familyName) {
+    return new SqlQueryTask<>(
+        dataSource,
+        SQL,
+        statement -> {
+          statement.setString(1, familyName);
+          try (ResultSet resultSet = statement.executeQuery()) {
+            return ResultSetMapper.mapValueList(resultSet, String.class).size();
+          }
+        });
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Tag("postgres")
+class SqlBatchTaskTests {
+
+  // language=PostgreSQL
+  private static final String INSERT = "INSERT INTO batch_example (id, name) VALUES (?, ?);";
+
+  private static final StatementBinder<Integer> BINDER =
+      (statement, id) -> {
+        statement.setInt(1, id);
+        statement.setString(2, "Name " + id);
+      };
+
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+    // language=PostgreSQL
+    execute("CREATE TABLE batch_example (id INTEGER PRIMARY KEY, name VARCHAR(32));");
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    // language=PostgreSQL
+    execute("DROP TABLE batch_example;");
+  }
+
+  @Test
+  @Timeout(5)
+  void chunked() throws Exception {
+    // Given
+    List<Integer> ids = IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList());
+    SqlBatchTask<Integer> task = new SqlBatchTask<>(dataSource, INSERT, ids, BINDER, 10);
+    List<BatchProgress> progress = new ArrayList<>();
+    task.getOnProgress().addHandler(progress::add);
+
+    // When
+    task.run();
+    BatchProgress result = task.get();
+
+    // Then
+    assertAll(
+        () -> assertEquals(BatchProgress.of(3, 5, 25, 25, null), result, "result"),
+        () ->
+            assertEquals(
+                Arrays.asList(
+                    BatchProgress.of(1, 10, 10, 10, null),
+                    BatchProgress.of(2, 10, 20, 20, null),
+                    BatchProgress.of(3, 5, 25, 25, null)),
+                progress,
+                "progress"),
+        () -> assertEquals(25, count(), "rows"));
+  }
+
+  @Test
+  @Timeout(5)
+  void failedChunkRolledBack() throws Exception {
+    // Given
+    List<Integer> ids = Arrays.asList(1, 2, 3, 4, 2);
+    SqlBatchTask<Integer> task = new SqlBatchTask<>(dataSource, INSERT, ids, BINDER, 2);
+    List<BatchProgress> progress = new ArrayList<>();
+    task.getOnProgress().addHandler(progress::add);
+
+    // When
+    task.run();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    BatchProgress failed = progress.get(progress.size() - 1);
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof SQLException, "cause exception type"),
+        () -> assertTrue(failed.isFailed(), "failed"),
+        () -> assertEquals(3, failed.getChunks(), "chunks"),
+        () -> assertEquals(4, failed.getProcessedEntities(), "processed entities"),
+        () -> assertEquals(0, count(), "rows"));
+  }
+
+  @Test
+  void invalidChunkSize() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> new SqlBatchTask<>(dataSource, INSERT, Arrays.asList(1, 2), BINDER, 0));
+  }
+
+  private void execute(String sql) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  private int count() throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        // language=PostgreSQL
+        ResultSet resultSet = statement.executeQuery("SELECT count(*) FROM batch_example;")) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Tag("postgres")
+class SqlExecutorTests {
+
+  // language=PostgreSQL
+  private static final String SLEEP = "SELECT pg_sleep(0.3);";
+
+  private DataSource dataSource;
+  private SqlExecutor executor;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  @Timeout(2)
+  void completed() throws Exception {
+    // Given
+    executor = new SqlExecutor(dataSource, SqlExecutorConfiguration.of(2, 10));
+
+    // When
+    CompletableFuture<Integer> future = executor.submit("SELECT 42;", SqlExecutorTests::value);
+
+    // Then
+    assertEquals(42, future.get());
+  }
+
+  @Test
+  @Timeout(2)
+  void failed() throws Exception {
+    // Given
+    executor = new SqlExecutor(dataSource, SqlExecutorConfiguration.of(2, 10));
+
+    // When
+    CompletableFuture<Boolean> future =
+        executor.submit("SELECT 1 / 0;", PreparedStatement::execute);
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, future::get);
+    SqlExecutorStatistics statistics = executor.getStatistics();
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof SQLException, "cause"),
+        () -> assertEquals(0, statistics.getCompletedQueries(), "completed queries"),
+        () -> assertEquals(1, statistics.getFailedQueries(), "failed queries"));
+  }
+
+  @Test
+  @Timeout(5)
+  void rejectedIfQueueIsFull() throws Exception {
+    // Given
+    executor = new SqlExecutor(dataSource, SqlExecutorConfiguration.of(1, 1));
+    CompletableFuture<Boolean> running = executor.submit(SLEEP, PreparedStatement::execute);
+    CompletableFuture<Boolean> waiting = executor.submit(SLEEP, PreparedStatement::execute);
+
+    // When
+    CompletableFuture<Boolean> rejected = executor.submit(SLEEP, PreparedStatement::execute);
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, rejected::get);
+    CompletableFuture.allOf(running, waiting).get();
+    SqlExecutorStatistics statistics = executor.getStatistics();
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof RejectedExecutionException, "cause"),
+        () -> assertEquals(2, statistics.getCompletedQueries(), "completed queries"),
+        () -> assertEquals(1, statistics.getRejectedQueries(), "rejected queries"),
+        () -> assertEquals(0, statistics.getQueueDepth(), "queue depth"),
+        () -> assertTrue(statistics.getMaxWaitTime().toMillis() >= 200, "max wait time"));
+  }
+
+  @Test
+  @Timeout(5)
+  void oldestDiscardedIfQueueIsFull() throws Exception {
+    // Given
+    executor =
+        new SqlExecutor(
+            dataSource,
+            SqlExecutorConfiguration.of(1, 1)
+                .withRejectionPolicy(SqlExecutor.RejectionPolicy.DISCARD_OLDEST));
+    executor.submit(SLEEP, PreparedStatement::execute);
+    CompletableFuture<Boolean> discarded = executor.submit(SLEEP, PreparedStatement::execute);
+
+    // When
+    CompletableFuture<Integer> newest = executor.submit("SELECT 42;", SqlExecutorTests::value);
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, discarded::get);
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof RejectedExecutionException, "cause"),
+        () -> assertEquals(42, newest.get(), "newest"));
+  }
+
+  private static int value(PreparedStatement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+}
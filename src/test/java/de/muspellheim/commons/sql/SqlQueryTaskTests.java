@@ -11,7 +11,11 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import de.muspellheim.commons.domain.QueryCanceledException;
+import java.sql.Connection;
 import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +24,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -149,6 +154,121 @@ class SqlQueryTaskTests {
         () -> assertTrue(task.isDone(), "is done"));
   }
 
+  @Test
+  void cancelledBeforeStart() {
+    // Given
+    SqlQueryTask<List<ExampleEntity>> task = createQueryTask();
+
+    // When
+    boolean cancelled = task.cancel(true);
+    task.run();
+
+    // Then
+    assertThrows(CancellationException.class, task::get);
+    assertAll(
+        () -> assertTrue(cancelled, "cancelled"),
+        () -> assertFalse(task.cancel(true), "cancelled again"),
+        () -> assertTrue(task.isCancelled(), "is cancelled"));
+  }
+
+  @Test
+  @Timeout(5)
+  void cancelledWhileWaitingForConnection() throws Exception {
+    // Given
+    PostgresDatabase database = createPooledDatabase(Duration.ofSeconds(10));
+    ConnectionPool pool = (ConnectionPool) database.getDataSource();
+    AtomicBoolean executed = new AtomicBoolean();
+    SqlQueryTask<Boolean> task =
+        new SqlQueryTask<>(pool, "SELECT 1;", statement -> executed.getAndSet(true));
+    Thread thread = new Thread(task);
+
+    // When
+    try (Connection ignored = pool.getConnection()) {
+      thread.start();
+      Thread.sleep(200);
+      task.cancel(true);
+    }
+    thread.join();
+    database.close();
+
+    // Then
+    assertThrows(CancellationException.class, task::get);
+    assertAll(
+        () -> assertTrue(task.isCancelled(), "is cancelled"),
+        () -> assertFalse(executed.get(), "executed"));
+  }
+
+  @Test
+  @Timeout(5)
+  void deadlineLimitsWaitingForConnection() throws Exception {
+    // Given
+    PostgresDatabase database = createPooledDatabase(Duration.ofSeconds(10));
+    ConnectionPool pool = (ConnectionPool) database.getDataSource();
+    SqlQueryTask<Boolean> task = new SqlQueryTask<>(pool, "SELECT 1;", statement -> true);
+    task.setDeadline(Deadline.after(Duration.ofMillis(200)));
+
+    // When
+    try (Connection ignored = pool.getConnection()) {
+      task.run();
+    }
+    database.close();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    assertEquals(
+        PostgresRepository.QUERY_CANCELED,
+        ((SQLException) exception.getCause()).getSQLState(),
+        "SQL state");
+  }
+
+  @Test
+  @Timeout(2)
+  void deadlineReachedBeforeStart() {
+    // Given
+    SqlQueryTask<List<ExampleEntity>> task = createQueryTask();
+    task.setDeadline(Deadline.after(Duration.ZERO));
+
+    // When
+    task.run();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    assertThrows(
+        QueryCanceledException.class,
+        () ->
+            new PostgresRepository() {}.checkForRepositoryException(
+                (SQLException) exception.getCause()));
+  }
+
+  @Test
+  @Timeout(5)
+  void deadlineCancelsStatement() {
+    // Given
+    SqlQueryTask<List<ExampleEntity>> task = createEndlessQueryTask();
+    task.setDeadline(Deadline.after(Duration.ofMillis(500)));
+    Thread thread = new Thread(task);
+
+    // When
+    thread.start();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof SQLException, "cause exception type"),
+        () ->
+            assertEquals(
+                PostgresRepository.QUERY_CANCELED,
+                ((SQLException) exception.getCause()).getSQLState(),
+                "SQL state"));
+  }
+
+  private static PostgresDatabase createPooledDatabase(Duration acquisitionTimeout) {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons")
+            .withPool(PoolConfiguration.of(0, 1).withAcquisitionTimeout(acquisitionTimeout));
+    return new PostgresDatabase(config);
+  }
+
   private SqlQueryTask<List<ExampleEntity>> createQueryTask() {
     // language=PostgreSQL
     String sql =
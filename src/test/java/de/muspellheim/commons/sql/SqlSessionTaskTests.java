@@ -0,0 +1,233 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+@Tag("postgres")
+class SqlSessionTaskTests {
+
+  private DataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    PostgresDatabase database = new PostgresDatabase(config);
+    dataSource = database.getDataSource();
+  }
+
+  @Test
+  @Timeout(2)
+  void queriesShareConnection() throws Exception {
+    // Given
+    SqlSessionTask<List<Integer>> task =
+        new SqlSessionTask<>(
+            dataSource,
+            "backend pids",
+            session ->
+                Arrays.asList(
+                    session.query("SELECT pg_backend_pid();", this::readInt),
+                    session.query("SELECT pg_backend_pid();", this::readInt)));
+
+    // When
+    task.run();
+
+    // Then
+    List<Integer> pids = task.get();
+    assertEquals(pids.get(0), pids.get(1));
+  }
+
+  @Test
+  @Timeout(2)
+  void readOnlyTransactionSharesSnapshot() throws Exception {
+    // Given
+    SqlSessionTask<List<Timestamp>> task =
+        new SqlSessionTask<>(
+            dataSource,
+            "transaction time",
+            session ->
+                Arrays.asList(
+                    session.query("SELECT now();", this::readTimestamp),
+                    session.query("SELECT pg_sleep(0.1), now();", this::readTimestamp)));
+    task.setReadOnlyTransaction(true);
+
+    // When
+    task.run();
+
+    // Then
+    List<Timestamp> times = task.get();
+    assertEquals(times.get(0), times.get(1));
+  }
+
+  @Test
+  @Timeout(2)
+  void readOnlyTransactionRejectsWrite() {
+    // Given
+    SqlSessionTask<Integer> task =
+        new SqlSessionTask<>(
+            dataSource,
+            "write",
+            session ->
+                session.query(
+                    "CREATE TEMPORARY TABLE session_test (id int);",
+                    statement -> statement.executeUpdate()));
+    task.setReadOnlyTransaction(true);
+
+    // When
+    task.run();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof SQLException, "cause exception type"),
+        () ->
+            assertEquals(
+                "25006", ((SQLException) exception.getCause()).getSQLState(), "SQL state"));
+  }
+
+  @Test
+  @Timeout(2)
+  void readOnlyTransactionRestoresPooledConnection() throws Exception {
+    // Given
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons")
+            .withPool(PoolConfiguration.of(0, 1));
+    PostgresDatabase database = new PostgresDatabase(config);
+    DataSource pool = database.getDataSource();
+    SqlSessionTask<List<Object>> task =
+        new SqlSessionTask<>(
+            pool,
+            "transaction settings",
+            session ->
+                Arrays.asList(
+                    session.query("SHOW transaction_isolation;", this::readString),
+                    session.query("SELECT pg_backend_pid();", this::readInt)));
+    task.setReadOnlyTransaction(true);
+
+    try {
+      // When
+      task.run();
+
+      // Then
+      List<Object> settings = task.get();
+      try (Connection connection = pool.getConnection()) {
+        assertAll(
+            () -> assertEquals("repeatable read", settings.get(0), "isolation in session"),
+            () -> assertFalse(connection.isReadOnly(), "read only after session"),
+            () ->
+                assertEquals(
+                    Connection.TRANSACTION_READ_COMMITTED,
+                    connection.getTransactionIsolation(),
+                    "isolation after session"),
+            () ->
+                assertEquals(
+                    settings.get(1),
+                    readInt(connection.prepareStatement("SELECT pg_backend_pid();")),
+                    "reused connection"));
+      }
+    } finally {
+      database.close();
+    }
+  }
+
+  @Test
+  @Timeout(2)
+  void readOnlyTransactionSuppressesRollbackFailure() {
+    // Given
+    SqlSessionTask<Integer> task =
+        new SqlSessionTask<>(
+            dataSource,
+            "terminated",
+            session ->
+                session.query("SELECT pg_terminate_backend(pg_backend_pid());", this::readInt));
+    task.setReadOnlyTransaction(true);
+
+    // When
+    task.run();
+
+    // Then
+    ExecutionException exception = assertThrows(ExecutionException.class, task::get);
+    assertAll(
+        () -> assertTrue(exception.getCause() instanceof SQLException, "cause exception type"),
+        () -> assertTrue(exception.getCause().getSuppressed().length > 0, "suppressed failures"));
+  }
+
+  @Test
+  @Timeout(5)
+  void cancelledSessionStartsNoFurtherQuery() throws Exception {
+    // Given
+    AtomicInteger startedQueries = new AtomicInteger();
+    SqlSessionTask<Void> task =
+        new SqlSessionTask<>(
+            dataSource,
+            "endless",
+            session -> {
+              for (int i = 0; i < 2; i++) {
+                session.query(
+                    "SELECT pg_sleep(10);",
+                    statement -> {
+                      startedQueries.incrementAndGet();
+                      return statement.execute();
+                    });
+              }
+              return null;
+            });
+    Thread thread = new Thread(task);
+
+    // When
+    thread.start();
+    Thread.sleep(500);
+    task.cancel(true);
+    thread.join();
+
+    // Then
+    assertAll(
+        () -> assertThrows(CancellationException.class, task::get),
+        () -> assertEquals(1, startedQueries.get(), "started queries"));
+  }
+
+  private int readInt(PreparedStatement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getInt(1);
+    }
+  }
+
+  private String readString(PreparedStatement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getString(1);
+    }
+  }
+
+  private Timestamp readTimestamp(PreparedStatement statement) throws SQLException {
+    try (ResultSet resultSet = statement.executeQuery()) {
+      resultSet.next();
+      return resultSet.getTimestamp(resultSet.getMetaData().getColumnCount());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Muspellheim Commons
+ * Copyright (c) 2020 Falko Schumann
+ */
+
+package de.muspellheim.commons.sql;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.Value;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class SqlTemplateTests {
+
+  @Test
+  void parse() {
+    // When
+    SqlTemplate template =
+        SqlTemplate.parse(
+            "SELECT ':no', \"a:b\", age::text -- :comment\n"
+                + "FROM person /* :comment */ WHERE name = :name OR alias = :name AND age > :age;");
+
+    // Then
+    assertAll(
+        () ->
+            assertEquals(
+                "SELECT ':no', \"a:b\", age::text -- :comment\n"
+                    + "FROM person /* :comment */ WHERE name = ? OR alias = ? AND age > ?;",
+                template.getSql(),
+                "sql"),
+        () -> assertEquals(Arrays.asList("name", "name", "age"), template.getParameterNames()));
+  }
+
+  @Test
+  void parseDollarQuoted() {
+    // When
+    SqlTemplate template =
+        SqlTemplate.parse(
+            "SELECT $$:no$$, $body$ ':no' $$ :no $body$, $1, a$b FROM person WHERE id = :id;");
+
+    // Then
+    assertAll(
+        () ->
+            assertEquals(
+                "SELECT $$:no$$, $body$ ':no' $$ :no $body$, $1, a$b FROM person WHERE id = ?;",
+                template.getSql(),
+                "sql"),
+        () -> assertEquals(Collections.singletonList("id"), template.getParameterNames()));
+  }
+
+  @Test
+  void parsedTemplateCached() {
+    // When
+    SqlTemplate first = SqlTemplate.parse("SELECT :value;");
+    SqlTemplate second = SqlTemplate.parse("SELECT :value;");
+
+    // Then
+    assertSame(first, second);
+  }
+
+  @Test
+  @Tag("postgres")
+  void bindMapWithCollection() throws Exception {
+    // Given
+    SqlTemplate template =
+        SqlTemplate.parse(
+            "SELECT n FROM generate_series(1, 10) AS n WHERE n = ANY(:values) AND n > :min;");
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("values", Arrays.asList(2, 4, 6));
+    parameters.put("min", 2);
+
+    // When
+    List<Integer> result = query(template, (statement, p) -> template.bind(statement, parameters));
+
+    // Then
+    assertEquals(Arrays.asList(4, 6), result);
+  }
+
+  @Test
+  @Tag("postgres")
+  void bindBean() throws Exception {
+    // Given
+    SqlTemplate template =
+        SqlTemplate.parse("SELECT n FROM generate_series(1, 50) AS n WHERE n = :age;");
+    ExampleEntity entity = new ExampleEntity();
+    entity.setAge(42);
+
+    // When
+    List<Integer> result = query(template, (statement, e) -> template.bindBean(statement, entity));
+
+    // Then
+    assertEquals(Collections.singletonList(42), result);
+  }
+
+  @Test
+  @Tag("postgres")
+  void bindPrivateBean() throws Exception {
+    // Given
+    SqlTemplate template =
+        SqlTemplate.parse("SELECT n FROM generate_series(1, 50) AS n WHERE n = :age;");
+    PrivateBean bean = new PrivateBean(24);
+
+    // When
+    List<Integer> result = query(template, (statement, e) -> template.bindBean(statement, bean));
+
+    // Then
+    assertEquals(Collections.singletonList(24), result);
+  }
+
+  private static List<Integer> query(SqlTemplate template, StatementBinder<Void> binder)
+      throws Exception {
+    DatabaseConfiguration config =
+        DatabaseConfiguration.of("localhost", 5432, "postgres", "", "java_muspellheim_commons");
+    DataSource dataSource = new PostgresDatabase(config).getDataSource();
+    SqlQueryTask<List<Integer>> task =
+        new SqlQueryTask<>(
+            dataSource,
+            template.getSql(),
+            statement -> {
+              binder.bind(statement, null);
+              ResultSet resultSet = statement.executeQuery();
+              return ResultSetMapper.mapValueList(resultSet, Integer.class);
+            });
+    task.run();
+    return task.get();
+  }
+
+  @Value
+  private static class PrivateBean {
+    int age;
+  }
+}